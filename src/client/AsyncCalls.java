@@ -0,0 +1,106 @@
+package client;
+
+import service.RemoteCursor;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// Executor dùng chung của client cho mọi lời gọi RMI (các facade Async*Service và PanelTasks):
+// mỗi lời gọi một virtual thread, nên server chậm không chiếm EDT hay cạn một pool luồng cố định.
+//  - supply(...) trả về CompletableFuture; cancel(true) ngắt luồng đang chạy lời gọi: lời gọi chưa
+//    bắt đầu thì không chạy, lời gọi đang chờ socket dừng ngay (I/O socket của virtual thread ngắt
+//    được), vòng đọc theo khối dừng trước khối sau và đóng con trỏ.
+//  - Phía server vẫn chạy xong lời gọi đã nhận (RMI không hủy được giữa chừng).
+public final class AsyncCalls {
+
+    public interface RemoteCall<T> {
+        T call() throws Exception;
+    }
+
+    public interface RemoteAction {
+        void run() throws Exception;
+    }
+
+    // Nhiều lời gọi nối tiếp trên một service trong cùng một tác vụ
+    public interface ServiceCall<S, T> {
+        T call(S service) throws Exception;
+    }
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private AsyncCalls() {
+    }
+
+    public static <T> CompletableFuture<T> supply(RemoteCall<T> call) {
+        Call<T> future = new Call<>();
+        EXECUTOR.execute(() -> future.run(call));
+        return future;
+    }
+
+    public static CompletableFuture<Void> run(RemoteAction action) {
+        return supply(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Đọc con trỏ tới hết trên luồng hiện tại, mỗi khối đưa cho onChunk; trả về số dòng.
+    // Bị ngắt (future bị hủy) hoặc lỗi giữa chừng thì đóng con trỏ để server giải phóng sớm
+    static <T extends Serializable> long drain(RemoteCursor<T> cursor, Consumer<List<T>> onChunk) throws Exception {
+        long total = 0;
+        boolean complete = false;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<T> chunk = cursor.next();
+                if (chunk.isEmpty()) {
+                    complete = true;
+                    break;
+                }
+                total += chunk.size();
+                onChunk.accept(chunk);
+            }
+        } finally {
+            if (!complete) {
+                Thread.interrupted();   // xóa cờ ngắt để close() còn gửi được tới server
+                try { cursor.close(); } catch (Exception ignored) {}
+            }
+        }
+        return total;
+    }
+
+    // CompletableFuture nhớ luồng đang chạy lời gọi để cancel(true) ngắt được
+    private static final class Call<T> extends CompletableFuture<T> {
+        private Thread runner;
+
+        void run(RemoteCall<T> call) {
+            synchronized (this) {
+                if (isDone()) return;      // đã hủy khi chưa bắt đầu
+                runner = Thread.currentThread();
+            }
+            try {
+                complete(call.call());
+            } catch (Throwable t) {
+                completeExceptionally(t);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && mayInterruptIfRunning) {
+                synchronized (this) {
+                    if (runner != null) runner.interrupt();
+                }
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package client;
+
+import model.ImportKind;
+import model.ImportProgress;
+import service.ImportService;
+
+import java.util.concurrent.CompletableFuture;
+
+// Facade bất đồng bộ của ImportService: mỗi hàm chạy lời gọi tương ứng trên executor của AsyncCalls
+public final class AsyncImportService {
+
+    private final ImportService service;
+
+    public AsyncImportService(ImportService service) {
+        this.service = service;
+    }
+
+    public CompletableFuture<String> startImport(ImportKind kind) {
+        return AsyncCalls.supply(() -> service.startImport(kind));
+    }
+
+    public CompletableFuture<ImportProgress> sendChunk(String importId, String text) {
+        return AsyncCalls.supply(() -> service.sendChunk(importId, text));
+    }
+
+    public CompletableFuture<ImportProgress> finishImport(String importId) {
+        return AsyncCalls.supply(() -> service.finishImport(importId));
+    }
+
+    public CompletableFuture<Void> abortImport(String importId) {
+        return AsyncCalls.run(() -> service.abortImport(importId));
+    }
+
+    // Nhiều lời gọi nối tiếp trong một tác vụ (cả lần nhập một file); hủy ngắt cả chuỗi
+    public <T> CompletableFuture<T> call(AsyncCalls.ServiceCall<ImportService, T> call) {
+        return AsyncCalls.supply(() -> call.call(service));
+    }
+}
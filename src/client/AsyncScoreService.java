@@ -0,0 +1,103 @@
+package client;
+
+import model.BatchResult;
+import model.ChangeSet;
+import model.Page;
+import model.PageRequest;
+import model.Score;
+import model.ScoreColumns;
+import service.RemoteChangeListener;
+import service.RemoteCursor;
+import service.ScoreService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// Facade bất đồng bộ của ScoreService: mỗi hàm chạy lời gọi tương ứng trên executor của AsyncCalls
+public final class AsyncScoreService {
+
+    private final ScoreService service;
+
+    public AsyncScoreService(ScoreService service) {
+        this.service = service;
+    }
+
+    public CompletableFuture<List<Score>> getAllScores() {
+        return AsyncCalls.supply(service::getAllScores);
+    }
+
+    public CompletableFuture<Page<Score>> getScoresPage(PageRequest request) {
+        return AsyncCalls.supply(() -> service.getScoresPage(request));
+    }
+
+    public CompletableFuture<RemoteCursor<Score>> openScoreCursor(int chunkSize) {
+        return AsyncCalls.supply(() -> service.openScoreCursor(chunkSize));
+    }
+
+    public CompletableFuture<ScoreColumns> getScoreColumns(int afterId, int limit) {
+        return AsyncCalls.supply(() -> service.getScoreColumns(afterId, limit));
+    }
+
+    // Đọc cả bảng điểm dạng cột theo khối (thứ tự id): mỗi khối đưa cho onChunk (trên luồng nền) ngay khi
+    // nhận; kết quả = số dòng. Hủy future thì dừng trước khối sau
+    public CompletableFuture<Long> streamScoreColumns(int chunkSize, Consumer<ScoreColumns> onChunk) {
+        return AsyncCalls.supply(() -> {
+            long total = 0;
+            int afterId = 0;
+            ScoreColumns chunk;
+            while (!Thread.currentThread().isInterrupted()
+                    && !(chunk = service.getScoreColumns(afterId, chunkSize)).isEmpty()) {
+                total += chunk.size();
+                afterId = chunk.getLastId();
+                onChunk.accept(chunk);
+            }
+            return total;
+        });
+    }
+
+    public CompletableFuture<Score> findScoreById(int id) {
+        return AsyncCalls.supply(() -> service.findScoreById(id));
+    }
+
+    public CompletableFuture<Void> addScore(Score score) {
+        return AsyncCalls.run(() -> service.addScore(score));
+    }
+
+    public CompletableFuture<Void> updateScore(Score score) {
+        return AsyncCalls.run(() -> service.updateScore(score));
+    }
+
+    public CompletableFuture<Void> deleteScore(int id) {
+        return AsyncCalls.run(() -> service.deleteScore(id));
+    }
+
+    public CompletableFuture<BatchResult> addScores(List<Score> scores) {
+        return AsyncCalls.supply(() -> service.addScores(scores));
+    }
+
+    public CompletableFuture<BatchResult> updateScores(List<Score> scores) {
+        return AsyncCalls.supply(() -> service.updateScores(scores));
+    }
+
+    public CompletableFuture<BatchResult> deleteScores(int[] ids) {
+        return AsyncCalls.supply(() -> service.deleteScores(ids));
+    }
+
+    public CompletableFuture<ChangeSet<Score, Integer>> getChangesSince(long version) {
+        return AsyncCalls.supply(() -> service.getChangesSince(version));
+    }
+
+    public CompletableFuture<Void> registerListener(RemoteChangeListener listener) {
+        return AsyncCalls.run(() -> service.registerListener(listener));
+    }
+
+    public CompletableFuture<Void> unregisterListener(RemoteChangeListener listener) {
+        return AsyncCalls.run(() -> service.unregisterListener(listener));
+    }
+
+    // Nhiều lời gọi nối tiếp trong một tác vụ (vd. lấy mốc phiên bản rồi tải trang); hủy ngắt cả chuỗi
+    public <T> CompletableFuture<T> call(AsyncCalls.ServiceCall<ScoreService, T> call) {
+        return AsyncCalls.supply(() -> call.call(service));
+    }
+}
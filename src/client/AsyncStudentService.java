@@ -0,0 +1,101 @@
+package client;
+
+import model.BatchResult;
+import model.ChangeSet;
+import model.LeaderboardEntry;
+import model.Page;
+import model.PageRequest;
+import model.Student;
+import model.StudentRank;
+import model.StudentTranscript;
+import service.RemoteChangeListener;
+import service.RemoteCursor;
+import service.StudentService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// Facade bất đồng bộ của StudentService: mỗi hàm chạy lời gọi tương ứng trên executor của AsyncCalls
+public final class AsyncStudentService {
+
+    private final StudentService service;
+
+    public AsyncStudentService(StudentService service) {
+        this.service = service;
+    }
+
+    public CompletableFuture<List<Student>> getAllStudents() {
+        return AsyncCalls.supply(service::getAllStudents);
+    }
+
+    public CompletableFuture<Page<Student>> getStudentsPage(PageRequest request) {
+        return AsyncCalls.supply(() -> service.getStudentsPage(request));
+    }
+
+    public CompletableFuture<RemoteCursor<Student>> openStudentCursor(int chunkSize) {
+        return AsyncCalls.supply(() -> service.openStudentCursor(chunkSize));
+    }
+
+    // Đọc cả bảng qua con trỏ: mỗi khối đưa cho onChunk (trên luồng nền) ngay khi nhận; kết quả = số dòng
+    public CompletableFuture<Long> streamStudents(int chunkSize, Consumer<List<Student>> onChunk) {
+        return AsyncCalls.supply(() -> AsyncCalls.drain(service.openStudentCursor(chunkSize), onChunk));
+    }
+
+    public CompletableFuture<Student> findStudentById(String msv) {
+        return AsyncCalls.supply(() -> service.findStudentById(msv));
+    }
+
+    public CompletableFuture<List<Student>> searchStudents(String query, int limit) {
+        return AsyncCalls.supply(() -> service.searchStudents(query, limit));
+    }
+
+    public CompletableFuture<StudentTranscript> getStudentTranscript(String msv) {
+        return AsyncCalls.supply(() -> service.getStudentTranscript(msv));
+    }
+
+    public CompletableFuture<List<StudentRank>> getRanking(int offset, int limit) {
+        return AsyncCalls.supply(() -> service.getRanking(offset, limit));
+    }
+
+    public CompletableFuture<StudentRank> getStudentRank(String msv) {
+        return AsyncCalls.supply(() -> service.getStudentRank(msv));
+    }
+
+    public CompletableFuture<List<LeaderboardEntry>> getTopStudents(String maMon, int k) {
+        return AsyncCalls.supply(() -> service.getTopStudents(maMon, k));
+    }
+
+    public CompletableFuture<Void> addStudent(Student student) {
+        return AsyncCalls.run(() -> service.addStudent(student));
+    }
+
+    public CompletableFuture<Void> updateStudent(Student student) {
+        return AsyncCalls.run(() -> service.updateStudent(student));
+    }
+
+    public CompletableFuture<Void> deleteStudent(String msv) {
+        return AsyncCalls.run(() -> service.deleteStudent(msv));
+    }
+
+    public CompletableFuture<BatchResult> addStudents(List<Student> students) {
+        return AsyncCalls.supply(() -> service.addStudents(students));
+    }
+
+    public CompletableFuture<ChangeSet<Student, String>> getChangesSince(long version) {
+        return AsyncCalls.supply(() -> service.getChangesSince(version));
+    }
+
+    public CompletableFuture<Void> registerListener(RemoteChangeListener listener) {
+        return AsyncCalls.run(() -> service.registerListener(listener));
+    }
+
+    public CompletableFuture<Void> unregisterListener(RemoteChangeListener listener) {
+        return AsyncCalls.run(() -> service.unregisterListener(listener));
+    }
+
+    // Nhiều lời gọi nối tiếp trong một tác vụ (vd. lấy mốc phiên bản rồi tải trang); hủy ngắt cả chuỗi
+    public <T> CompletableFuture<T> call(AsyncCalls.ServiceCall<StudentService, T> call) {
+        return AsyncCalls.supply(() -> call.call(service));
+    }
+}
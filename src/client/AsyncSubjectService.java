@@ -0,0 +1,79 @@
+package client;
+
+import model.ChangeSet;
+import model.Page;
+import model.PageRequest;
+import model.Subject;
+import model.SubjectStatistics;
+import service.RemoteChangeListener;
+import service.SubjectService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Facade bất đồng bộ của SubjectService: mỗi hàm chạy lời gọi tương ứng trên executor của AsyncCalls
+public final class AsyncSubjectService {
+
+    private final SubjectService service;
+
+    public AsyncSubjectService(SubjectService service) {
+        this.service = service;
+    }
+
+    public CompletableFuture<List<Subject>> getAllSubjects() {
+        return AsyncCalls.supply(service::getAllSubjects);
+    }
+
+    public CompletableFuture<Page<Subject>> getSubjectsPage(PageRequest request) {
+        return AsyncCalls.supply(() -> service.getSubjectsPage(request));
+    }
+
+    public CompletableFuture<Subject> findSubjectById(String maMon) {
+        return AsyncCalls.supply(() -> service.findSubjectById(maMon));
+    }
+
+    public CompletableFuture<Subject> findSubjectById(String maMon, boolean withEnrollment) {
+        return AsyncCalls.supply(() -> service.findSubjectById(maMon, withEnrollment));
+    }
+
+    public CompletableFuture<Integer> getEnrollmentCount(String maMon) {
+        return AsyncCalls.supply(() -> service.getEnrollmentCount(maMon));
+    }
+
+    public CompletableFuture<SubjectStatistics> getSubjectStatistics(String maMon) {
+        return AsyncCalls.supply(() -> service.getSubjectStatistics(maMon));
+    }
+
+    public CompletableFuture<List<SubjectStatistics>> getAllSubjectStatistics() {
+        return AsyncCalls.supply(service::getAllSubjectStatistics);
+    }
+
+    public CompletableFuture<Void> addSubject(Subject subject) {
+        return AsyncCalls.run(() -> service.addSubject(subject));
+    }
+
+    public CompletableFuture<Void> updateSubject(Subject subject) {
+        return AsyncCalls.run(() -> service.updateSubject(subject));
+    }
+
+    public CompletableFuture<Void> deleteSubject(String maMon) {
+        return AsyncCalls.run(() -> service.deleteSubject(maMon));
+    }
+
+    public CompletableFuture<ChangeSet<Subject, String>> getChangesSince(long version) {
+        return AsyncCalls.supply(() -> service.getChangesSince(version));
+    }
+
+    public CompletableFuture<Void> registerListener(RemoteChangeListener listener) {
+        return AsyncCalls.run(() -> service.registerListener(listener));
+    }
+
+    public CompletableFuture<Void> unregisterListener(RemoteChangeListener listener) {
+        return AsyncCalls.run(() -> service.unregisterListener(listener));
+    }
+
+    // Nhiều lời gọi nối tiếp trong một tác vụ (vd. lấy mốc phiên bản rồi tải trang); hủy ngắt cả chuỗi
+    public <T> CompletableFuture<T> call(AsyncCalls.ServiceCall<SubjectService, T> call) {
+        return AsyncCalls.supply(() -> call.call(service));
+    }
+}
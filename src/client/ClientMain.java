@@ -6,6 +6,7 @@ import com.formdev.flatlaf.icons.FlatSearchIcon;
 import client.panel.ScorePanel;
 import client.panel.StudentPanel;
 import client.panel.SubjectPanel;
+import service.ImportService;
 import service.ScoreService;
 import service.StudentService;
 import service.SubjectService;
@@ -19,11 +20,14 @@ public class ClientMain extends JFrame {
     private final StudentService studentService;
     private final SubjectService subjectService;
     private final ScoreService scoreService;
+    private final ImportService importService;
 
-    public ClientMain(StudentService studentService, SubjectService subjectService, ScoreService scoreService) {
+    public ClientMain(StudentService studentService, SubjectService subjectService, ScoreService scoreService,
+                      ImportService importService) {
         this.studentService = studentService;
         this.subjectService = subjectService;
         this.scoreService = scoreService;
+        this.importService = importService;
 
         initUI();
     }
@@ -69,9 +73,9 @@ public class ClientMain extends JFrame {
         tabbedPane.setBorder(null);
 
         // Create panels (these classes handle their own UI and search/refresh)
-        StudentPanel studentPanel = new StudentPanel(studentService, subjectService, scoreService);
-        SubjectPanel subjectPanel = new SubjectPanel(subjectService);
-        ScorePanel scorePanel = new ScorePanel(scoreService);
+        StudentPanel studentPanel = new StudentPanel(studentService, subjectService, scoreService, importService);
+        SubjectPanel subjectPanel = new SubjectPanel(subjectService, importService);
+        ScorePanel scorePanel = new ScorePanel(scoreService, importService);
 
         tabbedPane.addTab("", studentPanel);
         tabbedPane.addTab("", subjectPanel);
@@ -125,8 +129,16 @@ public class ClientMain extends JFrame {
                 StudentService studentService = (StudentService) Naming.lookup("rmi://localhost:1099/StudentService");
                 SubjectService subjectService = (SubjectService) Naming.lookup("rmi://localhost:1099/SubjectService");
                 ScoreService scoreService = (ScoreService) Naming.lookup("rmi://localhost:1099/ScoreService");
+                ImportService importService = (ImportService) Naming.lookup("rmi://localhost:1099/ImportService");
 
-                ClientMain main = new ClientMain(studentService, subjectService, scoreService);
+                // cache các lời gọi đọc lặp lại (tra môn, chi tiết sinh viên...) phía client
+                ServiceCache cache = new ServiceCache();
+                studentService = cache.wrap(StudentService.class, studentService);
+                subjectService = cache.wrap(SubjectService.class, subjectService);
+                scoreService = cache.wrap(ScoreService.class, scoreService);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(">>> " + cache.getStats())));
+
+                ClientMain main = new ClientMain(studentService, subjectService, scoreService, importService);
                 main.setVisible(true);
             } catch (Exception ex) {
                 ex.printStackTrace();
@@ -0,0 +1,324 @@
+package client;
+
+import model.ChangeSet;
+import model.Page;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Cache phía client bọc các stub RMI bằng dynamic proxy: panel dùng như service gốc.
+//  - Chỉ các hàm đọc có trong bảng TTL mới được cache (theo tên hàm + tham số); còn lại gọi thẳng.
+//  - LRU giới hạn theo "trọng số" (1 + số phần tử nếu kết quả là danh sách).
+//  - Kết quả được lưu dạng đã serialize, mỗi lần trúng cache trả về một bản sao mới: panel sửa danh sách
+//    hay đối tượng (Subject, Student...) nhận được không làm hỏng bản trong cache hay bản của panel khác.
+//  - Ghi (add* / update* / delete*) đi thẳng tới server rồi xóa toàn bộ cache: một điểm thay đổi
+//    ảnh hưởng cả diem_tb của sinh viên, số lượng đăng ký của môn, bảng điểm...
+//  - Khi thấy phiên bản nhật ký thay đổi (ChangeSet từ getChangesSince) khác lần trước -> có người
+//    khác vừa ghi -> xóa cache. Các panel luôn lấy mốc phiên bản trước khi tải nên không đọc lại
+//    dữ liệu cũ hơn mốc đó.
+// Cấu hình: -Dcache.enabled=false, -Dcache.maxWeight=..., -Dcache.ttl.<tên hàm>=ms (0 = không cache)
+public final class ServiceCache {
+
+    private static final Map<String, Long> DEFAULT_TTL_MS = Map.of(
+            "findSubjectById", 60_000L,
+            "getAllSubjects", 30_000L,
+            "getEnrollmentCount", 5_000L,
+            "findStudentById", 10_000L,
+            "getStudentTranscript", 5_000L,
+            "searchStudents", 5_000L,
+            "findScoreById", 10_000L
+    );
+
+    private static final Object NULL = new Object();
+
+    private final boolean enabled = Boolean.parseBoolean(System.getProperty("cache.enabled", "true"));
+    private final long maxWeight = Long.getLong("cache.maxWeight", 50_000L);
+    private final Map<String, Long> ttlMs = new HashMap<>();
+
+    // access-order = true: duyệt từ phần tử ít dùng nhất
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long weight;
+    // Tăng mỗi lần xóa cache: kết quả của lời gọi bắt đầu trước đó không được đưa vào cache
+    private long generation;
+    private long lastSeenVersion = -1;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public ServiceCache() {
+        for (Map.Entry<String, Long> e : DEFAULT_TTL_MS.entrySet()) {
+            ttlMs.put(e.getKey(), Long.getLong("cache.ttl." + e.getKey(), e.getValue()));
+        }
+    }
+
+    // Bọc service; trả về chính target nếu cache bị tắt
+    public <T> T wrap(Class<T> type, T target) {
+        if (!enabled) return target;
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new Handler(type.getSimpleName(), target));
+        return type.cast(proxy);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+        generation++;
+        invalidations++;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size(), weight);
+    }
+
+    // ============================
+    // Cache
+    // ============================
+    private synchronized Object lookup(Key key, long now) {
+        Entry e = entries.get(key);
+        if (e == null) {
+            misses++;
+            return null;
+        }
+        if (e.expiresAt <= now) {
+            entries.remove(key);
+            weight -= e.weight;
+            misses++;
+            return null;
+        }
+        hits++;
+        return e.value;
+    }
+
+    private synchronized void store(Key key, Object value, int w, long expiresAt, long startGeneration) {
+        if (startGeneration != generation) return;
+        if (w > maxWeight) return;
+        Entry old = entries.put(key, new Entry(value, expiresAt, w));
+        if (old != null) weight -= old.weight;
+        weight += w;
+        Iterator<Entry> it = entries.values().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            weight -= it.next().weight;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private void observeVersion(ChangeSet<?, ?> changes) {
+        boolean changed;
+        synchronized (this) {
+            changed = lastSeenVersion >= 0 && changes.getVersion() != lastSeenVersion;
+            lastSeenVersion = changes.getVersion();
+        }
+        if (changed) invalidateAll();
+    }
+
+    private static int weightOf(Object value) {
+        if (value instanceof Collection) return 1 + ((Collection<?>) value).size();
+        if (value instanceof Page) return 1 + ((Page<?>) value).getItems().size();
+        return 1;
+    }
+
+    // null = không serialize được -> không cache (lời gọi vẫn trả kết quả bình thường)
+    private static byte[] snapshot(Object value) {
+        if (!(value instanceof Serializable)) return null;
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(buf)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            return null;
+        }
+        return buf.toByteArray();
+    }
+
+    private static Object restore(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Không đọc lại được kết quả trong cache: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isWrite(String method) {
+        return method.startsWith("add") || method.startsWith("update") || method.startsWith("delete");
+    }
+
+    // ============================
+    // Proxy
+    // ============================
+    private final class Handler implements InvocationHandler {
+        private final String service;
+        private final Object target;
+
+        Handler(String service, Object target) {
+            this.service = service;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached[" + service + "]" + target;
+                default:
+                    break;
+            }
+
+            Long ttl = ttlMs.get(name);
+            if (ttl == null || ttl <= 0) {
+                try {
+                    Object result = call(method, args);
+                    if (result instanceof ChangeSet) observeVersion((ChangeSet<?, ?>) result);
+                    return result;
+                } finally {
+                    // Ghi hàng loạt có thể thành công một phần dù ném lỗi: luôn xóa cache
+                    if (isWrite(name)) invalidateAll();
+                }
+            }
+
+            Key key = new Key(service, name, args);
+            long now = System.currentTimeMillis();
+            Object cached = lookup(key, now);
+            if (cached != null) return cached == NULL ? null : restore((byte[]) cached);
+
+            long startGeneration = generation();
+            Object result = call(method, args);
+            // Người gọi giữ chính result; cache giữ bản serialize riêng
+            if (result == null) {
+                store(key, NULL, 1, now + ttl, startGeneration);
+            } else {
+                byte[] copy = snapshot(result);
+                if (copy != null) store(key, copy, weightOf(result), now + ttl, startGeneration);
+            }
+            return result;
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static final class Key {
+        private final String service;
+        private final String method;
+        private final List<Object> args;
+        private final int hash;
+
+        Key(String service, String method, Object[] args) {
+            this.service = service;
+            this.method = method;
+            this.args = args == null ? List.of() : Arrays.asList(args.clone());
+            this.hash = (service.hashCode() * 31 + method.hashCode()) * 31 + this.args.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return hash == k.hash && service.equals(k.service) && method.equals(k.method) && args.equals(k.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long expiresAt;
+        final int weight;
+
+        Entry(Object value, long expiresAt, int weight) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.weight = weight;
+        }
+    }
+
+    // ============================
+    // Số liệu
+    // ============================
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int size;
+        private final long weight;
+
+        Stats(long hits, long misses, long evictions, long invalidations, int size, long weight) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.size = size;
+            this.weight = weight;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Cache{hits=%d, misses=%d, hitRate=%.1f%%, entries=%d, weight=%d, evictions=%d, invalidations=%d}",
+                    hits, misses, getHitRate() * 100, size, weight, evictions, invalidations);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package client.panel;
+
+import model.ChangeNotice;
+import service.RemoteChangeListener;
+
+import javax.swing.*;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Listener phía client cho thông báo thay đổi từ server: nhận trên luồng RMI, trả về ngay
+// và chạy onChange (đồng bộ delta của panel) trên EDT. Nhiều thông báo đến trước khi EDT kịp
+// xử lý chỉ dẫn tới một lần đồng bộ.
+final class ChangeSubscription implements RemoteChangeListener {
+
+    interface Registrar {
+        void register(RemoteChangeListener listener) throws RemoteException;
+    }
+
+    private final Runnable onChange;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private ChangeSubscription(Runnable onChange) {
+        this.onChange = onChange;
+    }
+
+    // Export listener và đăng ký với server; lỗi (vd. server cũ, firewall chặn callback) chỉ làm
+    // panel quay về cách làm mới thủ công
+    static ChangeSubscription register(Registrar registrar, Runnable onChange) {
+        ChangeSubscription sub = new ChangeSubscription(onChange);
+        try {
+            RemoteChangeListener stub = (RemoteChangeListener) UnicastRemoteObject.exportObject(sub, 0);
+            registrar.register(stub);
+            return sub;
+        } catch (Exception ex) {
+            System.err.println("Không đăng ký được thông báo thay đổi: " + ex.getMessage());
+            try { UnicastRemoteObject.unexportObject(sub, true); } catch (Exception ignored) {}
+            return null;
+        }
+    }
+
+    @Override
+    public void changesAvailable(ChangeNotice notice) {
+        if (scheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                scheduled.set(false);
+                onChange.run();
+            });
+        }
+    }
+}
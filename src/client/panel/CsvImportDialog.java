@@ -0,0 +1,136 @@
+package client.panel;
+
+import client.AsyncImportService;
+import model.ImportKind;
+import model.ImportProgress;
+import service.ImportService;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.*;
+import java.io.File;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+// Hộp thoại nhập CSV: đọc file theo từng đoạn 64K ký tự và gửi lên ImportService,
+// hiển thị tiến độ và các dòng bị từ chối. Vòng đọc chạy qua AsyncImportService; Hủy ngắt luồng đang gửi
+// (dừng trước khối sau) và báo abortImport ở nền, không chặn EDT.
+public class CsvImportDialog extends JDialog {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int CHUNK_CHARS = 64 * 1024;
+
+    private final AsyncImportService imports;
+    private final ImportKind kind;
+    private final File file;
+    private final Runnable onFinished;
+
+    private final JProgressBar progressBar = new JProgressBar(0, 1000);
+    private final JLabel lblStatus = new JLabel("Đang chuẩn bị...");
+    private final JTextArea taRejected = new JTextArea(10, 48);
+    private final JButton btnClose = new JButton("Hủy");
+    private CompletableFuture<ImportProgress> task;
+    private volatile String importId;
+
+    public static void open(Component parent, ImportService importService, ImportKind kind, Runnable onFinished) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV (*.csv, *.txt)", "csv", "txt"));
+        if (chooser.showOpenDialog(parent) != JFileChooser.APPROVE_OPTION) return;
+        CsvImportDialog d = new CsvImportDialog(SwingUtilities.getWindowAncestor(parent), importService, kind,
+                chooser.getSelectedFile(), onFinished);
+        d.start();
+        d.setVisible(true);
+    }
+
+    private CsvImportDialog(Window owner, ImportService importService, ImportKind kind, File file, Runnable onFinished) {
+        super(owner, "Nhập CSV - " + file.getName(), ModalityType.APPLICATION_MODAL);
+        this.imports = new AsyncImportService(importService);
+        this.kind = kind;
+        this.file = file;
+        this.onFinished = onFinished;
+
+        JPanel p = new JPanel(new BorderLayout(8, 8));
+        p.setBorder(new EmptyBorder(12, 12, 12, 12));
+        JPanel top = new JPanel(new GridLayout(0, 1, 4, 4));
+        top.add(new JLabel("Cột: " + String.join(", ", kind.getColumns())));
+        top.add(progressBar);
+        top.add(lblStatus);
+        progressBar.setStringPainted(true);
+        taRejected.setEditable(false);
+        taRejected.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        p.add(top, BorderLayout.NORTH);
+        p.add(new JScrollPane(taRejected), BorderLayout.CENTER);
+        JPanel btnP = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        btnP.add(btnClose);
+        p.add(btnP, BorderLayout.SOUTH);
+        setContentPane(p);
+        pack();
+        setLocationRelativeTo(owner);
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+
+        btnClose.addActionListener(e -> {
+            if (task != null && !task.isDone()) task.cancel(true);
+            else dispose();
+        });
+    }
+
+    private void start() {
+        long fileSize = Math.max(1, file.length());
+        task = imports.call(service -> {
+            importId = service.startImport(kind);
+            char[] buf = new char[CHUNK_CHARS];
+            long charsSent = 0;
+            try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                int n;
+                while ((n = reader.read(buf)) != -1) {
+                    if (Thread.currentThread().isInterrupted()) return null;
+                    ImportProgress p = service.sendChunk(importId, new String(buf, 0, n));
+                    charsSent += n;
+                    int percent = (int) Math.min(100, charsSent * 100 / fileSize);
+                    SwingUtilities.invokeLater(() -> {
+                        if (task.isCancelled()) return;
+                        showProgress(p);
+                        progressBar.setValue(percent * 10);
+                    });
+                }
+            }
+            return service.finishImport(importId);
+        });
+        task.whenComplete((p, ex) -> SwingUtilities.invokeLater(() -> finished(p, ex)));
+    }
+
+    private void finished(ImportProgress p, Throwable ex) {
+        btnClose.setText("Đóng");
+        if (ex instanceof CancellationException) {
+            lblStatus.setText("Đã hủy (các khối đã commit vẫn được giữ)");
+            String id = importId;
+            if (id != null) imports.abortImport(id);
+        } else if (ex != null) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            lblStatus.setText("Lỗi: " + cause.getMessage());
+        } else {
+            progressBar.setValue(progressBar.getMaximum());
+            showProgress(p);
+            lblStatus.setText("Hoàn tất: " + lblStatus.getText());
+        }
+        if (onFinished != null) onFinished.run();
+    }
+
+    private void showProgress(ImportProgress p) {
+        lblStatus.setText("Đã đọc " + p.getRowsRead() + " dòng, nhập " + p.getRowsImported()
+                + ", từ chối " + p.getRowsRejected() + " (" + p.getElapsedMillis() / 1000 + "s)");
+        List<String> samples = p.getRejectedSamples();
+        StringBuilder sb = new StringBuilder();
+        for (String s : samples) sb.append(s).append('\n');
+        if (p.getRowsRejected() > samples.size()) {
+            sb.append("... và ").append(p.getRowsRejected() - samples.size()).append(" dòng khác\n");
+        }
+        taRejected.setText(sb.toString());
+    }
+}
@@ -0,0 +1,130 @@
+package client.panel;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Tác vụ nền của một panel: lời gọi qua các facade Async*Service (executor của AsyncCalls, ngoài EDT),
+// kết quả đưa về EDT, để server chậm không làm treo giao diện.
+//  - Mỗi panel có một PanelTasks: load() / stream() thay thế lần tải / đồng bộ bảng đang chạy (lời gọi cũ
+//    bị hủy và ngắt), sync() bị hoãn tới khi lần tải xong, run() cho tác vụ độc lập (lưu, xóa, chi tiết).
+//  - Tác vụ nhận dạng Supplier<CompletableFuture>: lời gọi chỉ bắt đầu khi PanelTasks quyết định chạy.
+//  - Mọi callback onSuccess / onChunk / onError chạy trên EDT; indicator hiện khi còn tác vụ đang chạy.
+final class PanelTasks {
+
+    // Bắt đầu đọc theo khối: mỗi khối đưa cho onChunk trên luồng nền, kết quả = số dòng
+    interface Stream<C> {
+        CompletableFuture<Long> start(Consumer<C> onChunk);
+    }
+
+    // Mốc phiên bản nhật ký lấy trước khi tải + dữ liệu tải về
+    static final class Snapshot<T> {
+        final long version;
+        final T data;
+
+        Snapshot(long version, T data) {
+            this.version = version;
+            this.data = data;
+        }
+    }
+
+    private final Runnable resync;
+    private final JProgressBar indicator = new JProgressBar();
+    private int running;
+    // Lần tải / đồng bộ bảng đang chạy (null = không có)
+    private CompletableFuture<?> view;
+    private boolean viewIsSync;
+    // Có lần đồng bộ bị hoãn / bị hủy: chạy lại khi bảng tải xong
+    private boolean resyncPending;
+
+    PanelTasks(Runnable resync) {
+        this.resync = resync;
+        indicator.setIndeterminate(true);
+        indicator.setPreferredSize(new Dimension(80, 12));
+        indicator.setToolTipText("Đang tải...");
+        indicator.setVisible(false);
+    }
+
+    JComponent getIndicator() {
+        return indicator;
+    }
+
+    // ============================
+    // Tác vụ của panel (gọi trên EDT)
+    // ============================
+    // Tải lại / tải thêm dữ liệu bảng: hủy lần tải hoặc đồng bộ đang chạy
+    <T> void load(Supplier<CompletableFuture<T>> call, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        if (view != null && viewIsSync) resyncPending = true;
+        cancel();
+        view = submit(call, onSuccess, onError);
+        viewIsSync = false;
+    }
+
+    // Tải cả bảng theo khối như load(): khối nào tới là đổ vào bảng ngay (trên EDT); khối của lần tải đã
+    // bị thay / hủy bị bỏ. onDone nhận tổng số dòng
+    <C> void stream(Stream<C> stream, Consumer<C> onChunk, Consumer<Long> onDone, Consumer<Exception> onError) {
+        AtomicReference<CompletableFuture<Long>> self = new AtomicReference<>();
+        Consumer<C> toEdt = chunk -> SwingUtilities.invokeLater(() -> {
+            if (view == self.get()) onChunk.accept(chunk);
+        });
+        load(() -> {
+            CompletableFuture<Long> future = stream.start(toEdt);
+            self.set(future);
+            return future;
+        }, onDone, onError);
+    }
+
+    // Bảng đang tải (dữ liệu chưa có để áp dụng delta): ghi nhận để đồng bộ khi tải xong
+    boolean deferSyncWhileLoading() {
+        if (view == null || viewIsSync) return false;
+        resyncPending = true;
+        return true;
+    }
+
+    // Đồng bộ delta: hoãn nếu bảng đang tải, thay lần đồng bộ trước
+    <T> void sync(Supplier<CompletableFuture<T>> call, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        if (deferSyncWhileLoading()) return;
+        cancel();
+        view = submit(call, onSuccess, onError);
+        viewIsSync = true;
+    }
+
+    <T> CompletableFuture<T> run(Supplier<CompletableFuture<T>> call, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        return submit(call, onSuccess, onError);
+    }
+
+    CompletableFuture<Void> run(Supplier<CompletableFuture<Void>> action, Runnable onSuccess, Consumer<Exception> onError) {
+        return submit(action, r -> onSuccess.run(), onError);
+    }
+
+    // Hủy lần tải / đồng bộ đang chạy: ngắt cả lời gọi RMI đang chờ (xem AsyncCalls)
+    void cancel() {
+        if (view != null) view.cancel(true);
+        view = null;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        CompletableFuture<T> future = call.get();
+        running++;
+        indicator.setVisible(true);
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (--running == 0) indicator.setVisible(false);
+            if (future.isCancelled()) return;
+            boolean wasView = view == future;
+            if (wasView) view = null;
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                onError.accept(error instanceof Exception ? (Exception) error : new Exception(error));
+            }
+            if (wasView && view == null && resyncPending) {
+                resyncPending = false;
+                resync.run();
+            }
+        }));
+        return future;
+    }
+}
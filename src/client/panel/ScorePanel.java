@@ -2,31 +2,60 @@ package client.panel;
 
 import com.formdev.flatlaf.icons.FlatRevealIcon;
 
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
+import client.AsyncScoreService;
+import model.ChangeSet;
+import model.ImportKind;
+import model.Page;
+import model.PageRequest;
 import model.Score;
+import model.ScoreColumns;
+import service.ImportService;
 import service.ScoreService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
-import javax.swing.table.*;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.PatternSyntaxException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public class ScorePanel extends JPanel {
 
-    private final ScoreService scoreService;
+    private final AsyncScoreService scores;
+    private final ImportService importService;
     private JTable scoreTable;
-    private DefaultTableModel model;
-    private TableRowSorter<DefaultTableModel> sorter;
+    private ScoreTableModel model;
+    private JTextField tfSearch;
+    private JButton btnMore;
+    private JLabel lblCount;
 
-    public ScorePanel(ScoreService scoreService) {
-        this.scoreService = scoreService;
+    // Phân trang / sắp xếp phía server
+    private static final String[] SORT_COLUMNS = {"id", "msv", "ma_mon", "diem"};
+    private static final int PAGE_SIZE = 200;
+    private static final int BULK_CHUNK = 20_000;
+    private String sortColumn;
+    private boolean sortDesc;
+    private PageRequest nextRequest;
+    private long totalCount;
+    // Phiên bản nhật ký thay đổi mà bảng đang hiển thị đã đồng bộ tới (-1 = chưa có)
+    private long syncVersion = -1;
+    // Giữ tham chiếu để listener đã export không bị thu gom (null nếu không đăng ký được)
+    private ChangeSubscription subscription;
+    private boolean allLoaded;
+    private final Timer searchTimer = new Timer(300, e -> loadScores());
+    private final PanelTasks tasks = new PanelTasks(this::syncScores);
+
+    public ScorePanel(ScoreService scoreService, ImportService importService) {
+        this.scores = new AsyncScoreService(scoreService);
+        this.importService = importService;
         initUI();
         loadScores();
+        // Server báo khi có thay đổi (kể cả từ người dùng khác) -> chỉ cập nhật các dòng bị ảnh hưởng
+        tasks.run(() -> scores.call(s -> ChangeSubscription.register(s::registerListener, this::syncScores)),
+                sub -> subscription = sub, ex -> {});
     }
 
     private void initUI() {
@@ -47,7 +76,7 @@ public class ScorePanel extends JPanel {
 
         JPanel right = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 0));
         right.setOpaque(false);
-        JTextField tfSearch = new JTextField(24);
+        tfSearch = new JTextField(24);
         tfSearch.setToolTipText("Tìm kiếm (tìm trên tất cả cột)");
         JButton btnRefresh = new JButton(); btnRefresh.setPreferredSize(new Dimension(36,28));
         try { btnRefresh.setIcon(new FlatRevealIcon()); } catch (Exception ignored) {}
@@ -55,10 +84,7 @@ public class ScorePanel extends JPanel {
         header.add(right, BorderLayout.EAST);
         add(header, BorderLayout.NORTH);
 
-        model = new DefaultTableModel(new Object[]{"ID","MSV","Mã Môn","Điểm"},0) {
-            private static final long serialVersionUID = 1L;
-            @Override public boolean isCellEditable(int row, int col) { return false; }
-        };
+        model = new ScoreTableModel();
         scoreTable = new JTable(model);
         scoreTable.setRowHeight(28);
         scoreTable.setFont(new Font("Segoe UI", Font.PLAIN, 14));
@@ -66,43 +92,53 @@ public class ScorePanel extends JPanel {
         JScrollPane scroll = new JScrollPane(scoreTable);
         add(scroll, BorderLayout.CENTER);
 
-        sorter = new TableRowSorter<>(model);
-        scoreTable.setRowSorter(sorter);
+        scoreTable.getTableHeader().addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                int col = scoreTable.columnAtPoint(e.getPoint());
+                if (col < 0) return;
+                String column = SORT_COLUMNS[scoreTable.convertColumnIndexToModel(col)];
+                sortDesc = column.equals(sortColumn) && !sortDesc;
+                sortColumn = column;
+                loadScores();
+            }
+        });
 
         JPanel footer = new JPanel(new FlowLayout(FlowLayout.RIGHT,8,8));
         footer.setBackground(Color.WHITE);
         JButton btnAdd = styledButton("➕ Thêm", new Color(39,174,96));
         JButton btnEdit = styledButton("✏️ Sửa", new Color(41,128,185));
         JButton btnDelete = styledButton("🗑 Xóa", new Color(231,76,60));
+        JButton btnBulk = styledButton("📥 Nhập nhiều", new Color(39,174,96));
+        JButton btnImport = styledButton("📂 Nhập CSV", new Color(39,174,96));
         JButton btnRefreshBottom = styledButton("Làm mới", new Color(96,125,139));
-        footer.add(btnAdd); footer.add(btnEdit); footer.add(btnDelete); footer.add(btnRefreshBottom);
+        btnMore = styledButton("Tải thêm", new Color(96,125,139)); btnMore.setEnabled(false);
+        JButton btnAll = styledButton("Tải tất cả", new Color(96,125,139));
+        lblCount = new JLabel();
+        footer.add(tasks.getIndicator()); footer.add(lblCount); footer.add(btnMore); footer.add(btnAll);
+        footer.add(btnImport); footer.add(btnBulk); footer.add(btnAdd); footer.add(btnEdit); footer.add(btnDelete); footer.add(btnRefreshBottom);
         add(footer, BorderLayout.SOUTH);
 
         // search realtime
+        searchTimer.setRepeats(false);
         tfSearch.getDocument().addDocumentListener(new DocumentListener() {
-            private void filter() {
-                String t = tfSearch.getText().trim();
-                if (t.isEmpty()) { sorter.setRowFilter(null); return; }
-                try { sorter.setRowFilter(RowFilter.regexFilter("(?i)" + Pattern.quote(t))); } catch (PatternSyntaxException ex) { sorter.setRowFilter(null); }
-            }
-            public void insertUpdate(DocumentEvent e) { filter(); }
-            public void removeUpdate(DocumentEvent e) { filter(); }
-            public void changedUpdate(DocumentEvent e) { filter(); }
+            public void insertUpdate(DocumentEvent e) { searchTimer.restart(); }
+            public void removeUpdate(DocumentEvent e) { searchTimer.restart(); }
+            public void changedUpdate(DocumentEvent e) { searchTimer.restart(); }
         });
 
-        btnRefresh.addActionListener(e -> loadScores());
-        btnRefreshBottom.addActionListener(e -> loadScores());
+        btnRefresh.addActionListener(e -> syncScores());
+        btnRefreshBottom.addActionListener(e -> syncScores());
+        btnMore.addActionListener(e -> loadMoreScores());
+        btnAll.addActionListener(e -> loadAllScores());
 
         btnAdd.addActionListener(e -> addScoreDialog());
+        btnBulk.addActionListener(e -> bulkAddDialog());
+        btnImport.addActionListener(e -> CsvImportDialog.open(this, importService, ImportKind.SCORE, this::syncScores));
         btnEdit.addActionListener(e -> {
             int row = scoreTable.getSelectedRow();
             if (row == -1) { JOptionPane.showMessageDialog(this, "Chọn điểm để sửa"); return; }
             int modelRow = scoreTable.convertRowIndexToModel(row);
-            int id = Integer.parseInt(model.getValueAt(modelRow,0).toString());
-            String msv = model.getValueAt(modelRow,1).toString();
-            String maMon = model.getValueAt(modelRow,2).toString();
-            double diem = Double.parseDouble(model.getValueAt(modelRow,3).toString());
-            editScoreDialog(id, msv, maMon, diem);
+            editScoreDialog(model.getId(modelRow), model.getMsv(modelRow), model.getMaMon(modelRow), model.getDiem(modelRow));
         });
         btnDelete.addActionListener(e -> deleteScoreAction());
     }
@@ -118,16 +154,124 @@ public class ScorePanel extends JPanel {
         return b;
     }
 
+    // Tải lại từ trang đầu trên luồng nền; bảng cũ giữ nguyên tới khi có kết quả
     public void loadScores() {
+        cancelLoadAll();
+        allLoaded = false;
+        btnMore.setEnabled(false);
+        PageRequest request = new PageRequest(sortColumn, sortDesc, tfSearch.getText().trim(), PAGE_SIZE);
+        tasks.load(() -> scores.call(svc -> new PanelTasks.Snapshot<>(fetchSyncPoint(svc), svc.getScoresPage(request))),
+                snap -> {
+                    model.clear();
+                    syncVersion = snap.version;
+                    showPage(request, snap.data);
+                },
+                this::pageFailed);
+    }
+
+    private void loadMoreScores() {
+        if (nextRequest == null) return;
+        PageRequest request = nextRequest;
+        btnMore.setEnabled(false);
+        tasks.load(() -> scores.getScoresPage(request), page -> showPage(request, page), this::pageFailed);
+    }
+
+    private void showPage(PageRequest request, Page<Score> page) {
+        if (request.isFirstPage()) totalCount = page.getTotalCount();
+        model.append(ScoreColumns.of(page.getItems()));
+        nextRequest = page.getNextRequest();
+        btnMore.setEnabled(nextRequest != null);
+        lblCount.setText("Hiển thị " + model.getRowCount() + " / " + totalCount);
+    }
+
+    private void pageFailed(Exception ex) {
+        nextRequest = null;
+        btnMore.setEnabled(false);
+        JOptionPane.showMessageDialog(this, "Lỗi khi lấy điểm: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
+    }
+
+    // Tải toàn bộ bảng điểm theo khối dạng cột (thứ tự id), đưa thẳng vào table model
+    private void loadAllScores() {
+        cancelLoadAll();
+        allLoaded = true;
+        nextRequest = null;
+        btnMore.setEnabled(false);
+        lblCount.setText("Đang tải...");
+        tasks.load(() -> scores.call(ScorePanel::fetchSyncPoint), version -> {
+            model.clear();
+            syncVersion = version;
+            tasks.stream(onChunk -> scores.streamScoreColumns(BULK_CHUNK, onChunk),
+                    (ScoreColumns chunk) -> {
+                        model.append(chunk);
+                        lblCount.setText("Đang tải... " + model.getRowCount());
+                    },
+                    total -> {
+                        showLoadedCount();
+                        // Áp dụng các thay đổi xảy ra trong lúc tải
+                        syncScores();
+                    },
+                    ex -> {
+                        showLoadedCount();
+                        JOptionPane.showMessageDialog(this, "Lỗi khi lấy điểm: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
+                    });
+        }, ex -> {});
+    }
+
+    private void showLoadedCount() {
+        totalCount = model.getRowCount();
+        lblCount.setText("Hiển thị " + totalCount + " / " + totalCount);
+    }
+
+    // Lấy mốc phiên bản trước khi tải (chạy trên luồng nền): thay đổi xảy ra trong lúc tải
+    // sẽ được áp dụng lại ở lần đồng bộ sau
+    private static long fetchSyncPoint(ScoreService service) {
         try {
-            List<Score> list = scoreService.getAllScores();
-            model.setRowCount(0);
-            for (Score s : list) {
-                model.addRow(new Object[]{s.getId(), s.getMsv(), s.getMaMon(), s.getDiem()});
-            }
+            return service.getChangesSince(-1).getVersion();
         } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Lỗi khi lấy điểm: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
+            return -1;
+        }
+    }
+
+    // Chỉ áp dụng các dòng thêm / sửa / xóa kể từ lần đồng bộ trước thay vì tải lại cả bảng
+    public void syncScores() {
+        if (tasks.deferSyncWhileLoading()) return;
+        if (syncVersion < 0) { reload(); return; }
+        long since = syncVersion;
+        tasks.sync(() -> scores.getChangesSince(since), this::applyChanges,
+                ex -> JOptionPane.showMessageDialog(this, "Lỗi khi đồng bộ điểm: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void applyChanges(ChangeSet<Score, Integer> changes) {
+        if (changes.isReset()) { reload(); return; }
+        // Dòng mới chỉ thêm vào cuối khi bảng đang hiển thị đủ mọi dòng (không lọc, không còn trang sau)
+        boolean unfiltered = tfSearch.getText().trim().isEmpty();
+        boolean complete = unfiltered && nextRequest == null;
+        for (Score s : changes.getUpserts()) {
+            int row = model.indexOf(s.getId());
+            if (row >= 0) {
+                model.set(row, s);
+            } else {
+                if (complete) model.append(s);
+                if (unfiltered) totalCount++;
+            }
+        }
+        for (Integer id : changes.getDeletedKeys()) {
+            int row = model.indexOf(id);
+            if (row >= 0) {
+                model.remove(row);
+                totalCount--;
+            }
         }
+        syncVersion = changes.getVersion();
+        lblCount.setText("Hiển thị " + model.getRowCount() + " / " + totalCount);
+    }
+
+    private void reload() {
+        if (allLoaded) loadAllScores(); else loadScores();
+    }
+
+    private void cancelLoadAll() {
+        tasks.cancel();
     }
 
     private void addScoreDialog() {
@@ -148,8 +292,69 @@ public class ScorePanel extends JPanel {
             double diem;
             try { diem = Double.parseDouble(tfDiem.getText().trim()); if (diem < 0 || diem > 10) throw new NumberFormatException(); }
             catch (Exception ex) { JOptionPane.showMessageDialog(d, "Điểm phải là số trong khoảng 0 - 10"); return; }
-            try { scoreService.addScore(new Score(tfMsv.getText().trim(), tfMa.getText().trim(), diem)); loadScores(); d.dispose(); }
-            catch (Exception ex) { JOptionPane.showMessageDialog(d, "Lỗi khi thêm: " + ex.getMessage()); }
+            Score score = new Score(tfMsv.getText().trim(), tfMa.getText().trim(), diem);
+            saveInBackground(d, bs, () -> scores.addScore(score), "Lỗi khi thêm: ");
+        });
+        bc.addActionListener(e -> d.dispose());
+        d.setVisible(true);
+    }
+
+    // Nhập điểm cả lớp: mỗi dòng "msv,mã môn,điểm" (dán từ Excel dùng tab cũng được), gửi một lần
+    private void bulkAddDialog() {
+        JDialog d = new JDialog(SwingUtilities.getWindowAncestor(this), "Nhập điểm hàng loạt", Dialog.ModalityType.APPLICATION_MODAL);
+        d.setSize(520,420); d.setLocationRelativeTo(this);
+        JTextArea ta = new JTextArea();
+        ta.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13));
+        JLabel hint = new JLabel("Mỗi dòng: MSV, Mã môn, Điểm");
+        hint.setBorder(new EmptyBorder(8,12,0,12));
+        JPanel btnP = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton bs = styledButton("Lưu", new Color(39,174,96)); JButton bc = styledButton("Hủy", new Color(149,165,166));
+        btnP.add(bs); btnP.add(bc);
+        d.add(hint, BorderLayout.NORTH); d.add(new JScrollPane(ta), BorderLayout.CENTER); d.add(btnP, BorderLayout.SOUTH);
+
+        bs.addActionListener(e -> {
+            List<Score> rows = new ArrayList<>();
+            List<Integer> lineNo = new ArrayList<>();
+            StringBuilder errors = new StringBuilder();
+            int badLines = 0;
+            String[] lines = ta.getText().split("\\R");
+            for (int i = 0; i < lines.length; i++) {
+                String line = lines[i].trim();
+                if (line.isEmpty()) continue;
+                String[] f = line.split("\\s*[,;\\t]\\s*");
+                try {
+                    if (f.length != 3) throw new IllegalArgumentException();
+                    rows.add(new Score(f[0], f[1], Double.parseDouble(f[2])));
+                    lineNo.add(i + 1);
+                } catch (Exception ex) {
+                    errors.append("Dòng ").append(i + 1).append(": sai định dạng\n");
+                    badLines++;
+                }
+            }
+            if (rows.isEmpty()) { JOptionPane.showMessageDialog(d, errors.length() > 0 ? errors.toString() : "Chưa có dữ liệu"); return; }
+            int skipped = badLines;
+            bs.setEnabled(false);
+            d.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            tasks.run(() -> scores.addScores(rows), r -> {
+                bs.setEnabled(true);
+                d.setCursor(Cursor.getDefaultCursor());
+                for (int i = 0; i < r.size(); i++) {
+                    if (!r.isSuccess(i)) errors.append("Dòng ").append(lineNo.get(i)).append(": ").append(r.getError(i)).append('\n');
+                }
+                syncScores();
+                String msg = "Đã lưu " + r.getSuccessCount() + " / " + (r.size() + skipped) + " dòng";
+                if (errors.length() > 0) {
+                    JTextArea err = new JTextArea(msg + "\n\n" + errors, 12, 40); err.setEditable(false);
+                    JOptionPane.showMessageDialog(d, new JScrollPane(err), "Kết quả", JOptionPane.WARNING_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(d, msg);
+                    d.dispose();
+                }
+            }, ex -> {
+                bs.setEnabled(true);
+                d.setCursor(Cursor.getDefaultCursor());
+                JOptionPane.showMessageDialog(d, "Lỗi khi thêm: " + ex.getMessage());
+            });
         });
         bc.addActionListener(e -> d.dispose());
         d.setVisible(true);
@@ -173,8 +378,8 @@ public class ScorePanel extends JPanel {
             double nd;
             try { nd = Double.parseDouble(tfDiem.getText().trim()); if (nd < 0 || nd > 10) throw new NumberFormatException(); }
             catch (Exception ex) { JOptionPane.showMessageDialog(d, "Điểm phải là số trong khoảng 0 - 10"); return; }
-            try { scoreService.updateScore(new Score(id, tfMsv.getText().trim(), tfMa.getText().trim(), nd)); loadScores(); d.dispose(); }
-            catch (Exception ex) { JOptionPane.showMessageDialog(d, "Lỗi khi cập nhật: " + ex.getMessage()); }
+            Score score = new Score(id, tfMsv.getText().trim(), tfMa.getText().trim(), nd);
+            saveInBackground(d, bs, () -> scores.updateScore(score), "Lỗi khi cập nhật: ");
         });
         bc.addActionListener(e -> d.dispose());
         d.setVisible(true);
@@ -184,11 +389,27 @@ public class ScorePanel extends JPanel {
         int row = scoreTable.getSelectedRow();
         if (row == -1) { JOptionPane.showMessageDialog(this, "Chọn điểm để xóa"); return; }
         int modelRow = scoreTable.convertRowIndexToModel(row);
-        int id = Integer.parseInt(model.getValueAt(modelRow, 0).toString());
+        int id = model.getId(modelRow);
         int c = JOptionPane.showConfirmDialog(this, "Xóa điểm ID " + id + " ?", "Xác nhận", JOptionPane.YES_NO_OPTION);
         if (c == JOptionPane.YES_OPTION) {
-            try { scoreService.deleteScore(id); loadScores(); }
-            catch (Exception ex) { JOptionPane.showMessageDialog(this, "Lỗi khi xóa: " + ex.getMessage()); }
+            tasks.run(() -> scores.deleteScore(id), this::syncScores,
+                    ex -> JOptionPane.showMessageDialog(this, "Lỗi khi xóa: " + ex.getMessage()));
         }
     }
+
+    // Lưu trên luồng nền; dialog chỉ đóng khi server xác nhận, lỗi thì giữ dialog để sửa lại
+    private void saveInBackground(JDialog d, JButton bs, Supplier<CompletableFuture<Void>> save, String errorPrefix) {
+        bs.setEnabled(false);
+        d.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        tasks.run(save,
+                () -> {
+                    d.dispose();
+                    syncScores();
+                },
+                ex -> {
+                    bs.setEnabled(true);
+                    d.setCursor(Cursor.getDefaultCursor());
+                    JOptionPane.showMessageDialog(d, errorPrefix + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
+                });
+    }
 }
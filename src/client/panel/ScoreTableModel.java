@@ -0,0 +1,158 @@
+package client.panel;
+
+import model.Score;
+import model.ScoreColumns;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+
+// Table model lưu bảng điểm dạng cột (mảng nguyên thủy + tham chiếu chuỗi từ điển của ScoreColumns),
+// không dựng Object[] / Score cho từng dòng. Các khối nhận từ server được chép nối vào cuối;
+// delta đồng bộ (sửa / xóa / thêm dòng) áp dụng trực tiếp trên các mảng.
+class ScoreTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    private static final String[] COLUMNS = {"ID", "MSV", "Mã Môn", "Điểm"};
+    private static final Class<?>[] TYPES = {Integer.class, String.class, String.class, Double.class};
+
+    private int[] ids = new int[0];
+    private double[] diem = new double[0];
+    private String[] msv = new String[0];
+    private String[] maMon = new String[0];
+    private int rowCount;
+    // true khi id tăng dần theo dòng (tải theo thứ tự id): tìm dòng bằng tìm kiếm nhị phân
+    private boolean sortedById = true;
+
+    void clear() {
+        ids = new int[0];
+        diem = new double[0];
+        msv = new String[0];
+        maMon = new String[0];
+        rowCount = 0;
+        sortedById = true;
+        fireTableDataChanged();
+    }
+
+    void append(ScoreColumns cols) {
+        int n = cols.size();
+        if (n == 0) return;
+        ensureCapacity(rowCount + n);
+        int first = rowCount;
+        for (int i = 0; i < n; i++) {
+            put(rowCount++, cols.getId(i), cols.getMsv(i), cols.getMaMon(i), cols.getDiem(i));
+        }
+        fireTableRowsInserted(first, rowCount - 1);
+    }
+
+    void append(Score s) {
+        ensureCapacity(rowCount + 1);
+        put(rowCount++, s.getId(), s.getMsv(), s.getMaMon(), s.getDiem());
+        fireTableRowsInserted(rowCount - 1, rowCount - 1);
+    }
+
+    void set(int row, Score s) {
+        checkRow(row);
+        ids[row] = s.getId();
+        msv[row] = s.getMsv();
+        maMon[row] = s.getMaMon();
+        diem[row] = s.getDiem();
+        fireTableRowsUpdated(row, row);
+    }
+
+    void remove(int row) {
+        checkRow(row);
+        int tail = rowCount - row - 1;
+        System.arraycopy(ids, row + 1, ids, row, tail);
+        System.arraycopy(diem, row + 1, diem, row, tail);
+        System.arraycopy(msv, row + 1, msv, row, tail);
+        System.arraycopy(maMon, row + 1, maMon, row, tail);
+        rowCount--;
+        msv[rowCount] = null;
+        maMon[rowCount] = null;
+        fireTableRowsDeleted(row, row);
+    }
+
+    // Dòng có id cho trước, -1 nếu không có trong bảng
+    int indexOf(int id) {
+        if (sortedById) {
+            int i = Arrays.binarySearch(ids, 0, rowCount, id);
+            return i >= 0 ? i : -1;
+        }
+        for (int i = 0; i < rowCount; i++) {
+            if (ids[i] == id) return i;
+        }
+        return -1;
+    }
+
+    int getId(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    String getMsv(int row) {
+        checkRow(row);
+        return msv[row];
+    }
+
+    String getMaMon(int row) {
+        checkRow(row);
+        return maMon[row];
+    }
+
+    double getDiem(int row) {
+        checkRow(row);
+        return diem[row];
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return TYPES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        checkRow(row);
+        switch (column) {
+            case 0: return ids[row];
+            case 1: return msv[row];
+            case 2: return maMon[row];
+            default: return diem[row];
+        }
+    }
+
+    private void put(int row, int id, String msvValue, String maMonValue, double diemValue) {
+        if (row > 0 && id <= ids[row - 1]) sortedById = false;
+        ids[row] = id;
+        msv[row] = msvValue;
+        maMon[row] = maMonValue;
+        diem[row] = diemValue;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) return;
+        int cap = Math.max(needed, Math.max(16, ids.length + (ids.length >> 1)));
+        ids = Arrays.copyOf(ids, cap);
+        diem = Arrays.copyOf(diem, cap);
+        msv = Arrays.copyOf(msv, cap);
+        maMon = Arrays.copyOf(maMon, cap);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rowCount) throw new IndexOutOfBoundsException("row " + row + " / " + rowCount);
+    }
+}
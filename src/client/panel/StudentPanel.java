@@ -1,8 +1,13 @@
 package client.panel;
 
-import model.Score;
+import client.AsyncStudentService;
+import model.ChangeSet;
+import model.ImportKind;
+import model.Page;
+import model.PageRequest;
 import model.Student;
-import model.Subject;
+import model.StudentTranscript;
+import service.ImportService;
 import service.ScoreService;
 import service.StudentService;
 import service.SubjectService;
@@ -18,28 +23,58 @@ import com.formdev.flatlaf.icons.FlatSearchIcon;
 
 import java.awt.*;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
 public class StudentPanel extends JPanel {
 
-    private final StudentService studentService;
+    private final AsyncStudentService students;
     private final SubjectService subjectService;
     private final ScoreService scoreService;
+    private final ImportService importService;
+
+    // Cột bảng -> tên cột sắp xếp phía server
+    private static final String[] SORT_COLUMNS = {"msv", "ten", "ngay_sinh", "que_quan", "diem_tb"};
+    private static final int PAGE_SIZE = 100;
+    private static final int SEARCH_LIMIT = 200;
+    private static final Pattern FILTER_SYNTAX = Pattern.compile("[:;<>=]");
 
     private JTable studentTable;
     private DefaultTableModel studentModel;
-    private TableRowSorter<DefaultTableModel> sorter;
-
-    public StudentPanel(StudentService studentService, SubjectService subjectService, ScoreService scoreService) {
-        this.studentService = studentService;
+    private JTextField tfSearch;
+    private JButton btnMore;
+    private JLabel lblCount;
+    private final PanelTasks tasks = new PanelTasks(this::syncStudents);
+
+    // Trạng thái phân trang / sắp xếp (server-side)
+    private String sortColumn;
+    private boolean sortDesc;
+    private PageRequest nextRequest;
+    private long totalCount;
+    // Phiên bản nhật ký thay đổi mà bảng đang hiển thị đã đồng bộ tới (-1 = chưa có)
+    private long syncVersion = -1;
+    // Giữ tham chiếu để listener đã export không bị thu gom (null nếu không đăng ký được)
+    private ChangeSubscription subscription;
+    private boolean allLoaded;
+    private final Timer searchTimer = new Timer(300, e -> loadStudents());
+
+    public StudentPanel(StudentService studentService, SubjectService subjectService, ScoreService scoreService,
+                        ImportService importService) {
+        this.students = new AsyncStudentService(studentService);
         this.subjectService = subjectService;
         this.scoreService = scoreService;
+        this.importService = importService;
 
         initUI();
         loadStudents();
+        // Server báo khi có thay đổi (kể cả từ người dùng khác) -> chỉ cập nhật các dòng bị ảnh hưởng
+        tasks.run(() -> students.call(s -> ChangeSubscription.register(s::registerListener, this::syncStudents)),
+                sub -> subscription = sub, ex -> {});
     }
 
     private void initUI() {
@@ -64,8 +99,8 @@ public class StudentPanel extends JPanel {
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 0));
         searchPanel.setOpaque(false);
 
-        JTextField tfSearch = new JTextField(24);
-        tfSearch.setToolTipText("Tìm kiếm (tìm trên tất cả cột)");
+        tfSearch = new JTextField(24);
+        tfSearch.setToolTipText("Tìm theo MSV, tên, quê quán (không cần dấu); lọc theo cột: ten:..., diem_tb>=...");
         JButton btnRefresh = new JButton();
         btnRefresh.setPreferredSize(new Dimension(36, 28));
 
@@ -102,8 +137,17 @@ public class StudentPanel extends JPanel {
         center.setHorizontalAlignment(SwingConstants.CENTER);
         studentTable.getColumnModel().getColumn(4).setCellRenderer(center);
 
-        sorter = new TableRowSorter<>(studentModel);
-        studentTable.setRowSorter(sorter);
+        // Bấm tiêu đề cột để sắp xếp phía server
+        studentTable.getTableHeader().addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                int col = studentTable.columnAtPoint(e.getPoint());
+                if (col < 0) return;
+                String column = SORT_COLUMNS[studentTable.convertColumnIndexToModel(col)];
+                sortDesc = column.equals(sortColumn) && !sortDesc;
+                sortColumn = column;
+                loadStudents();
+            }
+        });
 
         JScrollPane scroll = new JScrollPane(studentTable);
         add(scroll, BorderLayout.CENTER);
@@ -116,8 +160,18 @@ public class StudentPanel extends JPanel {
         JButton btnEdit = styledButton("✏️ Sửa", new Color(41, 128, 185));
         JButton btnDelete = styledButton("🗑 Xóa", new Color(231, 76, 60));
         JButton btnDetail = styledButton("🔎 Chi tiết", new Color(108, 99, 255));
+        JButton btnImport = styledButton("📂 Nhập CSV", new Color(39, 174, 96));
         JButton btnRefreshBottom = styledButton("Làm mới", new Color(96, 125, 139));
-
+        btnMore = styledButton("Tải thêm", new Color(96, 125, 139));
+        btnMore.setEnabled(false);
+        JButton btnAll = styledButton("Tải tất cả", new Color(96, 125, 139));
+        lblCount = new JLabel();
+
+        footer.add(tasks.getIndicator());
+        footer.add(lblCount);
+        footer.add(btnMore);
+        footer.add(btnAll);
+        footer.add(btnImport);
         footer.add(btnDetail);
         footer.add(btnAdd);
         footer.add(btnEdit);
@@ -126,32 +180,23 @@ public class StudentPanel extends JPanel {
 
         add(footer, BorderLayout.SOUTH);
 
-        // Event: search realtime
+        // Event: search realtime (lọc phía server, chờ 300ms sau lần gõ cuối)
+        searchTimer.setRepeats(false);
         tfSearch.getDocument().addDocumentListener(new DocumentListener() {
-            private void filter() {
-                String text = tfSearch.getText().trim();
-                if (text.isEmpty()) {
-                    sorter.setRowFilter(null);
-                    return;
-                }
-                try {
-                    // (?i) không phân biệt hoa thường, lọc tất cả cột
-                    sorter.setRowFilter(RowFilter.regexFilter("(?i)" + Pattern.quote(text)));
-                } catch (PatternSyntaxException ex) {
-                    sorter.setRowFilter(null);
-                }
-            }
-            @Override public void insertUpdate(DocumentEvent e) { filter(); }
-            @Override public void removeUpdate(DocumentEvent e) { filter(); }
-            @Override public void changedUpdate(DocumentEvent e) { filter(); }
+            @Override public void insertUpdate(DocumentEvent e) { searchTimer.restart(); }
+            @Override public void removeUpdate(DocumentEvent e) { searchTimer.restart(); }
+            @Override public void changedUpdate(DocumentEvent e) { searchTimer.restart(); }
         });
 
         // Event: refresh
-        btnRefresh.addActionListener(e -> loadStudents());
-        btnRefreshBottom.addActionListener(e -> loadStudents());
+        btnRefresh.addActionListener(e -> syncStudents());
+        btnRefreshBottom.addActionListener(e -> syncStudents());
+        btnMore.addActionListener(e -> loadMoreStudents());
+        btnAll.addActionListener(e -> loadAllStudents());
 
         // CRUD events
         btnAdd.addActionListener(e -> showAddDialog());
+        btnImport.addActionListener(e -> CsvImportDialog.open(this, importService, ImportKind.STUDENT, this::syncStudents));
         btnEdit.addActionListener(e -> {
             int row = studentTable.getSelectedRow();
             if (row == -1) { JOptionPane.showMessageDialog(this, "Chọn sinh viên để sửa"); return; }
@@ -166,13 +211,17 @@ public class StudentPanel extends JPanel {
             Student s = getStudentFromModel(modelRow);
             int confirm = JOptionPane.showConfirmDialog(this, "Xóa sinh viên " + s.getMsv() + " ?", "Xác nhận", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
-                try {
-                    studentService.deleteStudent(s.getMsv());
-                    // đảm bảo xóa điểm liên quan (nếu DB có cascade thì DB sẽ xử lý)
-                    loadStudents();
-                } catch (Exception ex) {
-                    JOptionPane.showMessageDialog(this, "Lỗi xóa: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
-                }
+                btnDelete.setEnabled(false);
+                // đảm bảo xóa điểm liên quan (nếu DB có cascade thì DB sẽ xử lý)
+                tasks.run(() -> students.deleteStudent(s.getMsv()),
+                        () -> {
+                            btnDelete.setEnabled(true);
+                            syncStudents();
+                        },
+                        ex -> {
+                            btnDelete.setEnabled(true);
+                            JOptionPane.showMessageDialog(this, "Lỗi xóa: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
+                        });
             }
         });
 
@@ -224,20 +273,169 @@ public class StudentPanel extends JPanel {
     // =========================
     // Load dữ liệu
     // =========================
+    // Tải lại từ trang đầu với bộ lọc / sắp xếp hiện tại (trên luồng nền; bảng cũ giữ nguyên tới khi có kết quả)
     public void loadStudents() {
-        try {
-            List<Student> students = studentService.getAllStudents();
+        cancelLoadAll();
+        allLoaded = false;
+        btnMore.setEnabled(false);
+        String text = tfSearch.getText().trim();
+        // Từ khóa thường -> tìm kiếm toàn văn (xếp hạng theo mức liên quan);
+        // cú pháp lọc theo cột (ten:..., diem_tb>=...) vẫn đi qua phân trang
+        if (isFullTextSearch(text)) {
+            searchStudents(text);
+        } else {
+            PageRequest request = new PageRequest(sortColumn, sortDesc, text, PAGE_SIZE);
+            tasks.load(() -> students.call(svc -> new PanelTasks.Snapshot<>(fetchSyncPoint(svc), svc.getStudentsPage(request))),
+                    snap -> {
+                        studentModel.setRowCount(0);
+                        syncVersion = snap.version;
+                        showPage(request, snap.data);
+                    },
+                    this::pageFailed);
+        }
+    }
+
+    private static boolean isFullTextSearch(String text) {
+        return !text.isEmpty() && !FILTER_SYNTAX.matcher(text).find();
+    }
+
+    private void searchStudents(String text) {
+        nextRequest = null;
+        tasks.load(() -> students.call(svc -> new PanelTasks.Snapshot<>(fetchSyncPoint(svc), svc.searchStudents(text, SEARCH_LIMIT))),
+                snap -> {
+                    studentModel.setRowCount(0);
+                    syncVersion = snap.version;
+                    for (Student s : snap.data) addRow(s);
+                    int n = studentModel.getRowCount();
+                    lblCount.setText(n >= SEARCH_LIMIT ? "Top " + n + " kết quả phù hợp nhất" : "Tìm thấy " + n + " kết quả");
+                },
+                ex -> JOptionPane.showMessageDialog(this, "Lỗi khi tìm kiếm sinh viên: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void loadMoreStudents() {
+        if (nextRequest == null) return;
+        PageRequest request = nextRequest;
+        btnMore.setEnabled(false);
+        tasks.load(() -> students.getStudentsPage(request), page -> showPage(request, page), this::pageFailed);
+    }
+
+    private void showPage(PageRequest request, Page<Student> page) {
+        if (request.isFirstPage()) totalCount = page.getTotalCount();
+        for (Student s : page.getItems()) addRow(s);
+        nextRequest = page.getNextRequest();
+        btnMore.setEnabled(nextRequest != null);
+        lblCount.setText("Hiển thị " + studentModel.getRowCount() + " / " + totalCount);
+    }
+
+    private void pageFailed(Exception ex) {
+        nextRequest = null;
+        btnMore.setEnabled(false);
+        JOptionPane.showMessageDialog(this, "Lỗi khi lấy danh sách sinh viên: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
+    }
+
+    // Tải toàn bộ danh sách qua con trỏ từ xa, hiển thị dần theo từng khối
+    private void loadAllStudents() {
+        cancelLoadAll();
+        allLoaded = true;
+        nextRequest = null;
+        btnMore.setEnabled(false);
+        lblCount.setText("Đang tải...");
+        tasks.load(() -> students.call(StudentPanel::fetchSyncPoint), version -> {
             studentModel.setRowCount(0);
-            for (Student s : students) {
-                studentModel.addRow(new Object[]{s.getMsv(), s.getTen(),
-                        s.getNgaySinh() != null ? s.getNgaySinh().toString() : "",
-                        s.getQueQuan(), s.getDiemTB()});
-            }
+            syncVersion = version;
+            tasks.stream(onChunk -> students.streamStudents(1000, onChunk),
+                    (List<Student> chunk) -> {
+                        for (Student s : chunk) addRow(s);
+                        lblCount.setText("Đang tải... " + studentModel.getRowCount());
+                    },
+                    total -> {
+                        showLoadedCount();
+                        // Áp dụng các thay đổi xảy ra trong lúc tải
+                        syncStudents();
+                    },
+                    ex -> {
+                        showLoadedCount();
+                        JOptionPane.showMessageDialog(this, "Lỗi khi lấy danh sách sinh viên: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
+                    });
+        }, ex -> {});
+    }
+
+    private void showLoadedCount() {
+        totalCount = studentModel.getRowCount();
+        lblCount.setText("Hiển thị " + totalCount + " / " + totalCount);
+    }
+
+    // Lấy mốc phiên bản trước khi tải (chạy trên luồng nền): thay đổi xảy ra trong lúc tải
+    // sẽ được áp dụng lại ở lần đồng bộ sau
+    private static long fetchSyncPoint(StudentService service) {
+        try {
+            return service.getChangesSince(-1).getVersion();
         } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Lỗi khi lấy danh sách sinh viên: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
+            return -1;
         }
     }
 
+    // Chỉ áp dụng các dòng thêm / sửa / xóa kể từ lần đồng bộ trước thay vì tải lại cả bảng
+    public void syncStudents() {
+        if (tasks.deferSyncWhileLoading()) return;
+        if (syncVersion < 0) { reload(); return; }
+        long since = syncVersion;
+        tasks.sync(() -> students.getChangesSince(since), this::applyChanges,
+                ex -> JOptionPane.showMessageDialog(this, "Lỗi khi đồng bộ sinh viên: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void applyChanges(ChangeSet<Student, String> changes) {
+        if (changes.isReset()) { reload(); return; }
+        if (!changes.isEmpty()) {
+            Map<String, Integer> rowOf = new HashMap<>();
+            for (int i = 0; i < studentModel.getRowCount(); i++) rowOf.put((String) studentModel.getValueAt(i, 0), i);
+            // Dòng mới chỉ thêm vào cuối khi bảng đang hiển thị đủ mọi dòng (không lọc, không còn trang sau)
+            boolean unfiltered = tfSearch.getText().trim().isEmpty();
+            boolean complete = unfiltered && nextRequest == null;
+            for (Student s : changes.getUpserts()) {
+                Integer row = rowOf.get(s.getMsv());
+                if (row != null) {
+                    setRow(row, s);
+                } else {
+                    if (complete) addRow(s);
+                    if (unfiltered) totalCount++;
+                }
+            }
+            // Xóa từ dưới lên để chỉ số các dòng còn lại không bị lệch
+            int[] rows = changes.getDeletedKeys().stream().map(rowOf::get)
+                    .filter(r -> r != null).mapToInt(Integer::intValue).sorted().toArray();
+            for (int i = rows.length - 1; i >= 0; i--) {
+                studentModel.removeRow(rows[i]);
+                totalCount--;
+            }
+        }
+        syncVersion = changes.getVersion();
+        if (!isFullTextSearch(tfSearch.getText().trim())) {
+            lblCount.setText("Hiển thị " + studentModel.getRowCount() + " / " + totalCount);
+        }
+    }
+
+    private void reload() {
+        if (allLoaded) loadAllStudents(); else loadStudents();
+    }
+
+    private void cancelLoadAll() {
+        tasks.cancel();
+    }
+
+    private void addRow(Student s) {
+        studentModel.addRow(new Object[]{s.getMsv(), s.getTen(),
+                s.getNgaySinh() != null ? s.getNgaySinh().toString() : "",
+                s.getQueQuan(), s.getDiemTB()});
+    }
+
+    private void setRow(int row, Student s) {
+        studentModel.setValueAt(s.getTen(), row, 1);
+        studentModel.setValueAt(s.getNgaySinh() != null ? s.getNgaySinh().toString() : "", row, 2);
+        studentModel.setValueAt(s.getQueQuan(), row, 3);
+        studentModel.setValueAt(s.getDiemTB(), row, 4);
+    }
+
     // =========================
     // Dialog thêm / sửa
     // =========================
@@ -280,15 +478,9 @@ public class StudentPanel extends JPanel {
                 JOptionPane.showMessageDialog(dialog, "Ngày sinh phải dạng yyyy-MM-dd", "Lỗi", JOptionPane.WARNING_MESSAGE);
                 return;
             }
-            try {
-                Student s = new Student(tfMsv.getText().trim(), tfTen.getText().trim(),
-                        LocalDate.parse(tfNgaySinh.getText().trim()), tfQueQuan.getText().trim(), 0.0);
-                studentService.addStudent(s);
-                loadStudents();
-                dialog.dispose();
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(dialog, "Lỗi khi thêm: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
-            }
+            Student s = new Student(tfMsv.getText().trim(), tfTen.getText().trim(),
+                    LocalDate.parse(tfNgaySinh.getText().trim()), tfQueQuan.getText().trim(), 0.0);
+            saveInBackground(dialog, btnSave, () -> students.addStudent(s), "Lỗi khi thêm: ");
         });
 
         btnCancel.addActionListener(e -> dialog.dispose());
@@ -335,21 +527,31 @@ public class StudentPanel extends JPanel {
                 JOptionPane.showMessageDialog(dialog, "Ngày sinh phải dạng yyyy-MM-dd", "Lỗi", JOptionPane.WARNING_MESSAGE);
                 return;
             }
-            try {
-                Student updated = new Student(s.getMsv(), tfTen.getText().trim(),
-                        LocalDate.parse(tfNgaySinh.getText().trim()), tfQueQuan.getText().trim(), s.getDiemTB());
-                studentService.updateStudent(updated);
-                loadStudents();
-                dialog.dispose();
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(dialog, "Lỗi khi cập nhật: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
-            }
+            Student updated = new Student(s.getMsv(), tfTen.getText().trim(),
+                    LocalDate.parse(tfNgaySinh.getText().trim()), tfQueQuan.getText().trim(), s.getDiemTB());
+            saveInBackground(dialog, btnSave, () -> students.updateStudent(updated), "Lỗi khi cập nhật: ");
         });
 
         btnCancel.addActionListener(e -> dialog.dispose());
         dialog.setVisible(true);
     }
 
+    // Lưu trên luồng nền; dialog chỉ đóng khi server xác nhận, lỗi thì giữ dialog để sửa lại
+    private void saveInBackground(JDialog dialog, JButton btnSave, Supplier<CompletableFuture<Void>> save, String errorPrefix) {
+        btnSave.setEnabled(false);
+        dialog.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        tasks.run(save,
+                () -> {
+                    dialog.dispose();
+                    syncStudents();
+                },
+                ex -> {
+                    btnSave.setEnabled(true);
+                    dialog.setCursor(Cursor.getDefaultCursor());
+                    JOptionPane.showMessageDialog(dialog, errorPrefix + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
+                });
+    }
+
     // Chi tiết: hiển thị thông tin sinh viên + bảng điểm
     private void showDetailDialog(Student s) {
         if (s == null) return;
@@ -358,32 +560,37 @@ public class StudentPanel extends JPanel {
         dialog.setLocationRelativeTo(this);
         dialog.setLayout(new BorderLayout(10,10));
 
+        DefaultTableModel scModel = new DefaultTableModel(new Object[]{"Mã môn","Tên môn","Số tín chỉ","Điểm"},0);
+        JTable scTable = new JTable(scModel);
+        scTable.setRowHeight(24);
+
         JPanel info = new JPanel(new GridLayout(0,1));
         info.setBorder(BorderFactory.createTitledBorder("Thông tin sinh viên"));
-        info.add(new JLabel("MSV: " + s.getMsv()));
-        info.add(new JLabel("Tên: " + s.getTen()));
-        info.add(new JLabel("Ngày sinh: " + (s.getNgaySinh()!=null ? s.getNgaySinh().toString() : "")));
-        info.add(new JLabel("Quê quán: " + s.getQueQuan()));
-        info.add(new JLabel("Điểm trung bình: " + s.getDiemTB()));
+        showStudentInfo(info, s, null);
+
+        // Một lời gọi (trên luồng nền): thông tin mới nhất của sinh viên + điểm kèm tên môn / tín chỉ;
+        // dialog hiện ngay với thông tin trên bảng và được điền khi có kết quả
+        dialog.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        tasks.run(() -> students.getStudentTranscript(s.getMsv()),
+                transcript -> {
+                    dialog.setCursor(Cursor.getDefaultCursor());
+                    if (transcript == null) {
+                        JOptionPane.showMessageDialog(dialog, "Sinh viên " + s.getMsv() + " không còn tồn tại");
+                        dialog.dispose();
+                        return;
+                    }
+                    for (StudentTranscript.Entry e : transcript.getEntries()) {
+                        scModel.addRow(new Object[]{e.getMaMon(), e.getTenMon(), e.getSoTinChi(), e.getDiem()});
+                    }
+                    showStudentInfo(info, transcript.getStudent(), transcript);
+                },
+                ex -> {
+                    dialog.setCursor(Cursor.getDefaultCursor());
+                    JOptionPane.showMessageDialog(dialog, "Lỗi khi load điểm: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
+                });
 
         dialog.add(info, BorderLayout.NORTH);
 
-        DefaultTableModel scModel = new DefaultTableModel(new Object[]{"Mã môn","Tên môn","Điểm"},0);
-        JTable scTable = new JTable(scModel);
-        scTable.setRowHeight(24);
-
-        try {
-            List<Score> scores = scoreService.getAllScores();
-            for (Score sc : scores) {
-                if (sc.getMsv().equals(s.getMsv())) {
-                    Subject subj = subjectService.findSubjectById(sc.getMaMon());
-                    scModel.addRow(new Object[]{sc.getMaMon(), subj!=null?subj.getTenMon():sc.getMaMon(), sc.getDiem()});
-                }
-            }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Lỗi khi load điểm: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
-        }
-
         dialog.add(new JScrollPane(scTable), BorderLayout.CENTER);
         JPanel btnP = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         JButton bClose = styledButton("Đóng", new Color(125, 134, 139));
@@ -393,4 +600,16 @@ public class StudentPanel extends JPanel {
 
         dialog.setVisible(true);
     }
+
+    private void showStudentInfo(JPanel info, Student s, StudentTranscript transcript) {
+        info.removeAll();
+        info.add(new JLabel("MSV: " + s.getMsv()));
+        info.add(new JLabel("Tên: " + s.getTen()));
+        info.add(new JLabel("Ngày sinh: " + (s.getNgaySinh()!=null ? s.getNgaySinh().toString() : "")));
+        info.add(new JLabel("Quê quán: " + s.getQueQuan()));
+        info.add(new JLabel("Điểm trung bình: " + s.getDiemTB()));
+        info.add(new JLabel(transcript != null ? "Tổng số tín chỉ: " + transcript.getTotalCredits() : "Đang tải bảng điểm..."));
+        info.revalidate();
+        info.repaint();
+    }
 }
@@ -1,10 +1,15 @@
 package client.panel;
 
 import com.formdev.flatlaf.icons.FlatRevealIcon;
-import java.util.regex.Pattern;
-import java.util.regex.PatternSyntaxException;
 
+import client.AsyncSubjectService;
+import model.ChangeSet;
+import model.ImportKind;
+import model.Page;
+import model.PageRequest;
 import model.Subject;
+import model.SubjectStatistics;
+import service.ImportService;
 import service.SubjectService;
 
 import javax.swing.*;
@@ -13,20 +18,43 @@ import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.table.*;
 import java.awt.*;
-import java.util.List;
-import java.util.regex.PatternSyntaxException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public class SubjectPanel extends JPanel {
 
-    private final SubjectService subjectService;
+    private final AsyncSubjectService subjects;
+    private final ImportService importService;
     private JTable subjectTable;
     private DefaultTableModel subjectModel;
-    private TableRowSorter<DefaultTableModel> sorter;
+    private JTextField tfSearch;
+    private JButton btnMore;
+    private JLabel lblCount;
 
-    public SubjectPanel(SubjectService subjectService) {
-        this.subjectService = subjectService;
+    // Phân trang / sắp xếp phía server
+    private static final String[] SORT_COLUMNS = {"ma_mon", "ten_mon", "so_luong_dang_ky", "so_tin_chi"};
+    private static final int PAGE_SIZE = 100;
+    private String sortColumn;
+    private boolean sortDesc;
+    private PageRequest nextRequest;
+    private long totalCount;
+    // Phiên bản nhật ký thay đổi mà bảng đang hiển thị đã đồng bộ tới (-1 = chưa có)
+    private long syncVersion = -1;
+    // Giữ tham chiếu để listener đã export không bị thu gom (null nếu không đăng ký được)
+    private ChangeSubscription subscription;
+    private final Timer searchTimer = new Timer(300, e -> loadSubjects());
+    private final PanelTasks tasks = new PanelTasks(this::syncSubjects);
+
+    public SubjectPanel(SubjectService subjectService, ImportService importService) {
+        this.subjects = new AsyncSubjectService(subjectService);
+        this.importService = importService;
         initUI();
         loadSubjects();
+        // Server báo khi có thay đổi (kể cả từ người dùng khác) -> chỉ cập nhật các dòng bị ảnh hưởng
+        tasks.run(() -> subjects.call(s -> ChangeSubscription.register(s::registerListener, this::syncSubjects)),
+                sub -> subscription = sub, ex -> {});
     }
 
     private void initUI() {
@@ -48,7 +76,7 @@ public class SubjectPanel extends JPanel {
 
         JPanel right = new JPanel(new FlowLayout(FlowLayout.RIGHT,8,0));
         right.setOpaque(false);
-        JTextField tfSearch = new JTextField(24);
+        tfSearch = new JTextField(24);
         tfSearch.setToolTipText("Tìm kiếm (tìm trên tất cả cột)");
         JButton btnRefresh = new JButton();
         btnRefresh.setPreferredSize(new Dimension(36,28));
@@ -75,8 +103,16 @@ public class SubjectPanel extends JPanel {
         JScrollPane scroll = new JScrollPane(subjectTable);
         add(scroll, BorderLayout.CENTER);
 
-        sorter = new TableRowSorter<>(subjectModel);
-        subjectTable.setRowSorter(sorter);
+        subjectTable.getTableHeader().addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                int col = subjectTable.columnAtPoint(e.getPoint());
+                if (col < 0) return;
+                String column = SORT_COLUMNS[subjectTable.convertColumnIndexToModel(col)];
+                sortDesc = column.equals(sortColumn) && !sortDesc;
+                sortColumn = column;
+                loadSubjects();
+            }
+        });
 
         // Footer buttons
         JPanel footer = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 8));
@@ -84,34 +120,45 @@ public class SubjectPanel extends JPanel {
         JButton btnAdd = styledButton("➕ Thêm", new Color(39, 174, 96));
         JButton btnEdit = styledButton("✏️ Sửa", new Color(41, 128, 185));
         JButton btnDelete = styledButton("🗑 Xóa", new Color(231, 76, 60));
+        JButton btnImport = styledButton("📂 Nhập CSV", new Color(39, 174, 96));
+        JButton btnStats = styledButton("📊 Thống kê", new Color(142, 68, 173));
         JButton btnRefreshBottom = styledButton("Làm mới", new Color(96, 125, 139));
-        footer.add(btnAdd); footer.add(btnEdit); footer.add(btnDelete); footer.add(btnRefreshBottom);
+        btnMore = styledButton("Tải thêm", new Color(96, 125, 139)); btnMore.setEnabled(false);
+        lblCount = new JLabel();
+        footer.add(tasks.getIndicator()); footer.add(lblCount); footer.add(btnMore);
+        footer.add(btnStats); footer.add(btnImport); footer.add(btnAdd); footer.add(btnEdit); footer.add(btnDelete); footer.add(btnRefreshBottom);
         add(footer, BorderLayout.SOUTH);
 
         // listeners
+        searchTimer.setRepeats(false);
         tfSearch.getDocument().addDocumentListener(new DocumentListener() {
-            private void filter() {
-                String t = tfSearch.getText().trim();
-                if (t.isEmpty()) { sorter.setRowFilter(null); return; }
-                try { sorter.setRowFilter(RowFilter.regexFilter("(?i)" + Pattern.quote(t))); } catch (PatternSyntaxException ex) { sorter.setRowFilter(null); }
-            }
-            public void insertUpdate(DocumentEvent e) { filter(); }
-            public void removeUpdate(DocumentEvent e) { filter(); }
-            public void changedUpdate(DocumentEvent e) { filter(); }
+            public void insertUpdate(DocumentEvent e) { searchTimer.restart(); }
+            public void removeUpdate(DocumentEvent e) { searchTimer.restart(); }
+            public void changedUpdate(DocumentEvent e) { searchTimer.restart(); }
         });
 
-        btnRefresh.addActionListener(e -> loadSubjects());
-        btnRefreshBottom.addActionListener(e -> loadSubjects());
+        btnRefresh.addActionListener(e -> syncSubjects());
+        btnRefreshBottom.addActionListener(e -> syncSubjects());
+        btnMore.addActionListener(e -> loadMoreSubjects());
 
         btnAdd.addActionListener(e -> showAddDialog());
+        btnImport.addActionListener(e -> CsvImportDialog.open(this, importService, ImportKind.SUBJECT, this::syncSubjects));
         btnEdit.addActionListener(e -> {
             int row = subjectTable.getSelectedRow();
             if (row == -1) { JOptionPane.showMessageDialog(this, "Chọn môn để sửa"); return; }
             int modelRow = subjectTable.convertRowIndexToModel(row);
             String ma = (String) subjectModel.getValueAt(modelRow, 0);
             String ten = (String) subjectModel.getValueAt(modelRow, 1);
+            int soLuong = Integer.parseInt(subjectModel.getValueAt(modelRow, 2).toString());
             int soTin = Integer.parseInt(subjectModel.getValueAt(modelRow, 3).toString());
-            showEditDialog(new Subject(ma, ten, Integer.parseInt(subjectModel.getValueAt(modelRow,2).toString()), soTin));
+            showEditDialog(new Subject(ma, ten, soTin, soLuong));
+        });
+        btnStats.addActionListener(e -> {
+            int row = subjectTable.getSelectedRow();
+            if (row == -1) { JOptionPane.showMessageDialog(this, "Chọn môn để xem thống kê"); return; }
+            String ma = (String) subjectModel.getValueAt(subjectTable.convertRowIndexToModel(row), 0);
+            tasks.run(() -> subjects.getSubjectStatistics(ma), this::showStatistics,
+                    ex -> JOptionPane.showMessageDialog(this, "Lỗi khi lấy thống kê: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE));
         });
         btnDelete.addActionListener(e -> {
             int row = subjectTable.getSelectedRow();
@@ -120,7 +167,8 @@ public class SubjectPanel extends JPanel {
             String ma = (String) subjectModel.getValueAt(modelRow, 0);
             int c = JOptionPane.showConfirmDialog(this, "Xóa môn " + ma + " ?", "Xác nhận", JOptionPane.YES_NO_OPTION);
             if (c == JOptionPane.YES_OPTION) {
-                try { subjectService.deleteSubject(ma); loadSubjects(); } catch (Exception ex) { JOptionPane.showMessageDialog(this, "Lỗi: " + ex.getMessage()); }
+                tasks.run(() -> subjects.deleteSubject(ma), this::syncSubjects,
+                        ex -> JOptionPane.showMessageDialog(this, "Lỗi: " + ex.getMessage()));
             }
         });
     }
@@ -136,16 +184,92 @@ public class SubjectPanel extends JPanel {
         return b;
     }
 
+    // Tải lại từ trang đầu trên luồng nền; bảng cũ giữ nguyên tới khi có kết quả
     public void loadSubjects() {
+        btnMore.setEnabled(false);
+        PageRequest request = new PageRequest(sortColumn, sortDesc, tfSearch.getText().trim(), PAGE_SIZE);
+        tasks.load(() -> subjects.call(svc -> new PanelTasks.Snapshot<>(fetchSyncPoint(svc), svc.getSubjectsPage(request))),
+                snap -> {
+                    subjectModel.setRowCount(0);
+                    syncVersion = snap.version;
+                    showPage(request, snap.data);
+                },
+                this::pageFailed);
+    }
+
+    private void loadMoreSubjects() {
+        if (nextRequest == null) return;
+        PageRequest request = nextRequest;
+        btnMore.setEnabled(false);
+        tasks.load(() -> subjects.getSubjectsPage(request), page -> showPage(request, page), this::pageFailed);
+    }
+
+    private void showPage(PageRequest request, Page<Subject> page) {
+        if (request.isFirstPage()) totalCount = page.getTotalCount();
+        for (Subject s : page.getItems()) addRow(s);
+        nextRequest = page.getNextRequest();
+        btnMore.setEnabled(nextRequest != null);
+        lblCount.setText("Hiển thị " + subjectModel.getRowCount() + " / " + totalCount);
+    }
+
+    private void pageFailed(Exception ex) {
+        nextRequest = null;
+        btnMore.setEnabled(false);
+        JOptionPane.showMessageDialog(this, "Lỗi khi lấy môn học: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
+    }
+
+    private void addRow(Subject s) {
+        subjectModel.addRow(new Object[]{s.getMaMon(), s.getTenMon(), s.getSoLuongDangKy(), s.getSoTinChi()});
+    }
+
+    // Lấy mốc phiên bản trước khi tải (chạy trên luồng nền): thay đổi xảy ra trong lúc tải
+    // sẽ được áp dụng lại ở lần đồng bộ sau
+    private static long fetchSyncPoint(SubjectService service) {
         try {
-            List<Subject> list = subjectService.getAllSubjects();
-            subjectModel.setRowCount(0);
-            for (Subject s : list) {
-                subjectModel.addRow(new Object[]{s.getMaMon(), s.getTenMon(), s.getSoLuongDangKy(), s.getSoTinChi()});
-            }
+            return service.getChangesSince(-1).getVersion();
         } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Lỗi khi lấy môn học: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
+            return -1;
+        }
+    }
+
+    // Chỉ áp dụng các dòng thêm / sửa / xóa kể từ lần đồng bộ trước thay vì tải lại cả bảng
+    public void syncSubjects() {
+        if (tasks.deferSyncWhileLoading()) return;
+        if (syncVersion < 0) { loadSubjects(); return; }
+        long since = syncVersion;
+        tasks.sync(() -> subjects.getChangesSince(since), this::applyChanges,
+                ex -> JOptionPane.showMessageDialog(this, "Lỗi khi đồng bộ môn học: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void applyChanges(ChangeSet<Subject, String> changes) {
+        if (changes.isReset()) { loadSubjects(); return; }
+        if (!changes.isEmpty()) {
+            Map<String, Integer> rowOf = new HashMap<>();
+            for (int i = 0; i < subjectModel.getRowCount(); i++) rowOf.put((String) subjectModel.getValueAt(i, 0), i);
+            // Dòng mới chỉ thêm vào cuối khi bảng đang hiển thị đủ mọi dòng (không lọc, không còn trang sau)
+            boolean unfiltered = tfSearch.getText().trim().isEmpty();
+            boolean complete = unfiltered && nextRequest == null;
+            for (Subject s : changes.getUpserts()) {
+                Integer row = rowOf.get(s.getMaMon());
+                if (row != null) {
+                    subjectModel.setValueAt(s.getTenMon(), row, 1);
+                    subjectModel.setValueAt(s.getSoLuongDangKy(), row, 2);
+                    subjectModel.setValueAt(s.getSoTinChi(), row, 3);
+                } else {
+                    if (complete) addRow(s);
+                    if (unfiltered) totalCount++;
+                }
+            }
+            // Xóa từ dưới lên để chỉ số các dòng còn lại không bị lệch
+            int[] rows = changes.getDeletedKeys().stream().map(rowOf::get)
+                    .filter(r -> r != null).mapToInt(Integer::intValue).sorted().toArray();
+            for (int i = rows.length - 1; i >= 0; i--) {
+                subjectModel.removeRow(rows[i]);
+                totalCount--;
+            }
         }
+        syncVersion = changes.getVersion();
+        lblCount.setText("Hiển thị " + subjectModel.getRowCount() + " / " + totalCount);
     }
 
     private void showAddDialog() {
@@ -169,8 +293,8 @@ public class SubjectPanel extends JPanel {
             int soTin = 3;
             try { soTin = Integer.parseInt(tfTin.getText().trim()); if (soTin <= 0) throw new NumberFormatException(); }
             catch (Exception ex) { JOptionPane.showMessageDialog(d, "Số tín chỉ phải là số nguyên dương", "Lỗi", JOptionPane.WARNING_MESSAGE); return; }
-            try { subjectService.addSubject(new Subject(tfMa.getText().trim(), tfTen.getText().trim(), 0, soTin)); loadSubjects(); d.dispose(); }
-            catch (Exception ex) { JOptionPane.showMessageDialog(d, "Lỗi khi thêm: " + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE); }
+            Subject subject = new Subject(tfMa.getText().trim(), tfTen.getText().trim(), soTin, 0);
+            saveInBackground(d, bs, () -> subjects.addSubject(subject), "Lỗi khi thêm: ");
         });
         bc.addActionListener(e -> d.dispose());
         d.setVisible(true);
@@ -196,10 +320,48 @@ public class SubjectPanel extends JPanel {
             if (tfTen.getText().trim().isEmpty()) { JOptionPane.showMessageDialog(d, "Tên không được để trống"); return; }
             int soTin = 3; try { soTin = Integer.parseInt(tfTin.getText().trim()); if (soTin<=0) throw new NumberFormatException(); }
             catch (Exception ex) { JOptionPane.showMessageDialog(d, "Số tín chỉ phải là số nguyên dương"); return; }
-            try { subjectService.updateSubject(new Subject(tfMa.getText().trim(), tfTen.getText().trim(), 0, soTin)); loadSubjects(); d.dispose(); }
-            catch (Exception ex) { JOptionPane.showMessageDialog(d, "Lỗi khi cập nhật: " + ex.getMessage()); }
+            Subject subject = new Subject(tfMa.getText().trim(), tfTen.getText().trim(), soTin, 0);
+            saveInBackground(d, bs, () -> subjects.updateSubject(subject), "Lỗi khi cập nhật: ");
         });
         bc.addActionListener(e -> d.dispose());
         d.setVisible(true);
     }
+
+    private void showStatistics(SubjectStatistics st) {
+        if (st == null) { JOptionPane.showMessageDialog(this, "Môn học không còn tồn tại"); return; }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Số điểm: %d (chưa nhập: %d)%n", st.getCount(), st.getMissingCount()));
+        sb.append(String.format("Trung bình: %.2f   Độ lệch chuẩn: %.2f%n", st.getMean(), st.getStdDev()));
+        sb.append(String.format("Thấp nhất: %.2f   Q1: %.2f   Trung vị: %.2f   Q3: %.2f   Cao nhất: %.2f%n",
+                st.getMin(), st.getQ1(), st.getMedian(), st.getQ3(), st.getMax()));
+        sb.append(String.format("Đạt (>= %.1f): %d  (%.1f%%)%n%n", st.getPassMark(), st.getPassCount(), st.getPassRate() * 100));
+        int[] hist = st.getHistogram();
+        int peak = 1;
+        for (int c : hist) peak = Math.max(peak, c);
+        for (int k = 0; k < hist.length; k++) {
+            String bar = "█".repeat((int) Math.round(30.0 * hist[k] / peak));
+            sb.append(String.format("%2d–%-2d %-30s %d%n", k, k + 1, bar, hist[k]));
+        }
+        JTextArea area = new JTextArea(sb.toString());
+        area.setEditable(false);
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13));
+        JOptionPane.showMessageDialog(this, area, "Thống kê điểm " + st.getMaMon() + " - " + st.getTenMon(),
+                JOptionPane.PLAIN_MESSAGE);
+    }
+
+    // Lưu trên luồng nền; dialog chỉ đóng khi server xác nhận, lỗi thì giữ dialog để sửa lại
+    private void saveInBackground(JDialog d, JButton bs, Supplier<CompletableFuture<Void>> save, String errorPrefix) {
+        bs.setEnabled(false);
+        d.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        tasks.run(save,
+                () -> {
+                    d.dispose();
+                    syncSubjects();
+                },
+                ex -> {
+                    bs.setEnabled(true);
+                    d.setCursor(Cursor.getDefaultCursor());
+                    JOptionPane.showMessageDialog(d, errorPrefix + ex.getMessage(), "Lỗi", JOptionPane.ERROR_MESSAGE);
+                });
+    }
 }
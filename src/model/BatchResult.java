@@ -0,0 +1,49 @@
+package model;
+
+import java.io.Serializable;
+
+// Kết quả của một thao tác ghi hàng loạt: trạng thái từng dòng theo đúng thứ tự đầu vào
+public class BatchResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String[] errors;   // null = dòng thành công
+    private int failureCount;
+
+    public BatchResult(int size) {
+        this.errors = new String[size];
+    }
+
+    public void fail(int index, String message) {
+        if (errors[index] == null) failureCount++;
+        errors[index] = message != null ? message : "Lỗi không xác định";
+    }
+
+    public int size() {
+        return errors.length;
+    }
+
+    public boolean isSuccess(int index) {
+        return errors[index] == null;
+    }
+
+    public String getError(int index) {
+        return errors[index];
+    }
+
+    public int getSuccessCount() {
+        return errors.length - failureCount;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "size=" + errors.length +
+                ", success=" + getSuccessCount() +
+                ", failed=" + failureCount +
+                '}';
+    }
+}
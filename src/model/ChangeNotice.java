@@ -0,0 +1,33 @@
+package model;
+
+import java.io.Serializable;
+
+// Thông báo gộp: bảng entity có thay đổi tới phiên bản version của nhật ký thay đổi.
+// Nhiều lần ghi liên tiếp chỉ sinh một thông báo mang phiên bản mới nhất.
+public class ChangeNotice implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String entity;
+    private final long version;
+
+    public ChangeNotice(String entity, long version) {
+        this.entity = entity;
+        this.version = version;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeNotice{" +
+                "entity='" + entity + '\'' +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -0,0 +1,69 @@
+package model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+// Các thay đổi của một bảng kể từ phiên bản client đã đồng bộ.
+// upserts: dòng được thêm / sửa (giá trị hiện tại); deletedKeys: khóa của dòng đã bị xóa.
+// reset = true: không tính được delta (phiên bản quá cũ, đã bị dọn, hoặc quá nhiều thay đổi)
+// -> client tải lại toàn bộ rồi đồng bộ tiếp từ getVersion().
+public class ChangeSet<T extends Serializable, K extends Serializable> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long fromVersion;
+    private final long version;
+    private final boolean reset;
+    private final ArrayList<T> upserts;
+    private final ArrayList<K> deletedKeys;
+
+    public ChangeSet(long fromVersion, long version, List<T> upserts, List<K> deletedKeys) {
+        this(fromVersion, version, false, upserts, deletedKeys);
+    }
+
+    private ChangeSet(long fromVersion, long version, boolean reset, List<T> upserts, List<K> deletedKeys) {
+        this.fromVersion = fromVersion;
+        this.version = version;
+        this.reset = reset;
+        this.upserts = new ArrayList<>(upserts);
+        this.deletedKeys = new ArrayList<>(deletedKeys);
+    }
+
+    public static <T extends Serializable, K extends Serializable> ChangeSet<T, K> reset(long fromVersion, long version) {
+        return new ChangeSet<>(fromVersion, version, true, List.of(), List.of());
+    }
+
+    public long getFromVersion() {
+        return fromVersion;
+    }
+
+    // Phiên bản để truyền vào lần gọi getChangesSince tiếp theo
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public List<T> getUpserts() {
+        return upserts;
+    }
+
+    public List<K> getDeletedKeys() {
+        return deletedKeys;
+    }
+
+    public boolean isEmpty() {
+        return !reset && upserts.isEmpty() && deletedKeys.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeSet{" +
+                "from=" + fromVersion +
+                ", version=" + version +
+                (reset ? ", reset" : ", upserts=" + upserts.size() + ", deleted=" + deletedKeys.size()) +
+                '}';
+    }
+}
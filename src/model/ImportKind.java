@@ -0,0 +1,18 @@
+package model;
+
+// Loại dữ liệu nhập từ CSV và thứ tự cột mặc định (khi file không có dòng tiêu đề)
+public enum ImportKind {
+    STUDENT("msv", "ten", "ngay_sinh", "que_quan"),
+    SUBJECT("ma_mon", "ten_mon", "so_tin_chi"),
+    SCORE("msv", "ma_mon", "diem");
+
+    private final String[] columns;
+
+    ImportKind(String... columns) {
+        this.columns = columns;
+    }
+
+    public String[] getColumns() {
+        return columns.clone();
+    }
+}
@@ -0,0 +1,76 @@
+package model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+// Tiến độ của một lần nhập CSV
+public class ImportProgress implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String importId;
+    private final ImportKind kind;
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsRejected;
+    private final ArrayList<String> rejectedSamples; // chỉ giữ một số dòng lỗi đầu tiên
+    private final boolean done;
+    private final long elapsedMillis;
+
+    public ImportProgress(String importId, ImportKind kind, long rowsRead, long rowsImported, long rowsRejected,
+                          List<String> rejectedSamples, boolean done, long elapsedMillis) {
+        this.importId = importId;
+        this.kind = kind;
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.rejectedSamples = new ArrayList<>(rejectedSamples);
+        this.done = done;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public ImportKind getKind() {
+        return kind;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public List<String> getRejectedSamples() {
+        return rejectedSamples;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportProgress{" +
+                "importId='" + importId + '\'' +
+                ", kind=" + kind +
+                ", read=" + rowsRead +
+                ", imported=" + rowsImported +
+                ", rejected=" + rowsRejected +
+                ", done=" + done +
+                ", elapsedMs=" + elapsedMillis +
+                '}';
+    }
+}
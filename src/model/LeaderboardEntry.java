@@ -0,0 +1,46 @@
+package model;
+
+import java.io.Serializable;
+
+// Một dòng bảng vinh danh: sinh viên và điểm dùng để xếp (điểm môn, hoặc GPA khi xếp toàn trường).
+// Cùng điểm cùng hạng (1, 2, 2, 4).
+public class LeaderboardEntry implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int rank;
+    private final String msv;
+    private final String ten;
+    private final double diem;
+
+    public LeaderboardEntry(int rank, String msv, String ten, double diem) {
+        this.rank = rank;
+        this.msv = msv;
+        this.ten = ten;
+        this.diem = diem;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public String getMsv() {
+        return msv;
+    }
+
+    public String getTen() {
+        return ten;
+    }
+
+    public double getDiem() {
+        return diem;
+    }
+
+    @Override
+    public String toString() {
+        return "LeaderboardEntry{" +
+                "rank=" + rank +
+                ", msv='" + msv + '\'' +
+                ", diem=" + diem +
+                '}';
+    }
+}
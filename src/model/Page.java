@@ -0,0 +1,45 @@
+package model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+// Một trang kết quả trả về từ server
+public class Page<T extends Serializable> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final ArrayList<T> items;
+    private final long totalCount;          // tổng số dòng khớp bộ lọc, -1 nếu không tính
+    private final PageRequest nextRequest;  // null nếu đã hết dữ liệu
+
+    public Page(List<T> items, long totalCount, PageRequest nextRequest) {
+        this.items = new ArrayList<>(items);
+        this.totalCount = totalCount;
+        this.nextRequest = nextRequest;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public PageRequest getNextRequest() {
+        return nextRequest;
+    }
+
+    public boolean hasMore() {
+        return nextRequest != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "items=" + items.size() +
+                ", totalCount=" + totalCount +
+                ", hasMore=" + hasMore() +
+                '}';
+    }
+}
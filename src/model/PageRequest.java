@@ -0,0 +1,100 @@
+package model;
+
+import java.io.Serializable;
+
+// Yêu cầu lấy một trang dữ liệu (phân trang keyset phía server).
+// filter: các điều kiện cách nhau bởi ';', mỗi điều kiện là
+//   - chuỗi tự do: tìm gần đúng trên các cột văn bản, ví dụ "Nguyễn"
+//   - cot:giatri  : tìm gần đúng trên một cột, ví dụ "que_quan:Hà Nội"
+//   - cot>=giatri (>, <, <=, =): so sánh, ví dụ "diem>=8"
+public class PageRequest implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private String sortColumn;      // null = theo khóa chính
+    private boolean descending;
+    private String filter;
+    private int pageSize;
+
+    // Con trỏ keyset: giá trị cột sắp xếp và khóa của dòng cuối trang trước
+    private Serializable afterSortValue;
+    private Serializable afterKey;
+
+    public PageRequest() {
+        this(null, false, null, DEFAULT_PAGE_SIZE);
+    }
+
+    public PageRequest(String sortColumn, boolean descending, String filter, int pageSize) {
+        this.sortColumn = sortColumn;
+        this.descending = descending;
+        this.filter = filter;
+        this.pageSize = pageSize;
+    }
+
+    // Tạo yêu cầu cho trang kế tiếp, giữ nguyên sắp xếp và bộ lọc
+    public PageRequest after(Serializable sortValue, Serializable key) {
+        PageRequest next = new PageRequest(sortColumn, descending, filter, pageSize);
+        next.afterSortValue = sortValue;
+        next.afterKey = key;
+        return next;
+    }
+
+    public boolean isFirstPage() {
+        return afterKey == null;
+    }
+
+    // Getter & Setter
+    public String getSortColumn() {
+        return sortColumn;
+    }
+
+    public void setSortColumn(String sortColumn) {
+        this.sortColumn = sortColumn;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public void setDescending(boolean descending) {
+        this.descending = descending;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public void setFilter(String filter) {
+        this.filter = filter;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public Serializable getAfterSortValue() {
+        return afterSortValue;
+    }
+
+    public Serializable getAfterKey() {
+        return afterKey;
+    }
+
+    @Override
+    public String toString() {
+        return "PageRequest{" +
+                "sortColumn='" + sortColumn + '\'' +
+                ", descending=" + descending +
+                ", filter='" + filter + '\'' +
+                ", pageSize=" + pageSize +
+                ", afterSortValue=" + afterSortValue +
+                ", afterKey=" + afterKey +
+                '}';
+    }
+}
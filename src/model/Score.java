@@ -1,13 +1,23 @@
 package model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+public class Score implements Externalizable {
+    private static final long serialVersionUID = 1L;
+    private static final int WIRE_VERSION = 1;
 
-public class Score implements Serializable {
     private int id;         // id tự tăng trong bảng Score
     private String msv;     // mã sinh viên
     private String maMon;   // mã môn học
     private double diem;    // điểm môn học
 
+    // Dùng khi giải tuần tự (Externalizable)
+    public Score() {
+    }
+
     public Score(int id, String msv, String maMon, double diem) {
         this.id = id;
         this.msv = msv;
@@ -52,6 +62,24 @@ public class Score implements Serializable {
         this.diem = diem;
     }
 
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(WIRE_VERSION);
+        out.writeInt(id);
+        WireFormat.writeScore(out, diem);
+        WireFormat.writeString(out, msv);
+        WireFormat.writeString(out, maMon);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        WireFormat.checkVersion(in.readByte(), WIRE_VERSION, "Score");
+        id = in.readInt();
+        diem = WireFormat.readScore(in);
+        msv = WireFormat.readString(in);
+        maMon = WireFormat.readString(in);
+    }
+
     @Override
     public String toString() {
         return "Score{" +
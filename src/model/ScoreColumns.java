@@ -0,0 +1,247 @@
+package model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Khối bảng điểm dạng cột dùng cho đọc hàng loạt: mỗi cột là một mảng nguyên thủy,
+// msv / ma_mon được mã hóa từ điển (mảng mã int + danh sách chuỗi khác nhau).
+// Không tạo object Score cho từng dòng ở cả hai phía; client đọc trực tiếp theo chỉ số dòng.
+// Khi truyền: id ghi theo delta (varint), mã từ điển dùng 1/2/4 byte tùy kích thước từ điển,
+// điểm dùng mã hóa của WireFormat (2 byte với điểm có tối đa 2 chữ số lẻ).
+public class ScoreColumns implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private transient int[] ids;
+    private transient double[] diem;
+    private transient int[] msvCodes;
+    private transient String[] msvDict;
+    private transient int[] maMonCodes;
+    private transient String[] maMonDict;
+
+    private ScoreColumns(int[] ids, double[] diem, int[] msvCodes, String[] msvDict,
+                         int[] maMonCodes, String[] maMonDict) {
+        this.ids = ids;
+        this.diem = diem;
+        this.msvCodes = msvCodes;
+        this.msvDict = msvDict;
+        this.maMonCodes = maMonCodes;
+        this.maMonDict = maMonDict;
+    }
+
+    public static ScoreColumns of(List<Score> scores) {
+        Builder b = new Builder(scores.size());
+        for (Score s : scores) b.add(s.getId(), s.getMsv(), s.getMaMon(), s.getDiem());
+        return b.build();
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public int getId(int row) {
+        return ids[row];
+    }
+
+    public String getMsv(int row) {
+        return msvDict[msvCodes[row]];
+    }
+
+    public String getMaMon(int row) {
+        return maMonDict[maMonCodes[row]];
+    }
+
+    public double getDiem(int row) {
+        return diem[row];
+    }
+
+    // id của dòng cuối: dùng làm mốc afterId cho khối tiếp theo
+    public int getLastId() {
+        return ids.length == 0 ? 0 : ids[ids.length - 1];
+    }
+
+    public int getMsvDictionarySize() {
+        return msvDict.length;
+    }
+
+    public int getMaMonDictionarySize() {
+        return maMonDict.length;
+    }
+
+    public Score toScore(int row) {
+        return new Score(getId(row), getMsv(row), getMaMon(row), getDiem(row));
+    }
+
+    @Override
+    public String toString() {
+        return "ScoreColumns{" +
+                "rows=" + ids.length +
+                ", msvDict=" + msvDict.length +
+                ", maMonDict=" + maMonDict.length +
+                '}';
+    }
+
+    // ============================
+    // Định dạng truyền
+    // ============================
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        int n = ids.length;
+        out.writeInt(n);
+        writeDictionary(out, msvDict);
+        writeDictionary(out, maMonDict);
+        int prev = 0;
+        for (int i = 0; i < n; i++) {
+            writeVarInt(out, ids[i] - prev);   // id tăng dần -> delta thường chỉ 1 byte
+            prev = ids[i];
+        }
+        for (int i = 0; i < n; i++) WireFormat.writeScore(out, diem[i]);
+        writeCodes(out, msvCodes, msvDict.length);
+        writeCodes(out, maMonCodes, maMonDict.length);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException {
+        int n = in.readInt();
+        if (n < 0) throw new IOException("Số dòng không hợp lệ: " + n);
+        msvDict = readDictionary(in);
+        maMonDict = readDictionary(in);
+        ids = new int[n];
+        int prev = 0;
+        for (int i = 0; i < n; i++) {
+            prev += readVarInt(in);
+            ids[i] = prev;
+        }
+        diem = new double[n];
+        for (int i = 0; i < n; i++) diem[i] = WireFormat.readScore(in);
+        msvCodes = readCodes(in, n, msvDict.length);
+        maMonCodes = readCodes(in, n, maMonDict.length);
+    }
+
+    private static void writeDictionary(ObjectOutputStream out, String[] dict) throws IOException {
+        out.writeInt(dict.length);
+        for (String s : dict) WireFormat.writeString(out, s);
+    }
+
+    private static String[] readDictionary(ObjectInputStream in) throws IOException {
+        int n = in.readInt();
+        if (n < 0) throw new IOException("Kích thước từ điển không hợp lệ: " + n);
+        String[] dict = new String[n];
+        for (int i = 0; i < n; i++) dict[i] = WireFormat.readString(in);
+        return dict;
+    }
+
+    private static void writeCodes(ObjectOutputStream out, int[] codes, int dictSize) throws IOException {
+        for (int c : codes) {
+            if (dictSize <= 0x100) out.writeByte(c);
+            else if (dictSize <= 0x10000) out.writeShort(c);
+            else out.writeInt(c);
+        }
+    }
+
+    private static int[] readCodes(ObjectInputStream in, int n, int dictSize) throws IOException {
+        int[] codes = new int[n];
+        for (int i = 0; i < n; i++) {
+            int c = dictSize <= 0x100 ? in.readUnsignedByte()
+                    : dictSize <= 0x10000 ? in.readUnsignedShort()
+                    : in.readInt();
+            if (c < 0 || c >= dictSize) throw new IOException("Mã từ điển không hợp lệ: " + c);
+            codes[i] = c;
+        }
+        return codes;
+    }
+
+    // Varint zigzag: số nhỏ (kể cả âm) tốn ít byte
+    private static void writeVarInt(ObjectOutputStream out, int v) throws IOException {
+        int z = (v << 1) ^ (v >> 31);
+        while ((z & ~0x7F) != 0) {
+            out.writeByte((z & 0x7F) | 0x80);
+            z >>>= 7;
+        }
+        out.writeByte(z);
+    }
+
+    private static int readVarInt(ObjectInputStream in) throws IOException {
+        int z = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            z |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return (z >>> 1) ^ -(z & 1);
+        }
+        throw new IOException("Varint quá dài");
+    }
+
+    // ============================
+    // Builder (phía server)
+    // ============================
+    public static final class Builder {
+        private int size;
+        private int[] ids;
+        private double[] diem;
+        private int[] msvCodes;
+        private int[] maMonCodes;
+        private final Dictionary msv = new Dictionary();
+        private final Dictionary maMon = new Dictionary();
+
+        public Builder(int expectedRows) {
+            int cap = Math.max(16, expectedRows);
+            ids = new int[cap];
+            diem = new double[cap];
+            msvCodes = new int[cap];
+            maMonCodes = new int[cap];
+        }
+
+        public Builder add(int id, String msvValue, String maMonValue, double diemValue) {
+            if (size == ids.length) {
+                int cap = size * 2;
+                ids = Arrays.copyOf(ids, cap);
+                diem = Arrays.copyOf(diem, cap);
+                msvCodes = Arrays.copyOf(msvCodes, cap);
+                maMonCodes = Arrays.copyOf(maMonCodes, cap);
+            }
+            ids[size] = id;
+            diem[size] = diemValue;
+            msvCodes[size] = msv.code(msvValue);
+            maMonCodes[size] = maMon.code(maMonValue);
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        // Cắt mảng về đúng số dòng để không gửi phần thừa qua mạng
+        public ScoreColumns build() {
+            return new ScoreColumns(Arrays.copyOf(ids, size), Arrays.copyOf(diem, size),
+                    Arrays.copyOf(msvCodes, size), msv.toArray(),
+                    Arrays.copyOf(maMonCodes, size), maMon.toArray());
+        }
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private String[] values = new String[16];
+
+        int code(String value) {
+            Integer c = codes.get(value);
+            if (c != null) return c;
+            int next = codes.size();
+            if (next == values.length) values = Arrays.copyOf(values, next * 2);
+            values[next] = value;
+            codes.put(value, next);
+            return next;
+        }
+
+        String[] toArray() {
+            return Arrays.copyOf(values, codes.size());
+        }
+    }
+}
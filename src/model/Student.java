@@ -1,9 +1,16 @@
 package model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.time.LocalDate;
 
-public class Student implements Serializable {
+// Externalizable: chỉ ghi giá trị các trường (ngày sinh dạng epoch-day), không ghi tên trường / object LocalDate
+public class Student implements Externalizable {
+    private static final long serialVersionUID = 1L;
+    private static final int WIRE_VERSION = 1;
+
     private String msv;        // mã sinh viên
     private String ten;        // tên sinh viên
     private LocalDate ngaySinh; // ngày sinh
@@ -74,6 +81,26 @@ public class Student implements Serializable {
         this.diemTB = diemTB;
     }
 
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(WIRE_VERSION);
+        WireFormat.writeDate(out, ngaySinh);
+        out.writeDouble(diemTB);
+        WireFormat.writeString(out, msv);
+        WireFormat.writeString(out, ten);
+        WireFormat.writeString(out, queQuan);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        WireFormat.checkVersion(in.readByte(), WIRE_VERSION, "Student");
+        ngaySinh = WireFormat.readDate(in);
+        diemTB = in.readDouble();
+        msv = WireFormat.readString(in);
+        ten = WireFormat.readString(in);
+        queQuan = WireFormat.readString(in);
+    }
+
     @Override
     public String toString() {
         return "Student{" +
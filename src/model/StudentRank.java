@@ -0,0 +1,71 @@
+package model;
+
+import java.io.Serializable;
+
+// Xếp hạng của một sinh viên theo điểm trung bình tích lũy có trọng số tín chỉ:
+// GPA = Σ(điểm × số tín chỉ) / Σ(số tín chỉ) trên các môn đã có điểm.
+// Sinh viên chưa có môn nào tính được (chưa có điểm / môn 0 tín chỉ) có rank = 0.
+public class StudentRank implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String msv;
+    private final String ten;
+    private final double gpa;
+    private final int tongTinChi;
+    private final int rank;            // thứ hạng kiểu 1, 2, 2, 4 (cùng GPA cùng hạng); 0 = chưa xếp hạng
+    private final int totalRanked;     // số sinh viên được xếp hạng
+    private final double percentile;   // % sinh viên được xếp hạng có GPA thấp hơn
+
+    public StudentRank(String msv, String ten, double gpa, int tongTinChi, int rank, int totalRanked, double percentile) {
+        this.msv = msv;
+        this.ten = ten;
+        this.gpa = gpa;
+        this.tongTinChi = tongTinChi;
+        this.rank = rank;
+        this.totalRanked = totalRanked;
+        this.percentile = percentile;
+    }
+
+    public String getMsv() {
+        return msv;
+    }
+
+    public String getTen() {
+        return ten;
+    }
+
+    public double getGpa() {
+        return gpa;
+    }
+
+    public int getTongTinChi() {
+        return tongTinChi;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public int getTotalRanked() {
+        return totalRanked;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public boolean isRanked() {
+        return rank > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentRank{" +
+                "msv='" + msv + '\'' +
+                ", gpa=" + gpa +
+                ", tongTinChi=" + tongTinChi +
+                ", rank=" + rank + "/" + totalRanked +
+                ", percentile=" + percentile +
+                '}';
+    }
+}
@@ -0,0 +1,88 @@
+package model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bảng điểm của một sinh viên: thông tin sinh viên + từng môn (tên môn, số tín chỉ, điểm),
+// lấy bằng một truy vấn và một lời gọi RMI.
+public class StudentTranscript implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Student student;
+    private final ArrayList<Entry> entries;
+
+    public StudentTranscript(Student student, List<Entry> entries) {
+        this.student = student;
+        this.entries = new ArrayList<>(entries);
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public int getTotalCredits() {
+        int total = 0;
+        for (Entry e : entries) total += e.getSoTinChi();
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentTranscript{" +
+                "msv='" + (student != null ? student.getMsv() : null) + '\'' +
+                ", entries=" + entries.size() +
+                '}';
+    }
+
+    // Một dòng điểm kèm thông tin môn học
+    public static class Entry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int scoreId;
+        private final String maMon;
+        private final String tenMon;
+        private final int soTinChi;
+        private final double diem;
+
+        public Entry(int scoreId, String maMon, String tenMon, int soTinChi, double diem) {
+            this.scoreId = scoreId;
+            this.maMon = maMon;
+            this.tenMon = tenMon;
+            this.soTinChi = soTinChi;
+            this.diem = diem;
+        }
+
+        public int getScoreId() {
+            return scoreId;
+        }
+
+        public String getMaMon() {
+            return maMon;
+        }
+
+        public String getTenMon() {
+            return tenMon;
+        }
+
+        public int getSoTinChi() {
+            return soTinChi;
+        }
+
+        public double getDiem() {
+            return diem;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "maMon='" + maMon + '\'' +
+                    ", diem=" + diem +
+                    '}';
+        }
+    }
+}
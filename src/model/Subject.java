@@ -1,14 +1,26 @@
 package model;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 
-public class Subject implements Serializable {
+public class Subject implements Externalizable {
     private static final long serialVersionUID = 1L;
+    private static final int WIRE_VERSION = 1;
+
+    // Giá trị soLuongDangKy khi server không tải số lượng đăng ký
+    public static final int ENROLLMENT_NOT_LOADED = -1;
 
     private String maMon;
     private String tenMon;
     private int soLuongDangKy;
     private int soTinChi;  // NEW FIEL
+
+    // Dùng khi giải tuần tự (Externalizable)
+    public Subject() {
+    }
+
     public Subject(String maMon, String tenMon) {
         this.maMon = maMon;
         this.tenMon = tenMon;
@@ -57,6 +69,24 @@ public class Subject implements Serializable {
         this.soTinChi = soTinChi;
     }
 
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(WIRE_VERSION);
+        out.writeInt(soTinChi);
+        out.writeInt(soLuongDangKy);
+        WireFormat.writeString(out, maMon);
+        WireFormat.writeString(out, tenMon);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        WireFormat.checkVersion(in.readByte(), WIRE_VERSION, "Subject");
+        soTinChi = in.readInt();
+        soLuongDangKy = in.readInt();
+        maMon = WireFormat.readString(in);
+        tenMon = WireFormat.readString(in);
+    }
+
     @Override
     public String toString() {
         return "Subject{" +
@@ -0,0 +1,123 @@
+package model;
+
+import java.io.Serializable;
+
+// Thống kê phân bố điểm của một môn, tính từ histogram 0.01 điểm trên thang 0–10 mà server giữ sẵn.
+// Tứ phân vị / trung vị theo nearest-rank (giá trị làm tròn 0.01); trung bình / độ lệch chuẩn
+// tính trên điểm gốc. Điểm chưa nhập (NULL) chỉ được đếm trong missingCount.
+public class SubjectStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String maMon;
+    private final String tenMon;
+    private final int soTinChi;
+    private final int count;
+    private final int missingCount;
+    private final double mean;
+    private final double stdDev;
+    private final double min;
+    private final double q1;
+    private final double median;
+    private final double q3;
+    private final double max;
+    private final double passMark;
+    private final int passCount;
+    private final int[] histogram;   // histogram[k] = số điểm trong [k, k + 1), ô cuối gồm cả 10
+
+    public SubjectStatistics(String maMon, String tenMon, int soTinChi, int count, int missingCount,
+                             double mean, double stdDev, double min, double q1, double median, double q3,
+                             double max, double passMark, int passCount, int[] histogram) {
+        this.maMon = maMon;
+        this.tenMon = tenMon;
+        this.soTinChi = soTinChi;
+        this.count = count;
+        this.missingCount = missingCount;
+        this.mean = mean;
+        this.stdDev = stdDev;
+        this.min = min;
+        this.q1 = q1;
+        this.median = median;
+        this.q3 = q3;
+        this.max = max;
+        this.passMark = passMark;
+        this.passCount = passCount;
+        this.histogram = histogram;
+    }
+
+    public String getMaMon() {
+        return maMon;
+    }
+
+    public String getTenMon() {
+        return tenMon;
+    }
+
+    public int getSoTinChi() {
+        return soTinChi;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getMissingCount() {
+        return missingCount;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getStdDev() {
+        return stdDev;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getQ1() {
+        return q1;
+    }
+
+    public double getMedian() {
+        return median;
+    }
+
+    public double getQ3() {
+        return q3;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getPassMark() {
+        return passMark;
+    }
+
+    public int getPassCount() {
+        return passCount;
+    }
+
+    // Tỉ lệ đạt (0–1) trên số điểm đã nhập
+    public double getPassRate() {
+        return count == 0 ? 0 : (double) passCount / count;
+    }
+
+    public int[] getHistogram() {
+        return histogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "SubjectStatistics{" +
+                "maMon='" + maMon + '\'' +
+                ", count=" + count +
+                ", mean=" + mean +
+                ", median=" + median +
+                ", stdDev=" + stdDev +
+                ", passRate=" + getPassRate() +
+                '}';
+    }
+}
@@ -0,0 +1,80 @@
+package model;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.time.LocalDate;
+
+// Hàm dùng chung cho định dạng truyền Externalizable của các model.
+// Các trường kiểu nguyên thủy được ghi trước, chuỗi ghi sau: mỗi lần xen kẽ writeObject với dữ liệu
+// nguyên thủy, ObjectOutputStream phải mở thêm một khối block-data (2 byte).
+// - Chuỗi ghi bằng writeObject: null chỉ 1 byte, chuỗi lặp lại (mã môn, quê quán...) trong cùng
+//   một luồng chỉ tốn 5 byte tham chiếu thay vì ghi lại nội dung.
+// - Ngày: số ngày kể từ 1970-01-01 (int), NULL_DATE nếu không có. Ngày ngoài khoảng int (khoảng
+//   ±5,8 triệu năm) hoặc trùng NULL_DATE bị từ chối khi ghi thay vì bị cắt bớt.
+// - Điểm: short = điểm * 100 nếu biểu diễn chính xác được (điểm 0..10, tối đa 2 chữ số lẻ), ngược lại double.
+final class WireFormat {
+
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+    private static final short RAW_DOUBLE = Short.MIN_VALUE;
+
+    private WireFormat() {
+    }
+
+    static void writeString(ObjectOutput out, String s) throws IOException {
+        out.writeObject(s);
+    }
+
+    static String readString(ObjectInput in) throws IOException {
+        try {
+            return (String) in.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Dữ liệu chuỗi không hợp lệ", e);
+        }
+    }
+
+    static void writeDate(ObjectOutput out, LocalDate d) throws IOException {
+        if (d == null) {
+            out.writeInt(NULL_DATE);
+            return;
+        }
+        int epochDay;
+        try {
+            epochDay = Math.toIntExact(d.toEpochDay());
+        } catch (ArithmeticException e) {
+            epochDay = NULL_DATE;
+        }
+        if (epochDay == NULL_DATE) throw new InvalidObjectException("Ngày ngoài khoảng truyền được: " + d);
+        out.writeInt(epochDay);
+    }
+
+    static LocalDate readDate(ObjectInput in) throws IOException {
+        int epochDay = in.readInt();
+        return epochDay != NULL_DATE ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    static void writeScore(ObjectOutput out, double d) throws IOException {
+        long scaled = Math.round(d * 100);
+        // So sánh theo bit để giữ nguyên cả -0.0
+        if (scaled > RAW_DOUBLE && scaled <= Short.MAX_VALUE
+                && Double.doubleToLongBits(scaled / 100.0) == Double.doubleToLongBits(d)) {
+            out.writeShort((int) scaled);
+        } else {
+            out.writeShort(RAW_DOUBLE);
+            out.writeDouble(d);
+        }
+    }
+
+    static double readScore(ObjectInput in) throws IOException {
+        short scaled = in.readShort();
+        return scaled != RAW_DOUBLE ? scaled / 100.0 : in.readDouble();
+    }
+
+    // Byte phiên bản đầu mỗi object: cho phép đổi định dạng sau này mà vẫn đọc được dữ liệu cũ
+    static void checkVersion(int version, int supported, String type) throws IOException {
+        if (version > supported) {
+            throw new IOException(type + ": định dạng v" + version + " mới hơn v" + supported + " được hỗ trợ");
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package server;
+
+import model.ScoreColumns;
+import service.ScoreService;
+import service.StudentService;
+import service.SubjectService;
+import service.impl.ScoreServiceImpl;
+import service.impl.StudentServiceImpl;
+import service.impl.SubjectServiceImpl;
+import util.CompressingSocketFactory;
+import util.DBUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.rmi.Remote;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+// Kiểm tra và đo socket nén RMI (CompressingSocketFactory) trên dữ liệu thật của student_db.sqlite.
+//   java server.CompressionBench [cổng registry, mặc định 1199]
+// 1. Zip bomb: gửi một frame deflate nhỏ nở ra vài trăm MB, bên đọc phải báo lỗi thay vì cấp phát hết.
+// 2. Đo từng lời gọi qua RMI (client và server cùng JVM, loopback) với: không nén (mọi frame gửi
+//    thường), nén mức 1 (mặc định), nén mức 6. In byte trên mạng (cả hai chiều) và thời gian tốt nhất
+//    sau khi làm nóng. Loopback không giới hạn băng thông, nên có in thêm thời gian truyền ước tính
+//    ở 100 Mbit/s để thấy lợi ích trên mạng thật.
+public class CompressionBench {
+
+    private static final double LINK_MBIT = 100;
+    private static final String[] CALLS = {"getAllScores", "getScoreColumns x20000", "getAllStudents",
+            "getAllSubjects", "findStudentById x1000"};
+
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 1199;
+        try {
+            if (!zipBombRejected()) {
+                System.out.println("!!! Zip bomb không bị chặn");
+                System.exit(2);
+            }
+            System.out.println(">>> Zip bomb: bị từ chối");
+
+            StudentServiceImpl students = new StudentServiceImpl();
+            SubjectServiceImpl subjects = new SubjectServiceImpl();
+            ScoreServiceImpl scores = new ScoreServiceImpl();
+            Registry registry = LocateRegistry.createRegistry(port);
+            String[] modes = {"không nén", "nén mức 1", "nén mức 6"};
+            CompressingSocketFactory[] factories = {
+                    new CompressingSocketFactory(Deflater.BEST_SPEED, Integer.MAX_VALUE),
+                    new CompressingSocketFactory(Deflater.BEST_SPEED, 512),
+                    new CompressingSocketFactory(6, 512)};
+            for (int m = 0; m < modes.length; m++) {
+                // Export lại các service với factory của chế độ đang đo
+                Remote[] impls = {students, subjects, scores};
+                String[] names = {"Student", "Subject", "Score"};
+                for (int i = 0; i < impls.length; i++) {
+                    UnicastRemoteObject.unexportObject(impls[i], true);
+                    registry.rebind(names[i], UnicastRemoteObject.exportObject(impls[i], 0, factories[m], factories[m]));
+                }
+                Registry remote = LocateRegistry.getRegistry("localhost", port);
+                run(modes[m], (StudentService) remote.lookup("Student"), (SubjectService) remote.lookup("Subject"),
+                        (ScoreService) remote.lookup("Score"));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        } finally {
+            DBUtil.shutdown();
+        }
+        System.exit(0);
+    }
+
+    private static void run(String mode, StudentService st, SubjectService su, ScoreService sc) throws Exception {
+        String msv = st.getAllStudents().get(0).getMsv();
+        long[] best = new long[CALLS.length];
+        long[] bytes = new long[CALLS.length];
+        Arrays.fill(best, Long.MAX_VALUE);
+        for (int round = 0; round < 4; round++) {
+            for (int k = 0; k < CALLS.length; k++) {
+                long wire = CompressingSocketFactory.wireBytes();
+                long start = System.nanoTime();
+                switch (k) {
+                    case 0:
+                        sc.getAllScores();
+                        break;
+                    case 1: {
+                        int after = 0;
+                        ScoreColumns c;
+                        while (!(c = sc.getScoreColumns(after, 20_000)).isEmpty()) after = c.getLastId();
+                        break;
+                    }
+                    case 2:
+                        st.getAllStudents();
+                        break;
+                    case 3:
+                        su.getAllSubjects();
+                        break;
+                    default:
+                        for (int i = 0; i < 1000; i++) st.findStudentById(msv);
+                }
+                best[k] = Math.min(best[k], System.nanoTime() - start);
+                bytes[k] = CompressingSocketFactory.wireBytes() - wire;
+            }
+        }
+        System.out.println(">>> " + mode);
+        for (int k = 0; k < CALLS.length; k++) {
+            double linkMs = bytes[k] * 8 / (LINK_MBIT * 1000);
+            System.out.printf(">>>   %-24s %9.1f ms  %,14d byte  (~%.0f ms ở %.0f Mbit/s)%n",
+                    CALLS[k], best[k] / 1e6, bytes[k], linkMs, LINK_MBIT);
+        }
+    }
+
+    // Frame DEFLATE ~200 KB nở ra 256 MB số 0, lớn hơn giới hạn frame của bên đọc
+    private static boolean zipBombRejected() throws Exception {
+        CompressingSocketFactory factory = new CompressingSocketFactory(Deflater.BEST_SPEED, 512);
+        try (ServerSocket server = factory.createServerSocket(0)) {
+            Thread sender = new Thread(() -> {
+                try (Socket raw = new Socket("localhost", server.getLocalPort())) {
+                    OutputStream out = raw.getOutputStream();
+                    byte[] bomb = deflatedZeros(256 * 1024 * 1024);
+                    out.write(new byte[]{1, (byte) (bomb.length >>> 24), (byte) (bomb.length >>> 16),
+                            (byte) (bomb.length >>> 8), (byte) bomb.length});
+                    out.write(bomb);
+                    out.flush();
+                    raw.getInputStream().read(); // chờ bên kia đóng
+                } catch (IOException ignored) {
+                }
+            });
+            sender.start();
+            try (Socket socket = server.accept()) {
+                InputStream in = socket.getInputStream();
+                in.read();
+                return false;
+            } catch (IOException e) {
+                return e.getMessage() != null && e.getMessage().contains("giải nén");
+            } finally {
+                sender.join(5000);
+            }
+        }
+    }
+
+    private static byte[] deflatedZeros(int size) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        byte[] zeros = new byte[1024 * 1024];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[64 * 1024];
+        for (int written = 0; written < size; written += zeros.length) {
+            deflater.setInput(zeros);
+            while (!deflater.needsInput()) out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        int n;
+        do {
+            n = deflater.deflate(chunk, 0, chunk.length, Deflater.SYNC_FLUSH);
+            out.write(chunk, 0, n);
+        } while (n == chunk.length);
+        deflater.end();
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,50 @@
+package server;
+
+import model.ImportKind;
+import model.ImportProgress;
+import service.impl.ImportServiceImpl;
+import util.DBUtil;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Nhập CSV trực tiếp trên máy server (file lớn, không qua RMI)
+//   java server.CsvImportMain student|subject|score <file.csv>
+public class CsvImportMain {
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.out.println("Cách dùng: CsvImportMain student|subject|score <file.csv>");
+            System.exit(1);
+        }
+        int exit = 0;
+        try (Reader reader = Files.newBufferedReader(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+            ImportKind kind = ImportKind.valueOf(args[0].toUpperCase());
+            ImportServiceImpl importer = new ImportServiceImpl();
+            String id = importer.startImport(kind);
+
+            CharBuffer buf = CharBuffer.allocate(64 * 1024);
+            long lastReport = 0;
+            while (reader.read(buf) != -1) {
+                buf.flip();
+                ImportProgress p = importer.sendChunk(id, buf.toString());
+                buf.clear();
+                if (p.getRowsRead() - lastReport >= 10_000) {
+                    lastReport = p.getRowsRead();
+                    System.out.println(">>> " + p);
+                }
+            }
+            ImportProgress p = importer.finishImport(id);
+            System.out.println(">>> Hoàn tất: " + p);
+            p.getRejectedSamples().forEach(line -> System.out.println("    " + line));
+        } catch (Exception e) {
+            e.printStackTrace();
+            exit = 1;
+        } finally {
+            DBUtil.shutdown();
+        }
+        System.exit(exit);
+    }
+}
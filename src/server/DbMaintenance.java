@@ -0,0 +1,50 @@
+package server;
+
+import util.AggregateMaintenance;
+import util.DBUtil;
+import util.StudentSearchIndex;
+
+import java.sql.Connection;
+
+// Công cụ khôi phục số liệu tổng hợp (chạy khi server đã dừng hoặc đang chạy đều được)
+//   java server.DbMaintenance verify   -> kiểm tra điểm TB và số lượng đăng ký lưu sẵn
+//   java server.DbMaintenance rebuild  -> tính lại toàn bộ từ bảng Score, dựng lại chỉ mục tìm kiếm
+public class DbMaintenance {
+    public static void main(String[] args) {
+        String cmd = args.length > 0 ? args[0] : "verify";
+        try (Connection conn = DBUtil.getWriteConnection()) {
+            switch (cmd) {
+                case "verify": {
+                    int bad = AggregateMaintenance.verifyStudentAggregates(conn)
+                            + AggregateMaintenance.verifySubjectAggregates(conn);
+                    if (!StudentSearchIndex.inSync(conn)) {
+                        bad++;
+                        System.out.println("!!! Chỉ mục tìm kiếm sinh viên không khớp với bảng Student");
+                    }
+                    System.out.println(bad == 0
+                            ? ">>> Số liệu tổng hợp khớp với bảng Score."
+                            : ">>> Có " + bad + " dòng lệch số liệu, hãy chạy 'rebuild'.");
+                    if (bad != 0) System.exit(2);
+                    break;
+                }
+                case "rebuild": {
+                    conn.setAutoCommit(false);
+                    int n = AggregateMaintenance.rebuildStudentAggregates(conn);
+                    int m = AggregateMaintenance.rebuildSubjectAggregates(conn);
+                    StudentSearchIndex.rebuild(conn);
+                    conn.commit();
+                    System.out.println(">>> Đã tính lại điểm TB cho " + n + " sinh viên, số lượng đăng ký cho " + m + " môn học, dựng lại chỉ mục tìm kiếm.");
+                    break;
+                }
+                default:
+                    System.out.println("Cách dùng: DbMaintenance verify|rebuild");
+                    System.exit(1);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        } finally {
+            DBUtil.shutdown();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package server;
+
+import service.impl.SubjectServiceImpl;
+import util.ConnectionPool;
+import util.DBUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Đo tải getAllSubjects đồng thời trên pool đọc (gọi thẳng service impl trong cùng JVM, không qua RMI,
+// để số liệu pool in ra đúng là của các lần gọi này).
+//   java server.PoolStress [số client, ngăn cách bằng dấu phẩy] [số giây mỗi mức]
+//   vd. java -Ddb.readPool.size=4 server.PoolStress 1,2,4,8,16 3
+// Mỗi mức in số lần gọi / giây, độ trễ trung bình / lớn nhất, số lỗi; cuối cùng in số liệu các pool.
+public class PoolStress {
+    public static void main(String[] args) {
+        String levels = args.length > 0 ? args[0] : "1,2,4,8";
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        try {
+            SubjectServiceImpl service = new SubjectServiceImpl();
+            service.getAllSubjects(); // mở sẵn kết nối đầu tiên, nạp class
+            for (ConnectionPool.Stats st : DBUtil.getPoolStats()) {
+                if (st.getName().equals("read")) {
+                    System.out.println(">>> Pool đọc: " + st.getMaxSize() + " kết nối, "
+                            + Runtime.getRuntime().availableProcessors() + " CPU");
+                }
+            }
+            for (String level : levels.split(",")) {
+                run(service, Integer.parseInt(level.trim()), seconds);
+            }
+            for (ConnectionPool.Stats st : DBUtil.getPoolStats()) {
+                System.out.println(">>> " + st);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        } finally {
+            DBUtil.shutdown();
+        }
+        System.exit(0);
+    }
+
+    private static void run(SubjectServiceImpl service, int clients, int seconds) throws Exception {
+        LongAdder calls = new LongAdder();
+        LongAdder errors = new LongAdder();
+        LongAdder totalNanos = new LongAdder();
+        long[] maxNanos = new long[clients];
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int id = c;
+            futures.add(pool.submit(() -> {
+                while (System.nanoTime() < end) {
+                    long start = System.nanoTime();
+                    try {
+                        service.getAllSubjects();
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                    long nanos = System.nanoTime() - start;
+                    calls.increment();
+                    totalNanos.add(nanos);
+                    maxNanos[id] = Math.max(maxNanos[id], nanos);
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        long n = calls.sum();
+        long max = 0;
+        for (long m : maxNanos) max = Math.max(max, m);
+        System.out.printf(">>> %2d client: %8d lần gọi/s, trung bình %6d us, max %6d us, %d lỗi%n",
+                clients, n / seconds, n == 0 ? 0 : totalNanos.sum() / n / 1000, max / 1000, errors.sum());
+    }
+}
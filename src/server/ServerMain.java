@@ -1,11 +1,19 @@
 package server;
 
+import service.ImportService;
 import service.StudentService;
 import service.SubjectService;
 import service.ScoreService;
+import service.impl.ImportServiceImpl;
+import service.impl.ReadModel;
 import service.impl.StudentServiceImpl;
 import service.impl.SubjectServiceImpl;
 import service.impl.ScoreServiceImpl;
+import service.impl.ServiceDispatcher;
+import util.ChangeLog;
+import util.CompressingSocketFactory;
+import util.DBUtil;
+import util.WalCheckpointer;
 
 import java.rmi.Naming;
 import java.rmi.registry.LocateRegistry;
@@ -13,19 +21,47 @@ import java.rmi.registry.LocateRegistry;
 public class ServerMain {
     public static void main(String[] args) {
         try {
+            // Đặt trước khi RMI mở kết nối nào: client treo trong callback không giữ luồng server mãi
+            ServiceDispatcher.configureCallbackTimeout();
+
             // Khởi động RMI Registry tại cổng 1099
             LocateRegistry.createRegistry(1099);
             System.out.println(">>> RMI Registry đã khởi động tại cổng 1099.");
 
-            // Khởi tạo các service
-            StudentService studentService =(StudentService) new StudentServiceImpl();
-            SubjectService subjectService = (SubjectService) new SubjectServiceImpl();
-            ScoreService scoreService = (ScoreService) new ScoreServiceImpl();
+            // Khởi tạo các service; client gọi qua lớp điều phối (giới hạn số lời gọi đồng thời)
+            StudentService studentService = ServiceDispatcher.export(StudentService.class, new StudentServiceImpl());
+            SubjectService subjectService = ServiceDispatcher.export(SubjectService.class, new SubjectServiceImpl());
+            ScoreService scoreService = ServiceDispatcher.export(ScoreService.class, new ScoreServiceImpl());
+            ImportService importService = ServiceDispatcher.export(ImportService.class, new ImportServiceImpl());
+
+            // Mô hình đọc trong bộ nhớ (-Dreadmodel.enabled=true), nạp trước khi nhận yêu cầu
+            ReadModel.startIfEnabled();
+            ServiceDispatcher.warmUpAnalytics();
 
             // Bind các service vào Registry
             Naming.bind("rmi://localhost:1099/StudentService", studentService);
             Naming.bind("rmi://localhost:1099/SubjectService", subjectService);
             Naming.bind("rmi://localhost:1099/ScoreService", scoreService);
+            Naming.bind("rmi://localhost:1099/ImportService", importService);
+
+            // Dọn nhật ký thay đổi cũ (client đồng bộ delta qua getChangesSince)
+            ChangeLog.startPruning();
+            // Checkpoint WAL theo chính sách -Ddb.wal.* (xem WalCheckpointer)
+            DBUtil.startCheckpointing();
+            ServiceDispatcher.startStatsLogging();
+
+            // Đóng pool kết nối khi tắt server
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                DBUtil.getPoolStats().forEach(st -> System.out.println(">>> " + st));
+                ServiceDispatcher.getGateStats().forEach(st -> System.out.println(">>> " + st));
+                System.out.println(">>> " + ServiceDispatcher.writeQueueSummary());
+                System.out.println(">>> " + ReadModel.statsSummary());
+                System.out.println(">>> " + WalCheckpointer.statsSummary());
+                if (CompressingSocketFactory.getDefault() != null) {
+                    System.out.println(">>> " + CompressingSocketFactory.statsSummary());
+                }
+                DBUtil.shutdown();
+            }));
 
         } catch (Exception e) {
             e.printStackTrace();
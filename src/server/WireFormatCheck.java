@@ -0,0 +1,246 @@
+package server;
+
+import model.Score;
+import model.Student;
+import model.Subject;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+// Kiểm tra định dạng truyền Externalizable của Student / Subject / Score và đo kích thước payload.
+//   java server.WireFormatCheck           -> kiểm tra round-trip (thoát mã 2 nếu sai) rồi đo
+//   java server.WireFormatCheck check     -> chỉ kiểm tra
+// Phần đo so với serialization mặc định của các lớp Legacy* bên dưới (cùng trường với model cũ);
+// tên lớp của chúng dài hơn nên mỗi luồng tốn thêm vài chục byte mô tả lớp, không đáng kể với danh sách.
+public class WireFormatCheck {
+
+    private static final int ROWS = 1000;
+    private static int failures;
+
+    public static void main(String[] args) {
+        try {
+            check();
+            System.out.println(failures == 0 ? ">>> Round-trip: OK" : ">>> Round-trip: " + failures + " lỗi");
+            if (failures != 0) System.exit(2);
+            if (args.length == 0 || !args[0].equals("check")) bench();
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    // ============================
+    // Round-trip
+    // ============================
+    private static void check() throws Exception {
+        Random rnd = new Random(7);
+        for (int i = 0; i < ROWS; i++) {
+            Student s = student(i, rnd);
+            expectStudent(s, roundTrip(s));
+            Score sc = score(i, rnd);
+            expectScore(sc, roundTrip(sc));
+        }
+        // Danh sách: chuỗi lặp lại thành tham chiếu ngược, vẫn phải đọc lại đúng
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) students.add(student(i, rnd));
+        List<Student> back = roundTrip(new ArrayList<>(students));
+        for (int i = 0; i < ROWS; i++) expectStudent(students.get(i), back.get(i));
+
+        // Trường null / giá trị biên
+        expectStudent(new Student(null, null, null, null, 0), roundTrip(new Student(null, null, null, null, 0)));
+        for (LocalDate d : new LocalDate[]{LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31),
+                LocalDate.ofEpochDay(Integer.MAX_VALUE), LocalDate.ofEpochDay(Integer.MIN_VALUE + 1L)}) {
+            Student s = new Student("SV1", "A", d, "HN", 5);
+            expectStudent(s, roundTrip(s));
+        }
+        // Ngày không biểu diễn được phải bị từ chối, không được cắt bớt thành ngày khác / null
+        for (LocalDate d : new LocalDate[]{LocalDate.MIN, LocalDate.MAX, LocalDate.ofEpochDay(Integer.MIN_VALUE),
+                LocalDate.ofEpochDay(Integer.MAX_VALUE + 1L)}) {
+            try {
+                Student s = roundTrip(new Student("SV1", "A", d, "HN", 5));
+                fail("ngày " + d + " không bị từ chối, đọc lại thành " + s.getNgaySinh());
+            } catch (InvalidObjectException expected) {
+                // đúng
+            }
+        }
+        for (double d : new double[]{-0.0, 0.0, 7.25, 7.1, 10, 1e-9, 327.67, 327.68, -327.67, -327.68,
+                Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0.1 + 0.2}) {
+            Score sc = new Score(5, "SV1", "MH1", d);
+            expectScore(sc, roundTrip(sc));
+            Student s = new Student("SV1", "A", null, null, d);
+            expectStudent(s, roundTrip(s));
+        }
+        for (Subject sub : new Subject[]{new Subject("MH1", "Lập trình mạng", 3, 120),
+                new Subject("MH2", "Thực tập", 0, Subject.ENROLLMENT_NOT_LOADED),
+                new Subject(null, null, Integer.MIN_VALUE, Integer.MAX_VALUE)}) {
+            Subject b = roundTrip(sub);
+            if (!Objects.equals(sub.getMaMon(), b.getMaMon()) || !Objects.equals(sub.getTenMon(), b.getTenMon())
+                    || sub.getSoTinChi() != b.getSoTinChi() || sub.getSoLuongDangKy() != b.getSoLuongDangKy()) {
+                fail(sub + " -> " + b);
+            }
+        }
+    }
+
+    private static void expectStudent(Student a, Student b) {
+        if (!Objects.equals(a.getMsv(), b.getMsv()) || !Objects.equals(a.getTen(), b.getTen())
+                || !Objects.equals(a.getNgaySinh(), b.getNgaySinh()) || !Objects.equals(a.getQueQuan(), b.getQueQuan())
+                || Double.doubleToLongBits(a.getDiemTB()) != Double.doubleToLongBits(b.getDiemTB())) {
+            fail(a + " -> " + b);
+        }
+    }
+
+    private static void expectScore(Score a, Score b) {
+        if (a.getId() != b.getId() || !Objects.equals(a.getMsv(), b.getMsv()) || !Objects.equals(a.getMaMon(), b.getMaMon())
+                || Double.doubleToLongBits(a.getDiem()) != Double.doubleToLongBits(b.getDiem())) {
+            fail(a + " -> " + b);
+        }
+    }
+
+    private static void fail(String message) {
+        failures++;
+        System.out.println("!!! " + message);
+    }
+
+    // ============================
+    // Đo kích thước / thời gian
+    // ============================
+    private static void bench() throws Exception {
+        Random rnd = new Random(7);
+        ArrayList<Object> students = new ArrayList<>(), scores = new ArrayList<>(), subjects = new ArrayList<>();
+        ArrayList<Object> oldStudents = new ArrayList<>(), oldScores = new ArrayList<>(), oldSubjects = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Student s = student(i, rnd);
+            students.add(s);
+            oldStudents.add(new LegacyStudent(s));
+            Score sc = score(i, rnd);
+            scores.add(sc);
+            oldScores.add(new LegacyScore(sc));
+            if (i < 100) {
+                Subject sub = new Subject("MH" + i, "Lập trình mạng " + i, i % 5, i * 3);
+                subjects.add(sub);
+                oldSubjects.add(new LegacySubject(sub));
+            }
+        }
+        System.out.println(">>> Kích thước (byte)          cũ      mới");
+        row("1 Student", oldStudents.get(0), students.get(0));
+        row("1 Subject", oldSubjects.get(0), subjects.get(0));
+        row("1 Score", oldScores.get(0), scores.get(0));
+        row(ROWS + " Student", oldStudents, students);
+        row("100 Subject", oldSubjects, subjects);
+        row(ROWS + " Score", oldScores, scores);
+
+        // Ghi + đọc lại danh sách 1000 Student và 1000 Score, lượt đầu để JIT làm nóng
+        for (int round = 0; round < 2; round++) {
+            long oldNanos = time(oldStudents, oldScores);
+            long newNanos = time(students, scores);
+            if (round == 1) {
+                System.out.println(">>> Ghi + đọc " + ROWS + " Student + " + ROWS + " Score: cũ "
+                        + oldNanos / 1000 + " us, mới " + newNanos / 1000 + " us");
+            }
+        }
+    }
+
+    private static void row(String label, Object old, Object now) throws Exception {
+        System.out.printf(">>>   %-20s %8d %8d%n", label, serialize(old).length, serialize(now).length);
+    }
+
+    private static long time(Object a, Object b) throws Exception {
+        int reps = 50;
+        long start = System.nanoTime();
+        for (int k = 0; k < reps; k++) {
+            deserialize(serialize(a));
+            deserialize(serialize(b));
+        }
+        return (System.nanoTime() - start) / reps;
+    }
+
+    // ============================
+    // Tiện ích
+    // ============================
+    private static Student student(int i, Random rnd) {
+        String[] names = {"Nguyễn Văn Đạt", "Trần Thị Hương", "Lê Quỳnh"};
+        return new Student(String.format("SV%05d", i), names[i % 3],
+                i % 10 == 0 ? null : LocalDate.of(2000, 1, 1).plusDays(rnd.nextInt(2000)),
+                i % 7 == 0 ? null : "Hà Nội", rnd.nextDouble() * 10);
+    }
+
+    private static Score score(int i, Random rnd) {
+        return new Score(i + 1, String.format("SV%05d", i), "MH00" + (i % 3 + 1), Math.round(rnd.nextDouble() * 100) / 10.0);
+    }
+
+    private static byte[] serialize(Object o) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(o);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] b) throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(b))) {
+            return in.readObject();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T o) throws Exception {
+        return (T) deserialize(serialize(o));
+    }
+
+    // Cùng trường với model trước khi chuyển sang Externalizable (serialization mặc định)
+    private static final class LegacyStudent implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String msv;
+        private final String ten;
+        private final LocalDate ngaySinh;
+        private final String queQuan;
+        private final double diemTB;
+
+        LegacyStudent(Student s) {
+            msv = s.getMsv();
+            ten = s.getTen();
+            ngaySinh = s.getNgaySinh();
+            queQuan = s.getQueQuan();
+            diemTB = s.getDiemTB();
+        }
+    }
+
+    private static final class LegacySubject implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String maMon;
+        private final String tenMon;
+        private final int soLuongDangKy;
+        private final int soTinChi;
+
+        LegacySubject(Subject s) {
+            maMon = s.getMaMon();
+            tenMon = s.getTenMon();
+            soLuongDangKy = s.getSoLuongDangKy();
+            soTinChi = s.getSoTinChi();
+        }
+    }
+
+    private static final class LegacyScore implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final int id;
+        private final String msv;
+        private final String maMon;
+        private final double diem;
+
+        LegacyScore(Score s) {
+            id = s.getId();
+            msv = s.getMsv();
+            maMon = s.getMaMon();
+            diem = s.getDiem();
+        }
+    }
+}
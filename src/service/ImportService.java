@@ -0,0 +1,19 @@
+package service;
+
+import model.ImportKind;
+import model.ImportProgress;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+
+// Nhập CSV theo luồng: client gửi file thành nhiều đoạn văn bản nhỏ,
+// server phân tích, kiểm tra và commit theo từng khối mà không giữ cả file trong bộ nhớ.
+public interface ImportService extends Remote {
+    String startImport(ImportKind kind) throws RemoteException;
+
+    ImportProgress sendChunk(String importId, String text) throws RemoteException;
+
+    ImportProgress finishImport(String importId) throws RemoteException;
+
+    void abortImport(String importId) throws RemoteException;
+}
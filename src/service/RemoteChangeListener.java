@@ -0,0 +1,12 @@
+package service;
+
+import model.ChangeNotice;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+
+// Callback phía client: server báo có thay đổi mới (đã gộp), client tự lấy delta bằng getChangesSince.
+// Cài đặt phải trả về nhanh; client xử lý chậm hoặc không phản hồi sẽ bị server hủy đăng ký.
+public interface RemoteChangeListener extends Remote {
+    void changesAvailable(ChangeNotice notice) throws RemoteException;
+}
@@ -0,0 +1,15 @@
+package service;
+
+import java.io.Serializable;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.util.List;
+
+// Con trỏ từ xa: client lấy dữ liệu theo từng khối cố định thay vì nhận cả bảng trong một lần gọi.
+// Server tự đóng con trỏ nếu client không gọi next() trong một khoảng thời gian.
+public interface RemoteCursor<T extends Serializable> extends Remote {
+    // Khối tiếp theo; danh sách rỗng nghĩa là đã hết dữ liệu (con trỏ tự đóng)
+    List<T> next() throws RemoteException;
+
+    void close() throws RemoteException;
+}
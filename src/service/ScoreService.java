@@ -1,6 +1,11 @@
 package service;
 
+import model.BatchResult;
+import model.ChangeSet;
+import model.Page;
+import model.PageRequest;
 import model.Score;
+import model.ScoreColumns;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
@@ -9,6 +14,14 @@ import java.util.List;
 public interface ScoreService extends Remote {
     List<Score> getAllScores() throws RemoteException;
 
+    Page<Score> getScoresPage(PageRequest request) throws RemoteException;
+
+    // Đọc toàn bộ bảng điểm theo từng khối chunkSize dòng (thứ tự id)
+    RemoteCursor<Score> openScoreCursor(int chunkSize) throws RemoteException;
+
+    // Đọc hàng loạt dạng cột: tối đa limit dòng có id > afterId (thứ tự id); khối rỗng = hết dữ liệu
+    ScoreColumns getScoreColumns(int afterId, int limit) throws RemoteException;
+
     Score findScoreById(int id) throws RemoteException;
 
     void addScore(Score score) throws RemoteException;
@@ -16,4 +29,19 @@ public interface ScoreService extends Remote {
     void updateScore(Score score) throws RemoteException;
 
     void deleteScore(int id) throws RemoteException;
+
+    // Ghi hàng loạt: một batch trong một giao dịch, trả về kết quả từng dòng
+    BatchResult addScores(List<Score> scores) throws RemoteException;
+
+    BatchResult updateScores(List<Score> scores) throws RemoteException;
+
+    BatchResult deleteScores(int[] ids) throws RemoteException;
+
+    // Thay đổi kể từ phiên bản version (version < 0: chỉ lấy phiên bản hiện tại, reset = true)
+    ChangeSet<Score, Integer> getChangesSince(long version) throws RemoteException;
+
+    // Nhận thông báo (đã gộp, gửi bất đồng bộ) mỗi khi bảng thay đổi; listener chậm / chết sẽ bị hủy đăng ký
+    void registerListener(RemoteChangeListener listener) throws RemoteException;
+
+    void unregisterListener(RemoteChangeListener listener) throws RemoteException;
 }
@@ -1,6 +1,13 @@
 package service;
 
+import model.BatchResult;
+import model.LeaderboardEntry;
+import model.ChangeSet;
+import model.Page;
+import model.PageRequest;
 import model.Student;
+import model.StudentRank;
+import model.StudentTranscript;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
@@ -8,8 +15,26 @@ import java.util.List;
 
 public interface StudentService extends Remote {
     List<Student> getAllStudents() throws RemoteException;
+    Page<Student> getStudentsPage(PageRequest request) throws RemoteException;
+    RemoteCursor<Student> openStudentCursor(int chunkSize) throws RemoteException;
     Student findStudentById(String msv) throws RemoteException;
+    List<Student> searchStudents(String query, int limit) throws RemoteException;
+    // Sinh viên + toàn bộ điểm kèm tên môn / số tín chỉ trong một lần gọi; null nếu không có sinh viên
+    StudentTranscript getStudentTranscript(String msv) throws RemoteException;
+    // Bảng xếp hạng GPA có trọng số tín chỉ (hạng 1 trước), bỏ qua offset sinh viên đầu
+    List<StudentRank> getRanking(int offset, int limit) throws RemoteException;
+    // Hạng / GPA / phân vị của một sinh viên; null nếu không có sinh viên
+    StudentRank getStudentRank(String msv) throws RemoteException;
+    // Top k sinh viên (k tối đa -Dleaderboard.maxK, mặc định 100) của môn maMon theo điểm, hoặc toàn
+    // trường theo GPA khi maMon null / rỗng; sâu hơn thì dùng getRanking
+    List<LeaderboardEntry> getTopStudents(String maMon, int k) throws RemoteException;
     void addStudent(Student student) throws RemoteException;
     void updateStudent(Student student) throws RemoteException;
     void deleteStudent(String msv) throws RemoteException;
+    BatchResult addStudents(List<Student> students) throws RemoteException;
+    // Thay đổi kể từ phiên bản version (version < 0: chỉ lấy phiên bản hiện tại, reset = true)
+    ChangeSet<Student, String> getChangesSince(long version) throws RemoteException;
+    // Nhận thông báo (đã gộp, gửi bất đồng bộ) mỗi khi bảng thay đổi; listener chậm / chết sẽ bị hủy đăng ký
+    void registerListener(RemoteChangeListener listener) throws RemoteException;
+    void unregisterListener(RemoteChangeListener listener) throws RemoteException;
 }
@@ -1,6 +1,10 @@
 package service;
 
+import model.ChangeSet;
+import model.Page;
+import model.PageRequest;
 import model.Subject;
+import model.SubjectStatistics;
 import java.rmi.Remote;
 import java.rmi.RemoteException;
 import java.util.List;
@@ -8,11 +12,32 @@ import java.util.List;
 public interface SubjectService extends Remote {
     List<Subject> getAllSubjects() throws RemoteException;
 
+    Page<Subject> getSubjectsPage(PageRequest request) throws RemoteException;
+
     Subject findSubjectById(String maMon) throws RemoteException;
 
+    // withEnrollment = false: bỏ qua số lượng đăng ký (soLuongDangKy = -1), lấy sau bằng getEnrollmentCount
+    Subject findSubjectById(String maMon, boolean withEnrollment) throws RemoteException;
+
+    int getEnrollmentCount(String maMon) throws RemoteException;
+
+    // Phân bố điểm của môn (trung bình, trung vị, độ lệch chuẩn, tỉ lệ đạt, histogram); null nếu không có môn
+    SubjectStatistics getSubjectStatistics(String maMon) throws RemoteException;
+
+    // Thống kê của mọi môn, theo mã môn
+    List<SubjectStatistics> getAllSubjectStatistics() throws RemoteException;
+
     void addSubject(Subject subject) throws RemoteException;
 
     void updateSubject(Subject subject) throws RemoteException;
 
     void deleteSubject(String maMon) throws RemoteException;
+
+    // Thay đổi kể từ phiên bản version (version < 0: chỉ lấy phiên bản hiện tại, reset = true)
+    ChangeSet<Subject, String> getChangesSince(long version) throws RemoteException;
+
+    // Nhận thông báo (đã gộp, gửi bất đồng bộ) mỗi khi bảng thay đổi; listener chậm / chết sẽ bị hủy đăng ký
+    void registerListener(RemoteChangeListener listener) throws RemoteException;
+
+    void unregisterListener(RemoteChangeListener listener) throws RemoteException;
 }
@@ -0,0 +1,68 @@
+package service.impl;
+
+import model.BatchResult;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+// Chạy một câu lệnh cho nhiều dòng bằng JDBC batch trong một giao dịch duy nhất (của hàng đợi ghi).
+// Nếu batch lỗi (vd. trùng khóa), rollback về savepoint rồi chạy lại từng dòng trong cùng giao dịch
+// để biết chính xác dòng nào lỗi; các dòng hợp lệ vẫn được commit.
+final class BatchExecutor {
+
+    interface Validator<T> {
+        String validate(T item);    // null = hợp lệ
+    }
+
+    interface Binder<T> {
+        void bind(PreparedStatement ps, T item) throws SQLException;
+    }
+
+    private BatchExecutor() {
+    }
+
+    static <T> BatchResult run(String sql, List<T> items, Validator<T> validator, Binder<T> binder,
+                               String notFoundMessage) throws SQLException {
+        BatchResult result = new BatchResult(items.size());
+        List<Integer> valid = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            String error = item == null ? "Dòng rỗng" : validator.validate(item);
+            if (error != null) result.fail(i, error);
+            else valid.add(i);
+        }
+        if (valid.isEmpty()) return result;
+
+        // Chạy trong giao dịch của hàng đợi ghi: savepoint riêng để lỗi batch chỉ hoàn tác phần của batch
+        return WriteQueue.get().execute(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                Savepoint sp = conn.setSavepoint();
+                try {
+                    for (int i : valid) {
+                        binder.bind(ps, items.get(i));
+                        ps.addBatch();
+                    }
+                    int[] counts = ps.executeBatch();
+                    for (int k = 0; k < counts.length; k++) {
+                        if (counts[k] == 0 && notFoundMessage != null) result.fail(valid.get(k), notFoundMessage);
+                    }
+                } catch (SQLException batchError) {
+                    conn.rollback(sp);
+                    ps.clearBatch();
+                    for (int i : valid) {
+                        try {
+                            binder.bind(ps, items.get(i));
+                            if (ps.executeUpdate() == 0 && notFoundMessage != null) result.fail(i, notFoundMessage);
+                        } catch (SQLException rowError) {
+                            result.fail(i, rowError.getMessage());
+                        }
+                    }
+                }
+                conn.releaseSavepoint(sp);
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,258 @@
+package service.impl;
+
+import model.ChangeNotice;
+import service.RemoteChangeListener;
+import util.ChangeLog;
+import util.DBUtil;
+
+import java.net.SocketTimeoutException;
+import java.rmi.ConnectException;
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+// Đẩy thông báo thay đổi tới client đã đăng ký RemoteChangeListener.
+// Một luồng nền đọc phiên bản mới nhất của ChangeLog theo chu kỳ (nên bắt được mọi đường ghi,
+// kể cả nhập CSV và cascade) — luồng ghi không bao giờ phải chờ client.
+// Mỗi client có tối đa một lời gọi đang gửi; thay đổi đến trong lúc đó được gộp thành một
+// thông báo mang phiên bản mới nhất. Client gọi lỗi nhiều lần liên tiếp, đã chết (NoSuchObject /
+// Connect) hoặc giữ một lời gọi quá lâu sẽ bị hủy đăng ký.
+// Lời gọi callback có hạn chờ phản hồi (notify.callbackTimeoutMs, qua sun.rmi.transport.tcp.responseTimeout):
+// client treo trong changesAvailable làm lời gọi hết hạn, luồng gửi được trả lại và client bị hủy đăng ký.
+final class ChangeNotifier {
+
+    private static final long POLL_MS = Long.getLong("notify.pollMs", 250L);
+    private static final long SLOW_CLIENT_MS = Long.getLong("notify.slowClientMs", 5_000L);
+    private static final int MAX_FAILURES = Integer.getInteger("notify.maxFailures", 3);
+    private static final long CALLBACK_TIMEOUT_MS = Long.getLong("notify.callbackTimeoutMs", SLOW_CLIENT_MS);
+    private static final String RMI_RESPONSE_TIMEOUT = "sun.rmi.transport.tcp.responseTimeout";
+
+    private static final ChangeNotifier INSTANCE = new ChangeNotifier();
+
+    private final Map<RemoteChangeListener, Subscriber> subscribers = new ConcurrentHashMap<>();
+    // Mỗi subscriber chỉ có một lời gọi đang chạy nên số luồng <= số client; luồng kẹt với client
+    // chết không chặn client khác
+    private final ExecutorService senders = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "change-notify-sender");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Object wakeup = new Object();
+    private Thread dispatcher;
+    private long lastVersion = -1;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    private ChangeNotifier() {
+    }
+
+    static ChangeNotifier get() {
+        return INSTANCE;
+    }
+
+    // RMI đọc thuộc tính này một lần khi mở kết nối đi ra đầu tiên, nên phải gọi trước mọi lời gọi RMI.
+    // Áp dụng cho mọi lời gọi RMI từ JVM server; ngoài callback chỉ có bind vào registry và DGC, đều ngắn.
+    static void configureCallbackTimeout() {
+        if (System.getProperty(RMI_RESPONSE_TIMEOUT) == null && CALLBACK_TIMEOUT_MS > 0) {
+            System.setProperty(RMI_RESPONSE_TIMEOUT, Long.toString(CALLBACK_TIMEOUT_MS));
+        }
+    }
+
+    void register(String entity, RemoteChangeListener listener) throws RemoteException {
+        if (listener == null) throw new RemoteException("Listener không được null");
+        subscribers.put(listener, new Subscriber(entity, listener));
+        ensureStarted();
+    }
+
+    void unregister(RemoteChangeListener listener) {
+        if (listener != null) subscribers.remove(listener);
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    String statsSummary() {
+        return "Thông báo thay đổi: " + subscribers.size() + " client, đã gửi " + sent.sum()
+                + ", gộp " + coalesced.sum() + ", hủy đăng ký " + evicted.sum();
+    }
+
+    // ============================
+    // Luồng phát
+    // ============================
+    private synchronized void ensureStarted() {
+        if (dispatcher != null) return;
+        dispatcher = new Thread(this::runDispatcher, "change-notify-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    private void runDispatcher() {
+        while (true) {
+            try {
+                synchronized (wakeup) {
+                    wakeup.wait(POLL_MS);
+                }
+                poll();
+                long now = System.currentTimeMillis();
+                for (Subscriber s : subscribers.values()) {
+                    if (s.isStuck(now)) {
+                        evict(s, "không phản hồi sau " + SLOW_CLIENT_MS + " ms");
+                    } else {
+                        s.trySend();
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                System.err.println("!!! Lỗi luồng thông báo thay đổi: " + e.getMessage());
+            }
+        }
+    }
+
+    private void poll() throws SQLException {
+        if (subscribers.isEmpty()) {
+            lastVersion = -1;
+            return;
+        }
+        try (Connection conn = DBUtil.getReadConnection()) {
+            long version = ChangeLog.currentVersion(conn);
+            if (lastVersion < 0) {
+                lastVersion = version;     // client mới đăng ký đã có dữ liệu tới thời điểm này
+                return;
+            }
+            if (version == lastVersion) return;
+            Set<String> changed = changedEntities(conn, lastVersion);
+            lastVersion = version;
+            for (Subscriber s : subscribers.values()) {
+                if (changed.contains(s.entity)) s.offer(version);
+            }
+        }
+    }
+
+    private static Set<String> changedEntities(Connection conn, long since) throws SQLException {
+        Set<String> changed = new HashSet<>();
+        String sql = "SELECT 1 FROM ChangeLog WHERE entity = ? AND version > ? LIMIT 1";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (String entity : List.of(ChangeLog.STUDENT, ChangeLog.SUBJECT, ChangeLog.SCORE)) {
+                ps.setString(1, entity);
+                ps.setLong(2, since);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) changed.add(entity);
+                }
+            }
+        }
+        // Nhật ký đã bị dọn qua mốc since: không biết bảng nào đổi, báo tất cả
+        if (since + 1 < ChangeLog.oldestVersion(conn, ChangeLog.currentVersion(conn))) {
+            changed.addAll(List.of(ChangeLog.STUDENT, ChangeLog.SUBJECT, ChangeLog.SCORE));
+        }
+        return changed;
+    }
+
+    private void evict(Subscriber s, String reason) {
+        if (subscribers.remove(s.listener, s)) {
+            evicted.increment();
+            System.out.println(">>> Hủy đăng ký listener " + s.entity + ": " + reason);
+        }
+    }
+
+    private void wake() {
+        synchronized (wakeup) {
+            wakeup.notifyAll();
+        }
+    }
+
+    // ============================
+    // Trạng thái từng client
+    // ============================
+    private final class Subscriber {
+        final String entity;
+        final RemoteChangeListener listener;
+        private long pending;        // phiên bản mới nhất cần báo
+        private long delivered;      // phiên bản client đã nhận
+        private boolean inFlight;
+        private long sendStart;
+        private int failures;
+
+        Subscriber(String entity, RemoteChangeListener listener) {
+            this.entity = entity;
+            this.listener = listener;
+        }
+
+        synchronized void offer(long version) {
+            if (inFlight || pending > delivered) coalesced.increment();
+            pending = Math.max(pending, version);
+        }
+
+        synchronized boolean isStuck(long now) {
+            return inFlight && now - sendStart > SLOW_CLIENT_MS;
+        }
+
+        void trySend() {
+            long version;
+            synchronized (this) {
+                if (inFlight || pending <= delivered) return;
+                inFlight = true;
+                sendStart = System.currentTimeMillis();
+                version = pending;
+            }
+            senders.execute(() -> deliver(version));
+        }
+
+        private void deliver(long version) {
+            try {
+                listener.changesAvailable(new ChangeNotice(entity, version));
+                sent.increment();
+                boolean more;
+                synchronized (this) {
+                    inFlight = false;
+                    failures = 0;
+                    delivered = Math.max(delivered, version);
+                    more = pending > delivered;
+                }
+                // Có thay đổi mới đến trong lúc gửi: gửi tiếp ngay thay vì chờ chu kỳ sau
+                if (more) wake();
+            } catch (NoSuchObjectException | ConnectException e) {
+                evict(this, "client đã ngắt kết nối");
+            } catch (RemoteException e) {
+                if (isTimeout(e)) {
+                    evict(this, "không phản hồi callback sau " + System.getProperty(RMI_RESPONSE_TIMEOUT) + " ms");
+                } else {
+                    failed(e);
+                }
+            } catch (RuntimeException e) {
+                failed(e);
+            }
+        }
+
+        private void failed(Exception e) {
+            int n;
+            synchronized (this) {
+                inFlight = false;
+                n = ++failures;
+            }
+            if (n >= MAX_FAILURES) evict(this, "lỗi " + n + " lần liên tiếp: " + e.getMessage());
+        }
+    }
+
+    // Hết hạn chờ phản hồi: RMI bọc SocketTimeoutException trong UnmarshalException / RemoteException
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SocketTimeoutException) return true;
+        }
+        return false;
+    }
+}
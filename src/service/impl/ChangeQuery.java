@@ -0,0 +1,123 @@
+package service.impl;
+
+import model.ChangeSet;
+import util.ChangeLog;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Tính delta của một bảng từ ChangeLog trong khoảng (since, version]:
+//   upserts = dòng hiện còn trong bảng có khóa xuất hiện trong nhật ký,
+//   deleted = khóa có trong nhật ký nhưng không còn trong bảng.
+// Mỗi khóa chỉ xuất hiện một lần dù bị sửa nhiều lần. Cả hai truy vấn chạy trong cùng một
+// giao dịch đọc nên thấy cùng một snapshot với phiên bản trả về.
+// changedKeys / CHANGED_KEYS / prepare cũng là đường đọc ChangeLog duy nhất của ReadModel.
+final class ChangeQuery {
+
+    interface KeyReader<K> {
+        K read(ResultSet rs, int column) throws SQLException;
+    }
+
+    // Nhiều hơn số khóa này thì tải lại toàn bộ sẽ rẻ hơn áp dụng delta
+    static final int MAX_CHANGED_KEYS = Integer.getInteger("changelog.maxKeys", 5_000);
+
+    // Khóa đổi của một bảng trong (since, version]; tham số: entity, since, version
+    static final String CHANGED_KEYS =
+            "SELECT row_key FROM ChangeLog WHERE entity = ? AND version > ? AND version <= ?";
+
+    private final String entity;
+    private final String upsertSql;
+    private final String deleteSql;
+    private final String countSql;
+
+    // selectSql: câu SELECT các cột của bảng (không có WHERE); keyColumn: khóa chính
+    ChangeQuery(String entity, String selectSql, String table, String keyColumn) {
+        this.entity = entity;
+        this.upsertSql = selectSql + " WHERE " + keyColumn + " IN (" + CHANGED_KEYS + ")";
+        this.deleteSql = "SELECT DISTINCT c.row_key FROM ChangeLog c " +
+                "WHERE c.entity = ? AND c.version > ? AND c.version <= ? " +
+                "AND NOT EXISTS (SELECT 1 FROM " + table + " t WHERE t." + keyColumn + " = c.row_key)";
+        this.countSql = "SELECT COUNT(*) FROM (SELECT DISTINCT row_key FROM ChangeLog " +
+                "WHERE entity = ? AND version > ? AND version <= ? LIMIT " + (MAX_CHANGED_KEYS + 1) + ")";
+    }
+
+    <T extends Serializable, K extends Serializable> ChangeSet<T, K> fetch(
+            Connection conn, long since, PagedQuery.RowMapper<T> mapper, KeyReader<K> keyReader) throws SQLException {
+        conn.setAutoCommit(false);
+        try {
+            long version = ChangeLog.currentVersion(conn);
+            // since < 0: client chưa có dữ liệu, chỉ cần mốc phiên bản trước khi tải toàn bộ
+            if (since < 0 || since + 1 < ChangeLog.oldestVersion(conn, version) || since > version) {
+                return ChangeSet.reset(since, version);
+            }
+            if (since == version) return new ChangeSet<>(since, version, List.of(), List.of());
+            if (countChangedKeys(conn, since, version) > MAX_CHANGED_KEYS) {
+                return ChangeSet.reset(since, version);
+            }
+
+            List<T> upserts = new ArrayList<>();
+            try (PreparedStatement ps = prepare(conn, upsertSql, since, version);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) upserts.add(mapper.map(rs));
+            }
+            List<K> deleted = new ArrayList<>();
+            try (PreparedStatement ps = prepare(conn, deleteSql, since, version);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) deleted.add(keyReader.read(rs, 1));
+            }
+            return new ChangeSet<>(since, version, upserts, deleted);
+        } finally {
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private int countChangedKeys(Connection conn, long since, long version) throws SQLException {
+        try (PreparedStatement ps = prepare(conn, countSql, since, version);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private PreparedStatement prepare(Connection conn, String sql, long since, long version) throws SQLException {
+        return prepare(conn, sql, entity, since, version);
+    }
+
+    // Khóa đổi của cả ba bảng trong (since, version], mỗi khóa một lần, thêm vào danh sách theo bảng.
+    // false (danh sách dở dang) nếu nhiều hơn MAX_CHANGED_KEYS: tải lại toàn bộ rẻ hơn
+    static boolean changedKeys(Connection conn, long since, long version, List<String> students,
+                               List<String> subjects, List<Integer> scores) throws SQLException {
+        int count = 0;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT DISTINCT entity, row_key FROM ChangeLog WHERE version > ? AND version <= ? LIMIT "
+                        + (MAX_CHANGED_KEYS + 1))) {
+            ps.setLong(1, since);
+            ps.setLong(2, version);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String entity = rs.getString(1);
+                    if (ChangeLog.SCORE.equals(entity)) scores.add(rs.getInt(2));
+                    else if (ChangeLog.STUDENT.equals(entity)) students.add(rs.getString(2));
+                    else if (ChangeLog.SUBJECT.equals(entity)) subjects.add(rs.getString(2));
+                    count++;
+                }
+            }
+        }
+        return count <= MAX_CHANGED_KEYS;
+    }
+
+    // sql chứa CHANGED_KEYS (ba tham số đầu)
+    static PreparedStatement prepare(Connection conn, String sql, String entity, long since, long version)
+            throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql);
+        ps.setString(1, entity);
+        ps.setLong(2, since);
+        ps.setLong(3, version);
+        return ps;
+    }
+}
@@ -0,0 +1,217 @@
+package service.impl;
+
+import model.BatchResult;
+import model.ImportKind;
+import model.ImportProgress;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Một lần nhập CSV: phân tích theo luồng, kiểm tra từng dòng theo schema của DBUtil
+// rồi commit theo khối CHUNK_ROWS dòng (mỗi khối một giao dịch qua BatchExecutor).
+// Bộ nhớ dùng không phụ thuộc kích thước file: chỉ giữ một khối đang chờ và vài dòng lỗi mẫu.
+final class CsvImportJob {
+
+    static final int CHUNK_ROWS = Integer.getInteger("import.chunkRows", 2000);
+    private static final int MAX_REJECTED_SAMPLES = 200;
+
+    private final String id;
+    private final ImportKind kind;
+    private final String[] columns;
+    private final long startedAt = System.currentTimeMillis();
+    private volatile long lastAccess = startedAt;
+
+    private CsvParser parser;
+    private int[] columnIndex;          // cột chuẩn -> vị trí trong bản ghi CSV
+
+    private final List<String[]> pending = new ArrayList<>(CHUNK_ROWS);
+    private final List<Long> pendingLines = new ArrayList<>(CHUNK_ROWS);
+    private final List<String> rejectedSamples = new ArrayList<>();
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private boolean done;
+
+    CsvImportJob(String id, ImportKind kind) {
+        this.id = id;
+        this.kind = kind;
+        this.columns = kind.getColumns();
+    }
+
+    synchronized ImportProgress feed(CharSequence text) throws Exception {
+        ensureOpen();
+        if (parser == null) parser = new CsvParser(detectDelimiter(text), this::onRecord);
+        parser.feed(text);
+        return progress();
+    }
+
+    synchronized ImportProgress finish() throws Exception {
+        ensureOpen();
+        if (parser != null) parser.finish();
+        flush();
+        done = true;
+        return progress();
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    private void ensureOpen() {
+        if (done) throw new IllegalStateException("Phiên nhập " + id + " đã kết thúc");
+        lastAccess = System.currentTimeMillis();
+    }
+
+    // ============================
+    // Xử lý từng bản ghi
+    // ============================
+    private void onRecord(long lineNo, String[] record) throws SQLException {
+        if (columnIndex == null && resolveHeader(record)) return;
+
+        rowsRead++;
+        String[] row = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            int pos = columnIndex[i];
+            row[i] = pos >= 0 && pos < record.length ? record[pos].trim() : "";
+        }
+        String error = validate(row);
+        if (error != null) {
+            reject(lineNo, error);
+            return;
+        }
+        pending.add(row);
+        pendingLines.add(lineNo);
+        if (pending.size() >= CHUNK_ROWS) flush();
+    }
+
+    // Dòng đầu: nếu là tiêu đề thì ánh xạ cột theo tên, nếu không thì theo thứ tự mặc định
+    private boolean resolveHeader(String[] record) {
+        columnIndex = new int[columns.length];
+        Arrays.fill(columnIndex, -1);
+        boolean header = false;
+        for (int pos = 0; pos < record.length; pos++) {
+            String name = record[pos].replace("\uFEFF", "").trim().toLowerCase();
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].equals(name)) {
+                    columnIndex[i] = pos;
+                    header = true;
+                }
+            }
+        }
+        if (!header) {
+            for (int i = 0; i < columns.length; i++) columnIndex[i] = i;
+        }
+        return header;
+    }
+
+    private void flush() throws SQLException {
+        if (pending.isEmpty()) return;
+        BatchResult result = BatchExecutor.run(insertSql(), pending, r -> null, this::bind, null);
+        for (int i = 0; i < result.size(); i++) {
+            if (result.isSuccess(i)) rowsImported++;
+            else reject(pendingLines.get(i), result.getError(i));
+        }
+        pending.clear();
+        pendingLines.clear();
+    }
+
+    private void reject(long lineNo, String error) {
+        rowsRejected++;
+        if (rejectedSamples.size() < MAX_REJECTED_SAMPLES) {
+            rejectedSamples.add("Dòng " + lineNo + ": " + error);
+        }
+    }
+
+    private ImportProgress progress() {
+        return new ImportProgress(id, kind, rowsRead, rowsImported, rowsRejected,
+                rejectedSamples, done, System.currentTimeMillis() - startedAt);
+    }
+
+    // ============================
+    // Schema theo từng loại
+    // ============================
+    private String insertSql() {
+        switch (kind) {
+            case STUDENT: return "INSERT INTO Student(msv, ten, ngay_sinh, que_quan) VALUES(?, ?, ?, ?)";
+            case SUBJECT: return "INSERT INTO Subject(ma_mon, ten_mon, so_tin_chi) VALUES(?, ?, ?)";
+            default:      return "INSERT INTO Score(msv, ma_mon, diem) VALUES(?, ?, ?)";
+        }
+    }
+
+    private String validate(String[] r) {
+        switch (kind) {
+            case STUDENT:
+                if (r[0].isEmpty()) return "MSV không được trống";
+                if (r[1].isEmpty()) return "Tên không được trống";
+                if (!r[2].isEmpty()) {
+                    try {
+                        LocalDate.parse(r[2]);
+                    } catch (DateTimeParseException e) {
+                        return "Ngày sinh phải dạng yyyy-MM-dd";
+                    }
+                }
+                return null;
+            case SUBJECT:
+                if (r[0].isEmpty()) return "Mã môn không được trống";
+                if (r[1].isEmpty()) return "Tên môn không được trống";
+                try {
+                    if (Integer.parseInt(r[2]) < 0) return "Số tín chỉ phải là số nguyên không âm";
+                } catch (NumberFormatException e) {
+                    return "Số tín chỉ phải là số nguyên không âm";
+                }
+                return null;
+            default:
+                if (r[0].isEmpty()) return "MSV không được trống";
+                if (r[1].isEmpty()) return "Mã môn không được trống";
+                try {
+                    double diem = parseDiem(r[2]);
+                    if (diem < 0 || diem > 10) return "Điểm phải trong khoảng 0 - 10";
+                } catch (NumberFormatException e) {
+                    return "Điểm không hợp lệ";
+                }
+                return null;
+        }
+    }
+
+    private void bind(PreparedStatement ps, String[] r) throws SQLException {
+        switch (kind) {
+            case STUDENT:
+                ps.setString(1, r[0]);
+                ps.setString(2, r[1]);
+                ps.setString(3, r[2].isEmpty() ? null : r[2]);
+                ps.setString(4, r[3].isEmpty() ? null : r[3]);
+                break;
+            case SUBJECT:
+                ps.setString(1, r[0]);
+                ps.setString(2, r[1]);
+                ps.setInt(3, Integer.parseInt(r[2]));
+                break;
+            default:
+                ps.setString(1, r[0]);
+                ps.setString(2, r[1]);
+                ps.setDouble(3, parseDiem(r[2]));
+        }
+    }
+
+    // Chấp nhận cả dấu phẩy thập phân (8,5) khi file dùng ';' hoặc tab làm dấu phân cách
+    private static double parseDiem(String s) {
+        return Double.parseDouble(s.replace(',', '.'));
+    }
+
+    private static char detectDelimiter(CharSequence text) {
+        int comma = 0, semi = 0, tab = 0;
+        for (int i = 0; i < text.length() && text.charAt(i) != '\n'; i++) {
+            char c = text.charAt(i);
+            if (c == ',') comma++;
+            else if (c == ';') semi++;
+            else if (c == '\t') tab++;
+        }
+        if (tab > comma && tab >= semi) return '\t';
+        return semi > comma ? ';' : ',';
+    }
+}
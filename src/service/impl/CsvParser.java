@@ -0,0 +1,109 @@
+package service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Bộ phân tích CSV kiểu "đẩy": nhận văn bản theo từng đoạn bất kỳ (có thể cắt giữa dòng
+// hoặc giữa dấu ngoặc kép) và phát ra từng bản ghi ngay khi đọc xong.
+// Chỉ giữ trong bộ nhớ bản ghi đang đọc dở.
+final class CsvParser {
+
+    interface RecordHandler {
+        void onRecord(long lineNo, String[] fields) throws Exception;
+    }
+
+    private static final int MAX_FIELD_LENGTH = 64 * 1024;
+
+    private final char delimiter;
+    private final RecordHandler handler;
+
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private boolean inQuotes;
+    private boolean quoteInQuotes;  // vừa gặp '"' bên trong chuỗi có ngoặc kép
+    private boolean recordHasData;
+    private long line = 1;
+    private long recordLine = 1;
+
+    CsvParser(char delimiter, RecordHandler handler) {
+        this.delimiter = delimiter;
+        this.handler = handler;
+    }
+
+    void feed(CharSequence text) throws Exception {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (inQuotes) {
+                if (quoteInQuotes) {
+                    quoteInQuotes = false;
+                    if (c == '"') {          // "" -> một dấu ngoặc kép
+                        append(c);
+                        continue;
+                    }
+                    inQuotes = false;        // kết thúc chuỗi, xử lý c như ký tự thường
+                } else {
+                    if (c == '"') quoteInQuotes = true;
+                    else {
+                        if (c == '\n') line++;
+                        append(c);
+                    }
+                    continue;
+                }
+            }
+
+            if (c == '"' && field.length() == 0) {
+                inQuotes = true;
+                recordHasData = true;
+            } else if (c == delimiter) {
+                endField();
+                recordHasData = true;
+            } else if (c == '\n') {
+                endRecord();
+                line++;
+                recordLine = line;
+            } else if (c != '\r') {
+                append(c);
+                recordHasData = true;
+            }
+        }
+    }
+
+    // Gọi khi hết dữ liệu để phát bản ghi cuối (file không kết thúc bằng xuống dòng)
+    void finish() throws Exception {
+        if (inQuotes && !quoteInQuotes) {
+            throw new IllegalStateException("Dòng " + recordLine + ": thiếu dấu ngoặc kép đóng");
+        }
+        inQuotes = false;
+        quoteInQuotes = false;
+        endRecord();
+    }
+
+    long getLine() {
+        return line;
+    }
+
+    private void append(char c) {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IllegalStateException("Dòng " + recordLine + ": giá trị quá dài");
+        }
+        field.append(c);
+    }
+
+    private void endField() {
+        fields.add(field.toString());
+        field.setLength(0);
+    }
+
+    private void endRecord() throws Exception {
+        if (recordHasData || field.length() > 0) {
+            endField();
+            String[] record = fields.toArray(new String[0]);
+            fields.clear();
+            recordHasData = false;
+            handler.onRecord(recordLine, record);
+        } else {
+            fields.clear();
+            field.setLength(0);
+        }
+    }
+}
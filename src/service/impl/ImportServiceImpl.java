@@ -0,0 +1,81 @@
+package service.impl;
+
+import model.ImportKind;
+import model.ImportProgress;
+import service.ImportService;
+import util.CompressingSocketFactory;
+
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ImportServiceImpl extends UnicastRemoteObject implements ImportService {
+
+    private static final long serialVersionUID = 1L;
+    // Phiên nhập không nhận dữ liệu quá lâu sẽ bị hủy (phần đã commit vẫn giữ nguyên)
+    private static final long IDLE_TIMEOUT_MS = Long.getLong("import.idleTimeoutMs", 10 * 60_000L);
+
+    private final Map<String, CsvImportJob> jobs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "import-reaper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ImportServiceImpl() throws RemoteException {
+        super(0, CompressingSocketFactory.getDefault(), CompressingSocketFactory.getDefault());
+        reaper.scheduleWithFixedDelay(this::evictIdle, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public String startImport(ImportKind kind) throws RemoteException {
+        if (kind == null) throw new RemoteException("Thiếu loại dữ liệu nhập");
+        String id = UUID.randomUUID().toString();
+        jobs.put(id, new CsvImportJob(id, kind));
+        return id;
+    }
+
+    @Override
+    public ImportProgress sendChunk(String importId, String text) throws RemoteException {
+        CsvImportJob job = job(importId);
+        try {
+            return job.feed(text);
+        } catch (Exception e) {
+            jobs.remove(importId);
+            throw new RemoteException("Lỗi khi nhập CSV: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public ImportProgress finishImport(String importId) throws RemoteException {
+        CsvImportJob job = job(importId);
+        try {
+            return job.finish();
+        } catch (Exception e) {
+            throw new RemoteException("Lỗi khi nhập CSV: " + e.getMessage(), e);
+        } finally {
+            jobs.remove(importId);
+        }
+    }
+
+    @Override
+    public void abortImport(String importId) throws RemoteException {
+        jobs.remove(importId);
+    }
+
+    private CsvImportJob job(String importId) throws RemoteException {
+        CsvImportJob job = jobs.get(importId);
+        if (job == null) throw new RemoteException("Phiên nhập không tồn tại hoặc đã hết hạn: " + importId);
+        return job;
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(j -> now - j.getLastAccess() > IDLE_TIMEOUT_MS);
+    }
+}
@@ -0,0 +1,105 @@
+package service.impl;
+
+import service.RemoteCursor;
+import util.AdmissionGate;
+import util.CompressingSocketFactory;
+
+import java.io.Serializable;
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Con trỏ đọc theo khóa (keyset): mỗi lần next() chạy "WHERE key > last ORDER BY key LIMIT n",
+// nên giữa các lần gọi không giữ kết nối hay ResultSet nào. Con trỏ không được dùng quá
+// IDLE_TIMEOUT_MS sẽ bị unexport.
+final class KeysetCursor<T extends Serializable, K> extends UnicastRemoteObject implements RemoteCursor<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    static final int DEFAULT_CHUNK_SIZE = 500;
+    static final int MAX_CHUNK_SIZE = 5000;
+    private static final long IDLE_TIMEOUT_MS = Long.getLong("cursor.idleTimeoutMs", 60_000L);
+
+    interface ChunkLoader<T, K> {
+        List<T> load(K afterKey, int limit) throws SQLException;
+    }
+
+    private static final Set<KeysetCursor<?, ?>> OPEN = ConcurrentHashMap.newKeySet();
+    private static final ScheduledExecutorService REAPER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "cursor-reaper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        REAPER.scheduleWithFixedDelay(KeysetCursor::closeIdle, 10, 10, TimeUnit.SECONDS);
+    }
+
+    private final transient ChunkLoader<T, K> loader;
+    private final transient Function<T, K> keyOf;
+    private final int chunkSize;
+    private K lastKey;
+    // close() chạy cả trên luồng cursor-reaper, không lấy monitor của next()
+    private volatile boolean finished;
+    private volatile long lastAccess = System.currentTimeMillis();
+
+    KeysetCursor(ChunkLoader<T, K> loader, Function<T, K> keyOf, K startKey, int chunkSize) throws RemoteException {
+        super(0, CompressingSocketFactory.getDefault(), CompressingSocketFactory.getDefault());
+        this.loader = loader;
+        this.keyOf = keyOf;
+        this.lastKey = startKey;
+        this.chunkSize = chunkSize <= 0 ? DEFAULT_CHUNK_SIZE : Math.min(chunkSize, MAX_CHUNK_SIZE);
+        OPEN.add(this);
+    }
+
+    @Override
+    public synchronized List<T> next() throws RemoteException {
+        lastAccess = System.currentTimeMillis();
+        if (finished) return new ArrayList<>();
+        // Mỗi khối tới MAX_CHUNK_SIZE dòng: qua cổng bulk như open*Cursor / getAll*
+        AdmissionGate gate = ServiceDispatcher.cursorGate();
+        ServiceDispatcher.admit(gate, "RemoteCursor.next");
+        List<T> chunk;
+        try {
+            chunk = loader.load(lastKey, chunkSize);
+        } catch (SQLException e) {
+            close();
+            throw new RemoteException("Lỗi khi đọc dữ liệu từ con trỏ", e);
+        } finally {
+            gate.exit();
+        }
+        if (!chunk.isEmpty()) lastKey = keyOf.apply(chunk.get(chunk.size() - 1));
+        if (chunk.size() < chunkSize) close();
+        return chunk instanceof ArrayList ? chunk : new ArrayList<>(chunk);
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        if (OPEN.remove(this)) {
+            // Unexport sau một chút để lời gọi next() hiện tại (nếu có) kịp trả kết quả
+            REAPER.schedule(() -> {
+                try {
+                    UnicastRemoteObject.unexportObject(this, true);
+                } catch (NoSuchObjectException ignored) {
+                }
+            }, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void closeIdle() {
+        long now = System.currentTimeMillis();
+        for (KeysetCursor<?, ?> c : OPEN) {
+            if (now - c.lastAccess > IDLE_TIMEOUT_MS) c.close();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package service.impl;
+
+import model.Page;
+import model.PageRequest;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Dựng truy vấn phân trang keyset trên một câu SELECT gốc:
+//   SELECT * FROM (<base>) t WHERE <filter> AND (<sort>, <key>) > (?, ?) ORDER BY <sort>, <key> LIMIT n+1
+// Tên cột sắp xếp / lọc chỉ được lấy từ danh sách cho phép để tránh SQL injection.
+final class PagedQuery {
+
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private static final Pattern CONDITION = Pattern.compile("^(\\w+)\\s*(>=|<=|>|<|=|:)\\s*(.+)$");
+
+    private final String baseSql;
+    private final String keyColumn;
+    private final Map<String, Boolean> columns = new LinkedHashMap<>(); // tên cột -> là cột số
+    private final Set<String> notNull = new HashSet<>();
+    private final List<String> searchExprs = new ArrayList<>();
+
+    PagedQuery(String baseSql, String keyColumn) {
+        this.baseSql = baseSql;
+        this.keyColumn = keyColumn;
+    }
+
+    PagedQuery text(String column, boolean searchable) {
+        columns.put(column, false);
+        if (searchable) searchExprs.add("COALESCE(" + column + ", '')");
+        return this;
+    }
+
+    PagedQuery number(String column, boolean searchable) {
+        columns.put(column, true);
+        if (searchable) searchExprs.add("CAST(" + column + " AS TEXT)");
+        return this;
+    }
+
+    // Cột không bao giờ NULL: sắp xếp trực tiếp trên cột (không bọc COALESCE) để dùng được index
+    PagedQuery notNull(String... cols) {
+        notNull.addAll(List.of(cols));
+        return this;
+    }
+
+    <T extends Serializable> Page<T> fetch(Connection conn, PageRequest req, RowMapper<T> mapper) throws SQLException {
+        int pageSize = Math.max(1, Math.min(req.getPageSize() <= 0 ? PageRequest.DEFAULT_PAGE_SIZE : req.getPageSize(),
+                PageRequest.MAX_PAGE_SIZE));
+        String sortColumn = req.getSortColumn() == null ? keyColumn : req.getSortColumn().toLowerCase();
+        if (!columns.containsKey(sortColumn)) {
+            throw new SQLException("Không hỗ trợ sắp xếp theo cột: " + req.getSortColumn());
+        }
+        boolean sortByKey = sortColumn.equals(keyColumn);
+        boolean numeric = columns.get(sortColumn);
+        String sortExpr = sortByKey || notNull.contains(sortColumn) ? sortColumn
+                : "COALESCE(" + sortColumn + (numeric ? ", 0)" : ", '')");
+        String dir = req.isDescending() ? " DESC" : " ASC";
+        String cmp = req.isDescending() ? " < ?" : " > ?";
+
+        List<Object> params = new ArrayList<>();
+        String where = buildFilter(req.getFilter(), params);
+
+        long total = -1;
+        if (req.isFirstPage()) {
+            // Chỉ đếm ở trang đầu; các trang sau client giữ lại con số này
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT COUNT(*) FROM (" + baseSql + ") t" + where)) {
+                bind(ps, params);
+                try (ResultSet rs = ps.executeQuery()) {
+                    total = rs.next() ? rs.getLong(1) : 0;
+                }
+            }
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM (").append(baseSql).append(") t").append(where);
+        if (!req.isFirstPage()) {
+            sql.append(where.isEmpty() ? " WHERE " : " AND ");
+            if (sortByKey) {
+                sql.append(keyColumn).append(cmp);
+                params.add(req.getAfterKey());
+            } else {
+                // So sánh row-value: SQLite dùng được index (sort, key) cho điều kiện này
+                sql.append("(").append(sortExpr).append(", ").append(keyColumn).append(")")
+                   .append(cmp.replace("?", "(?, ?)"));
+                params.add(req.getAfterSortValue());
+                params.add(req.getAfterKey());
+            }
+        }
+        sql.append(" ORDER BY ").append(sortExpr).append(dir);
+        if (!sortByKey) sql.append(", ").append(keyColumn).append(dir);
+        sql.append(" LIMIT ?");
+        params.add(pageSize + 1);
+
+        List<T> items = new ArrayList<>();
+        Serializable lastSort = null;
+        Serializable lastKey = null;
+        boolean hasMore = false;
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            bind(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (items.size() == pageSize) {
+                        hasMore = true;
+                        break;
+                    }
+                    items.add(mapper.map(rs));
+                    lastKey = (Serializable) rs.getObject(keyColumn);
+                    Object sv = rs.getObject(sortColumn);
+                    lastSort = sv != null ? (Serializable) sv : numeric ? Integer.valueOf(0) : "";
+                }
+            }
+        }
+        return new Page<>(items, total, hasMore ? req.after(lastSort, lastKey) : null);
+    }
+
+    private String buildFilter(String filter, List<Object> params) throws SQLException {
+        if (filter == null || filter.isBlank()) return "";
+        List<String> clauses = new ArrayList<>();
+        for (String part : filter.split(";")) {
+            String p = part.trim();
+            if (p.isEmpty()) continue;
+            Matcher m = CONDITION.matcher(p);
+            if (m.matches() && columns.containsKey(m.group(1).toLowerCase())) {
+                String col = m.group(1).toLowerCase();
+                String op = m.group(2);
+                String value = m.group(3).trim();
+                if (op.equals(":")) {
+                    clauses.add("COALESCE(CAST(" + col + " AS TEXT), '') LIKE ? ESCAPE '\\'");
+                    params.add("%" + escapeLike(value) + "%");
+                } else {
+                    clauses.add(col + " " + op + " ?");
+                    params.add(columns.get(col) ? parseNumber(value) : value);
+                }
+            } else if (!searchExprs.isEmpty()) {
+                String like = "%" + escapeLike(p) + "%";
+                StringBuilder or = new StringBuilder("(");
+                for (int i = 0; i < searchExprs.size(); i++) {
+                    if (i > 0) or.append(" OR ");
+                    or.append(searchExprs.get(i)).append(" LIKE ? ESCAPE '\\'");
+                    params.add(like);
+                }
+                clauses.add(or.append(")").toString());
+            }
+        }
+        return clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+    }
+
+    private static Object parseNumber(String value) throws SQLException {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new SQLException("Giá trị lọc không phải số: " + value);
+        }
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static void bind(PreparedStatement ps, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            ps.setObject(i + 1, params.get(i));
+        }
+    }
+}
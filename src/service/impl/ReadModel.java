@@ -0,0 +1,710 @@
+package service.impl;
+
+import model.Score;
+import model.Student;
+import model.StudentTranscript;
+import model.Subject;
+import util.ChangeLog;
+import util.DBUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// Mô hình đọc trong bộ nhớ (tùy chọn, -Dreadmodel.enabled=true). SQLite vẫn là nơi lưu bền;
+// các hàm find / getAll của service đọc từ đây khi mô hình sẵn sàng, không thì đọc SQLite như cũ.
+//  - Student / Subject: cột trong mảng song song theo slot (thêm vào cuối như rowid), tra theo mã
+//    bằng StringIntMap. Slot của dòng bị xóa để trống tới lần nạp lại.
+//  - Score: mảng nguyên thủy theo Score.id, cộng danh sách id điểm theo từng slot sinh viên / môn
+//    (xóa O(1) nhờ lưu vị trí trong danh sách).
+//  - Đồng bộ theo ChangeLog: luồng writer gọi syncAfterCommit() ngay sau mỗi giao dịch, trước khi
+//    trả kết quả cho người gọi (ghi xong là đọc thấy). Luồng này chỉ áp dụng delta nhỏ và không bao
+//    giờ chờ: delta quá lớn, nhật ký đã bị dọn hoặc luồng khác đang đồng bộ -> đánh dấu cũ (service
+//    đọc SQLite) và giao cho luồng nền đuổi kịp / nạp lại toàn bộ trên kết nối đọc.
+//  - Luồng nền còn kiểm tra định kỳ để bắt thay đổi từ công cụ ngoài server (CsvImportMain, DbMaintenance).
+//  - Đây là bản nạp duy nhất của Student / Subject / Score trong server: ScoreAnalytics gắn trạng thái
+//    dẫn xuất (Derived) vào Data và được cập nhật cùng mỗi delta, nên mô hình được nạp khi có truy vấn
+//    xếp hạng / thống kê đầu tiên kể cả khi service không đọc từ đây.
+// Đồng bộ lỗi -> ngừng phục vụ (service đọc SQLite) và nạp lại toàn bộ ở lượt kiểm tra sau.
+// Cấu hình: -Dreadmodel.enabled, -Dreadmodel.pollMs (mặc định 1000)
+public final class ReadModel {
+
+    private static final boolean ENABLED = Boolean.getBoolean("readmodel.enabled");
+    private static final long POLL_MS = Long.getLong("readmodel.pollMs", 1000L);
+    // Writer vẫn commit trong lúc luồng nền đuổi kịp: đồng bộ thêm tối đa từng này lượt rồi để chu kỳ sau
+    private static final int MAX_CATCH_UP_ROUNDS = 5;
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private static final ReadModel INSTANCE = new ReadModel();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Một luồng đồng bộ tại một thời điểm; writer chỉ tryLock
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private volatile boolean ready;
+    private volatile boolean reloadNeeded;
+    private final AtomicBoolean catchUpQueued = new AtomicBoolean();
+    private Data data;
+    // Chỉ sửa khi giữ syncLock và khóa ghi
+    private volatile long version = -1;
+    private volatile ScheduledExecutorService poller;
+    private volatile Function<Data, Derived> derivedFactory;
+
+    private final LongAdder syncCount = new LongAdder();
+    private final LongAdder rowsApplied = new LongAdder();
+    private final LongAdder reloadCount = new LongAdder();
+    private final LongAdder staleCount = new LongAdder();
+
+    private ReadModel() {
+    }
+
+    // Nạp khi server khởi động (không làm gì nếu chưa bật)
+    public static void startIfEnabled() {
+        if (!ENABLED) return;
+        INSTANCE.start();
+    }
+
+    public static String statsSummary() {
+        if (INSTANCE.poller == null) return "Mô hình đọc: tắt";
+        ReadModel m = INSTANCE;
+        return "Mô hình đọc: " + (m.ready ? "sẵn sàng" : "chưa sẵn sàng") + ", phiên bản " + m.version
+                + ", " + m.syncCount.sum() + " lần đồng bộ / " + m.rowsApplied.sum() + " dòng, "
+                + m.staleCount.sum() + " lần giao luồng nền, " + m.reloadCount.sum() + " lần nạp toàn bộ";
+    }
+
+    // null nếu chưa bật / chưa sẵn sàng: service đọc SQLite
+    static ReadModel active() {
+        return ENABLED && INSTANCE.ready ? INSTANCE : null;
+    }
+
+    // Gọi trên luồng writer sau mỗi giao dịch đã commit, vẫn giữ kết nối ghi: chỉ áp dụng delta nhỏ,
+    // mọi trường hợp khác đánh dấu cũ và trả về ngay
+    static void syncAfterCommit(Connection conn) {
+        ReadModel m = INSTANCE;
+        if (m.poller == null) return;
+        if (!m.ready || !m.syncLock.tryLock()) {
+            m.markStale(false);
+            return;
+        }
+        try {
+            if (!m.applyDelta(conn)) m.markStale(true);
+        } catch (SQLException | RuntimeException e) {
+            m.markStale(true);
+            System.err.println("!!! Lỗi khi đồng bộ mô hình đọc, sẽ nạp lại: " + e.getMessage());
+        } finally {
+            m.syncLock.unlock();
+        }
+    }
+
+    // Mô hình cho ScoreAnalytics: nạp nếu chưa nạp và gắn trạng thái dẫn xuất do factory dựng
+    // (dựng lại cho mỗi lần nạp toàn bộ). Chỉ hỗ trợ một factory.
+    static ReadModel attach(Function<Data, Derived> factory) throws SQLException {
+        ReadModel m = INSTANCE;
+        if (m.derivedFactory == factory) return m;
+        m.start();
+        m.syncLock.lock();
+        try {
+            if (m.data == null) throw new SQLException("Chưa nạp được mô hình đọc");
+            // Giữ syncLock: không luồng nào sửa data trong lúc dựng, truy vấn đọc vẫn chạy
+            Derived derived = factory.apply(m.data);
+            m.lock.writeLock().lock();
+            try {
+                m.data.derived = derived;
+            } finally {
+                m.lock.writeLock().unlock();
+            }
+            m.derivedFactory = factory;
+        } finally {
+            m.syncLock.unlock();
+        }
+        return m;
+    }
+
+    // Đọc Data trong khóa đọc; reader nhận thêm phiên bản ChangeLog mà dữ liệu phản ánh
+    <T> T read(BiFunction<Data, Long, T> reader) throws SQLException {
+        lock.readLock().lock();
+        try {
+            if (data == null) throw new SQLException("Chưa nạp được mô hình đọc");
+            return reader.apply(data, version);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ============================
+    // Nạp / đồng bộ
+    // ============================
+    private synchronized void start() {
+        if (poller != null) return;
+        syncLock.lock();
+        try (Connection conn = DBUtil.getReadConnection()) {
+            reload(conn);
+        } catch (SQLException e) {
+            reloadNeeded = true;
+            System.err.println("!!! Không nạp được mô hình đọc, dùng SQLite: " + e.getMessage());
+        } finally {
+            syncLock.unlock();
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "readmodel-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::catchUp, POLL_MS, POLL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Service đọc SQLite cho tới khi luồng nền đồng bộ xong; reload = phải nạp lại toàn bộ
+    private void markStale(boolean reload) {
+        if (reload) reloadNeeded = true;
+        if (ready) {
+            ready = false;
+            staleCount.increment();
+        }
+        if (poller != null && catchUpQueued.compareAndSet(false, true)) poller.execute(this::catchUp);
+    }
+
+    // Luồng nền: kiểm tra định kỳ và đuổi kịp sau khi bị đánh dấu cũ (có thể nạp lại toàn bộ)
+    private void catchUp() {
+        catchUpQueued.set(false);
+        syncLock.lock();
+        try (Connection conn = DBUtil.getReadConnection()) {
+            for (int round = 0; round < MAX_CATCH_UP_ROUNDS; round++) {
+                if (reloadNeeded || !applyDelta(conn)) reload(conn);
+                ready = true;
+                // Writer commit trong lúc ta giữ syncLock đã đặt ready = false: còn thay đổi thì đồng bộ tiếp
+                if (ChangeLog.currentVersion(conn) == version) return;
+            }
+            ready = false;
+        } catch (SQLException | RuntimeException e) {
+            ready = false;
+            reloadNeeded = true;
+            System.err.println("!!! Lỗi khi đồng bộ mô hình đọc, sẽ nạp lại: " + e.getMessage());
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Giữ syncLock. false = không áp dụng được theo delta (quá nhiều thay đổi / nhật ký đã bị dọn)
+    private boolean applyDelta(Connection conn) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            long current = ChangeLog.currentVersion(conn);
+            if (current == version) return true;
+            if (current < version || version + 1 < ChangeLog.oldestVersion(conn, current)) return false;
+            Delta delta = Delta.fetch(conn, version, current);
+            if (delta == null) return false;
+            lock.writeLock().lock();
+            try {
+                delta.applyTo(data);
+                version = current;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            syncCount.increment();
+            rowsApplied.add(delta.size());
+            return true;
+        } finally {
+            conn.commit();
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    // Giữ syncLock. Dựng dữ liệu mới ngoài khóa đọc / ghi rồi thay một lần
+    private void reload(Connection conn) throws SQLException {
+        long start = System.currentTimeMillis();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        Data fresh;
+        long current;
+        try {
+            current = ChangeLog.currentVersion(conn);
+            fresh = Data.load(conn);
+        } finally {
+            conn.commit();
+            conn.setAutoCommit(autoCommit);
+        }
+        Function<Data, Derived> factory = derivedFactory;
+        if (factory != null) fresh.derived = factory.apply(fresh);
+        lock.writeLock().lock();
+        try {
+            data = fresh;
+            version = current;
+            reloadNeeded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        reloadCount.increment();
+        System.out.println(">>> Mô hình đọc: " + fresh.studentIndex.size() + " sinh viên, "
+                + fresh.subjectIndex.size() + " môn, " + fresh.scoreCount + " điểm ("
+                + (System.currentTimeMillis() - start) + " ms)");
+    }
+
+    // ============================
+    // Đọc (giữ khóa đọc)
+    // ============================
+    List<Student> getAllStudents() {
+        lock.readLock().lock();
+        try {
+            Data d = data;
+            List<Student> list = new ArrayList<>(d.studentIndex.size());
+            for (int s = 0; s < d.studentSlots; s++) {
+                if (d.msv[s] != null) list.add(d.student(s));
+            }
+            return list;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Student findStudent(String msv) {
+        lock.readLock().lock();
+        try {
+            int s = data.studentIndex.get(msv);
+            return s == StringIntMap.MISSING ? null : data.student(s);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Điểm theo mã môn (như ORDER BY sc.ma_mon của truy vấn SQL)
+    StudentTranscript getTranscript(String msv) {
+        lock.readLock().lock();
+        try {
+            Data d = data;
+            int s = d.studentIndex.get(msv);
+            if (s == StringIntMap.MISSING) return null;
+            List<StudentTranscript.Entry> entries = new ArrayList<>(d.studentScoreCount[s]);
+            for (int k = 0; k < d.studentScoreCount[s]; k++) {
+                int id = d.studentScores[s][k];
+                int sub = d.scoreSubject[id];
+                entries.add(new StudentTranscript.Entry(id, d.maMon[sub], d.tenMon[sub], d.soTinChi[sub],
+                        diemOrZero(d.scoreDiem[id])));
+            }
+            entries.sort((a, b) -> a.getMaMon().compareTo(b.getMaMon()));
+            return new StudentTranscript(d.student(s), entries);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Subject> getAllSubjects() {
+        lock.readLock().lock();
+        try {
+            Data d = data;
+            List<Subject> list = new ArrayList<>(d.subjectIndex.size());
+            for (int sub = 0; sub < d.subjectSlots; sub++) {
+                if (d.maMon[sub] != null) list.add(d.subject(sub, true));
+            }
+            return list;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Subject findSubject(String maMon, boolean withEnrollment) {
+        lock.readLock().lock();
+        try {
+            int sub = data.subjectIndex.get(maMon);
+            return sub == StringIntMap.MISSING ? null : data.subject(sub, withEnrollment);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 0 nếu không có môn (như truy vấn SQL)
+    int getEnrollmentCount(String maMon) {
+        lock.readLock().lock();
+        try {
+            int sub = data.subjectIndex.get(maMon);
+            return sub == StringIntMap.MISSING ? 0 : data.subjectScoreCount[sub];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Score> getAllScores() {
+        lock.readLock().lock();
+        try {
+            Data d = data;
+            List<Score> list = new ArrayList<>(d.scoreCount);
+            for (int id = 0; id < d.scoreStudent.length; id++) {
+                if (d.scoreStudent[id] >= 0) list.add(d.score(id));
+            }
+            return list;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Score findScore(int id) {
+        lock.readLock().lock();
+        try {
+            Data d = data;
+            return id >= 0 && id < d.scoreStudent.length && d.scoreStudent[id] >= 0 ? d.score(id) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static double diemOrZero(double diem) {
+        return Double.isNaN(diem) ? 0 : diem;
+    }
+
+    // ============================
+    // Dữ liệu
+    // ============================
+    // Trạng thái dẫn xuất từ Data (tổng điểm của ScoreAnalytics). Data gọi các hàm này trong khóa ghi
+    // mỗi khi dòng điểm hoặc số tín chỉ đổi, nên trạng thái luôn khớp với dữ liệu.
+    interface Derived {
+        // Dòng điểm sắp bị gỡ: mảng điểm vẫn giữ giá trị cũ
+        void scoreRemoving(int id);
+
+        void scoreAdded(int id);
+
+        // soTinChi[sub] đã mang giá trị mới
+        void creditsChanged(int sub, int oldCredits);
+    }
+
+    // Package-private cho ScoreAnalytics: chỉ đọc trong khóa đọc (read) hoặc trong các hàm Derived
+    static final class Data {
+        Derived derived;
+
+        // Sinh viên theo slot
+        final StringIntMap studentIndex;
+        int studentSlots;
+        String[] msv;               // null = slot đã xóa
+        String[] ten;
+        String[] queQuan;
+        long[] ngaySinh;            // epoch day, NO_DATE = NULL
+        double[] diemTb;
+        int[][] studentScores;      // id điểm của sinh viên
+        int[] studentScoreCount;
+
+        // Môn theo slot
+        final StringIntMap subjectIndex;
+        int subjectSlots;
+        String[] maMon;
+        String[] tenMon;
+        int[] soTinChi;
+        int[][] subjectScores;
+        int[] subjectScoreCount;
+
+        // Điểm theo Score.id
+        int scoreCount;
+        int[] scoreStudent;         // slot sinh viên, -1 = không có dòng
+        int[] scoreSubject;
+        double[] scoreDiem;         // NaN = NULL
+        int[] posInStudent;         // vị trí trong studentScores / subjectScores
+        int[] posInSubject;
+
+        Data(int students, int subjects, int maxScoreId) {
+            studentIndex = new StringIntMap(students);
+            msv = new String[Math.max(16, students)];
+            ten = new String[msv.length];
+            queQuan = new String[msv.length];
+            ngaySinh = new long[msv.length];
+            diemTb = new double[msv.length];
+            studentScores = new int[msv.length][];
+            studentScoreCount = new int[msv.length];
+
+            subjectIndex = new StringIntMap(subjects);
+            maMon = new String[Math.max(16, subjects)];
+            tenMon = new String[maMon.length];
+            soTinChi = new int[maMon.length];
+            subjectScores = new int[maMon.length][];
+            subjectScoreCount = new int[maMon.length];
+
+            scoreStudent = new int[maxScoreId + 1];
+            scoreSubject = new int[maxScoreId + 1];
+            scoreDiem = new double[maxScoreId + 1];
+            posInStudent = new int[maxScoreId + 1];
+            posInSubject = new int[maxScoreId + 1];
+            Arrays.fill(scoreStudent, -1);
+        }
+
+        static Data load(Connection conn) throws SQLException {
+            Data d = new Data(count(conn, "SELECT COUNT(*) FROM Student"),
+                    count(conn, "SELECT COUNT(*) FROM Subject"),
+                    count(conn, "SELECT COALESCE(MAX(id), 0) FROM Score"));
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT msv, ten, ngay_sinh, que_quan, diem_tb FROM Student")) {
+                while (rs.next()) {
+                    d.putStudent(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getDouble(5));
+                }
+            }
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT ma_mon, ten_mon, so_tin_chi FROM Subject")) {
+                while (rs.next()) d.putSubject(rs.getString(1), rs.getString(2), rs.getInt(3));
+            }
+            // Đếm trước để cấp danh sách theo sinh viên / môn đúng kích thước
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT id, msv, ma_mon, diem FROM Score")) {
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    int s = d.studentIndex.get(rs.getString(2));
+                    int sub = d.subjectIndex.get(rs.getString(3));
+                    if (s == StringIntMap.MISSING || sub == StringIntMap.MISSING) continue;
+                    double diem = rs.getDouble(4);
+                    d.scoreStudent[id] = s;
+                    d.scoreSubject[id] = sub;
+                    d.scoreDiem[id] = rs.wasNull() ? Double.NaN : diem;
+                    d.studentScoreCount[s]++;
+                    d.subjectScoreCount[sub]++;
+                }
+            }
+            for (int s = 0; s < d.studentSlots; s++) {
+                d.studentScores[s] = new int[Math.max(4, d.studentScoreCount[s])];
+                d.studentScoreCount[s] = 0;
+            }
+            for (int sub = 0; sub < d.subjectSlots; sub++) {
+                d.subjectScores[sub] = new int[Math.max(4, d.subjectScoreCount[sub])];
+                d.subjectScoreCount[sub] = 0;
+            }
+            for (int id = 0; id < d.scoreStudent.length; id++) {
+                if (d.scoreStudent[id] >= 0) d.link(id);
+            }
+            return d;
+        }
+
+        private static int count(Connection conn, String sql) throws SQLException {
+            try (Statement st = conn.createStatement();
+                 ResultSet rs = st.executeQuery(sql)) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+
+        void putStudent(String key, String name, String date, String hometown, double gpa) {
+            int s = studentIndex.get(key);
+            if (s == StringIntMap.MISSING) {
+                if (studentSlots == msv.length) growStudents();
+                s = studentSlots++;
+                msv[s] = key;
+                studentScores[s] = new int[4];
+                studentIndex.put(key, s);
+            }
+            ten[s] = name;
+            ngaySinh[s] = date != null ? LocalDate.parse(date).toEpochDay() : NO_DATE;
+            queQuan[s] = hometown;
+            diemTb[s] = gpa;
+        }
+
+        void putSubject(String key, String name, int credits) {
+            int sub = subjectIndex.get(key);
+            if (sub == StringIntMap.MISSING) {
+                if (subjectSlots == maMon.length) growSubjects();
+                sub = subjectSlots++;
+                maMon[sub] = key;
+                subjectScores[sub] = new int[4];
+                subjectIndex.put(key, sub);
+            }
+            tenMon[sub] = name;
+            int old = soTinChi[sub];
+            soTinChi[sub] = credits;
+            if (derived != null && old != credits) derived.creditsChanged(sub, old);
+        }
+
+        void removeStudent(String key) {
+            int s = studentIndex.get(key);
+            if (s == StringIntMap.MISSING) return;
+            studentIndex.remove(key);
+            msv[s] = null;
+            ten[s] = null;
+            queQuan[s] = null;
+        }
+
+        void removeSubject(String key) {
+            int sub = subjectIndex.get(key);
+            if (sub == StringIntMap.MISSING) return;
+            subjectIndex.remove(key);
+            maMon[sub] = null;
+            tenMon[sub] = null;
+        }
+
+        // diem = NaN: chưa nhập
+        void putScore(int id, String student, String subject, double diem) {
+            removeScore(id);
+            int s = studentIndex.get(student);
+            int sub = subjectIndex.get(subject);
+            if (s == StringIntMap.MISSING || sub == StringIntMap.MISSING) return;
+            if (id >= scoreStudent.length) growScores(id);
+            scoreStudent[id] = s;
+            scoreSubject[id] = sub;
+            scoreDiem[id] = diem;
+            link(id);
+            if (derived != null) derived.scoreAdded(id);
+        }
+
+        void removeScore(int id) {
+            if (id < 0 || id >= scoreStudent.length || scoreStudent[id] < 0) return;
+            if (derived != null) derived.scoreRemoving(id);
+            int s = scoreStudent[id];
+            int sub = scoreSubject[id];
+            // Đưa phần tử cuối danh sách vào chỗ trống
+            int last = studentScores[s][--studentScoreCount[s]];
+            studentScores[s][posInStudent[id]] = last;
+            posInStudent[last] = posInStudent[id];
+            last = subjectScores[sub][--subjectScoreCount[sub]];
+            subjectScores[sub][posInSubject[id]] = last;
+            posInSubject[last] = posInSubject[id];
+            scoreStudent[id] = -1;
+            scoreCount--;
+        }
+
+        private void link(int id) {
+            int s = scoreStudent[id];
+            int sub = scoreSubject[id];
+            if (studentScoreCount[s] == studentScores[s].length) {
+                studentScores[s] = Arrays.copyOf(studentScores[s], studentScores[s].length * 2);
+            }
+            if (subjectScoreCount[sub] == subjectScores[sub].length) {
+                subjectScores[sub] = Arrays.copyOf(subjectScores[sub], subjectScores[sub].length * 2);
+            }
+            posInStudent[id] = studentScoreCount[s];
+            studentScores[s][studentScoreCount[s]++] = id;
+            posInSubject[id] = subjectScoreCount[sub];
+            subjectScores[sub][subjectScoreCount[sub]++] = id;
+            scoreCount++;
+        }
+
+        private void growStudents() {
+            int cap = msv.length + (msv.length >> 1);
+            msv = Arrays.copyOf(msv, cap);
+            ten = Arrays.copyOf(ten, cap);
+            queQuan = Arrays.copyOf(queQuan, cap);
+            ngaySinh = Arrays.copyOf(ngaySinh, cap);
+            diemTb = Arrays.copyOf(diemTb, cap);
+            studentScores = Arrays.copyOf(studentScores, cap);
+            studentScoreCount = Arrays.copyOf(studentScoreCount, cap);
+        }
+
+        private void growSubjects() {
+            int cap = maMon.length * 2;
+            maMon = Arrays.copyOf(maMon, cap);
+            tenMon = Arrays.copyOf(tenMon, cap);
+            soTinChi = Arrays.copyOf(soTinChi, cap);
+            subjectScores = Arrays.copyOf(subjectScores, cap);
+            subjectScoreCount = Arrays.copyOf(subjectScoreCount, cap);
+        }
+
+        private void growScores(int id) {
+            int old = scoreStudent.length;
+            int cap = Math.max(id + 1, old + (old >> 1));
+            scoreStudent = Arrays.copyOf(scoreStudent, cap);
+            scoreSubject = Arrays.copyOf(scoreSubject, cap);
+            scoreDiem = Arrays.copyOf(scoreDiem, cap);
+            posInStudent = Arrays.copyOf(posInStudent, cap);
+            posInSubject = Arrays.copyOf(posInSubject, cap);
+            Arrays.fill(scoreStudent, old, cap, -1);
+        }
+
+        Student student(int s) {
+            return new Student(msv[s], ten[s], ngaySinh[s] == NO_DATE ? null : LocalDate.ofEpochDay(ngaySinh[s]),
+                    queQuan[s], diemTb[s]);
+        }
+
+        // Số lượng đăng ký = số dòng điểm của môn (trùng với cột so_luong_dang_ky do trigger giữ)
+        Subject subject(int sub, boolean withEnrollment) {
+            return new Subject(maMon[sub], tenMon[sub], soTinChi[sub],
+                    withEnrollment ? subjectScoreCount[sub] : Subject.ENROLLMENT_NOT_LOADED);
+        }
+
+        Score score(int id) {
+            return new Score(id, msv[scoreStudent[id]], maMon[scoreSubject[id]], diemOrZero(scoreDiem[id]));
+        }
+    }
+
+    // ============================
+    // Delta từ ChangeLog
+    // ============================
+    // Đọc hết các dòng thay đổi trước (ngoài khóa), rồi áp dụng trong khóa ghi
+    private static final class Delta {
+        final List<String> studentKeys = new ArrayList<>();
+        final List<String> subjectKeys = new ArrayList<>();
+        final List<Integer> scoreKeys = new ArrayList<>();
+        final List<Object[]> students = new ArrayList<>();
+        final List<Object[]> subjects = new ArrayList<>();
+        final List<Object[]> scores = new ArrayList<>();
+
+        int size() {
+            return studentKeys.size() + subjectKeys.size() + scoreKeys.size();
+        }
+
+        // null = quá nhiều thay đổi, nạp lại toàn bộ rẻ hơn
+        static Delta fetch(Connection conn, long since, long current) throws SQLException {
+            Delta d = new Delta();
+            if (!ChangeQuery.changedKeys(conn, since, current, d.studentKeys, d.subjectKeys, d.scoreKeys)) return null;
+            if (!d.studentKeys.isEmpty()) {
+                try (PreparedStatement ps = changedRows(conn, "SELECT msv, ten, ngay_sinh, que_quan, diem_tb FROM Student WHERE msv IN (",
+                        ChangeLog.STUDENT, since, current);
+                     ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        d.students.add(new Object[]{rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                                rs.getDouble(5)});
+                    }
+                }
+            }
+            if (!d.subjectKeys.isEmpty()) {
+                try (PreparedStatement ps = changedRows(conn, "SELECT ma_mon, ten_mon, so_tin_chi FROM Subject WHERE ma_mon IN (",
+                        ChangeLog.SUBJECT, since, current);
+                     ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) d.subjects.add(new Object[]{rs.getString(1), rs.getString(2), rs.getInt(3)});
+                }
+            }
+            if (!d.scoreKeys.isEmpty()) {
+                try (PreparedStatement ps = changedRows(conn, "SELECT id, msv, ma_mon, diem FROM Score WHERE id IN (",
+                        ChangeLog.SCORE, since, current);
+                     ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        double diem = rs.getDouble(4);
+                        d.scores.add(new Object[]{rs.getInt(1), rs.getString(2), rs.getString(3),
+                                rs.wasNull() ? Double.NaN : diem});
+                    }
+                }
+            }
+            return d;
+        }
+
+        private static PreparedStatement changedRows(Connection conn, String select, String entity,
+                                                     long since, long current) throws SQLException {
+            return ChangeQuery.prepare(conn, select + ChangeQuery.CHANGED_KEYS + ")", entity, since, current);
+        }
+
+        // Thứ tự: môn / sinh viên mới trước, rồi điểm, cuối cùng mới xóa môn / sinh viên (điểm bị
+        // cascade đã được gỡ ở bước điểm)
+        void applyTo(Data data) {
+            Set<String> goneSubjects = new HashSet<>(subjectKeys);
+            for (Object[] row : subjects) {
+                data.putSubject((String) row[0], (String) row[1], (Integer) row[2]);
+                goneSubjects.remove((String) row[0]);
+            }
+            Set<String> goneStudents = new HashSet<>(studentKeys);
+            for (Object[] row : students) {
+                data.putStudent((String) row[0], (String) row[1], (String) row[2], (String) row[3], (Double) row[4]);
+                goneStudents.remove((String) row[0]);
+            }
+            for (int id : scoreKeys) data.removeScore(id);
+            for (Object[] row : scores) data.putScore((Integer) row[0], (String) row[1], (String) row[2], (Double) row[3]);
+            for (String key : goneStudents) data.removeStudent(key);
+            for (String key : goneSubjects) data.removeSubject(key);
+        }
+    }
+}
@@ -0,0 +1,568 @@
+package service.impl;
+
+import model.LeaderboardEntry;
+import model.StudentRank;
+import model.SubjectStatistics;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+// Số liệu phân tích điểm tính trong bộ nhớ: xếp hạng sinh viên theo GPA có trọng số tín chỉ,
+// thống kê phân bố điểm và bảng vinh danh (top-K) từng môn / toàn trường.
+//  - Dữ liệu gốc là Data của ReadModel (bản nạp duy nhất của Student / Subject / Score, đồng bộ theo
+//    ChangeLog ở đó). Ở đây chỉ giữ Totals theo slot của Data: Σ(điểm × tín chỉ) và Σ tín chỉ của từng
+//    sinh viên (tính song song khi dựng); mỗi môn số lượng, Σ điểm, Σ điểm², histogram 1001 ô
+//    (0.01 điểm) và một Leaderboard; một Leaderboard GPA toàn trường.
+//  - Totals dựng lại cho mỗi lần ReadModel nạp toàn bộ; giữa hai lần nạp, ReadModel gọi hook khi áp
+//    dụng delta: điểm thêm / sửa / xóa trừ phần đóng góp cũ, cộng phần mới; môn đổi số tín chỉ tính
+//    lại phần đóng góp các điểm của môn.
+//  - Xếp hạng: mỗi lần làm mới dựng một Snapshot bất biến (sắp xếp song song); truy vấn đọc snapshot,
+//    không khóa.
+//  - Thống kê môn, bảng vinh danh: đọc thẳng từ số liệu tóm tắt của môn trong khóa đọc của ReadModel (không dựng
+//    snapshot); SubjectStatistics tính một lần rồi dùng lại tới khi hook đổi số liệu của môn.
+//    Server gọi warmUp() lúc khởi động nên truy vấn không phải chờ nạp.
+// Điểm NULL và môn 0 tín chỉ không tính vào GPA. GPA so sánh sau khi làm tròn 6 chữ số thập phân
+// (cộng dồn delta và tính lại từ đầu cho cùng thứ hạng); cùng GPA thì theo msv.
+// Cấu hình: -Dranking.refreshIntervalMs (khoảng cách tối thiểu giữa hai lần dựng snapshot),
+//           -Dstats.passMark (điểm đạt, mặc định 4.0),
+//           -Dleaderboard.maxK (k lớn nhất của getTopStudents, mặc định 100)
+final class ScoreAnalytics {
+
+    private static final long REFRESH_INTERVAL_MS = Long.getLong("ranking.refreshIntervalMs", 500L);
+
+    private static final double KEY_SCALE = 1_000_000.0;
+    private static final long MAX_KEY = 10_000_000L;   // GPA tối đa 10
+
+    // Histogram môn: ô b = điểm làm tròn tới 0.01 (b / 100)
+    private static final int BUCKETS = 1001;
+    private static final double PASS_MARK = Double.parseDouble(System.getProperty("stats.passMark", "4.0"));
+
+    static final int LEADERBOARD_MAX_K = Integer.getInteger("leaderboard.maxK", 100);
+
+    private static final Function<ReadModel.Data, ReadModel.Derived> TOTALS = Totals::new;
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    private static final ScoreAnalytics INSTANCE = new ScoreAnalytics();
+
+    private volatile long lastCheck;
+    private volatile Snapshot snapshot;
+
+    private ScoreAnalytics() {
+    }
+
+    static ScoreAnalytics get() {
+        return INSTANCE;
+    }
+
+    // ============================
+    // Truy vấn
+    // ============================
+    List<StudentRank> getRanking(int offset, int limit) throws SQLException {
+        Snapshot s = current();
+        List<StudentRank> list = new ArrayList<>();
+        int to = (int) Math.min(s.order.length, (long) offset + limit);
+        for (int i = offset; i < to; i++) list.add(s.entry(s.order[i]));
+        return list;
+    }
+
+    // null nếu không có sinh viên
+    StudentRank getStudentRank(String msv) throws SQLException {
+        if (msv == null) return null;
+        Snapshot s = current();
+        int idx = ReadModel.attach(TOTALS).read((data, version) ->
+                ((Totals) data.derived).generation == s.generation ? data.studentIndex.get(msv) : s.scan(msv));
+        // Slot thêm sau snapshot (>= msv.length) chưa có thứ hạng
+        if (idx < 0 || idx >= s.msv.length || !msv.equals(s.msv[idx])) return null;
+        return s.entry(idx);
+    }
+
+    // null nếu không có môn. Đọc số liệu tóm tắt của môn trong khóa đọc, không dựng snapshot
+    SubjectStatistics getSubjectStatistics(String maMon) throws SQLException {
+        return ReadModel.attach(TOTALS).read((data, version) -> {
+            int sub = data.subjectIndex.get(maMon);
+            return sub == StringIntMap.MISSING ? null : ((Totals) data.derived).statistics(sub);
+        });
+    }
+
+    // Theo mã môn
+    List<SubjectStatistics> getAllSubjectStatistics() throws SQLException {
+        List<SubjectStatistics> list = ReadModel.attach(TOTALS).read((data, version) -> {
+            List<SubjectStatistics> all = new ArrayList<>();
+            for (int sub = 0; sub < data.subjectSlots; sub++) {
+                if (data.maMon[sub] != null) all.add(((Totals) data.derived).statistics(sub));
+            }
+            return all;
+        });
+        list.sort(Comparator.comparing(SubjectStatistics::getMaMon));
+        return list;
+    }
+
+    // maMon null / rỗng: toàn trường theo GPA; môn không tồn tại: danh sách rỗng. Tối đa LEADERBOARD_MAX_K
+    // dòng, đọc thẳng bảng vinh danh trong khóa đọc (không chờ snapshot xếp hạng)
+    List<LeaderboardEntry> getTopStudents(String maMon, int k) throws SQLException {
+        int n = Math.min(k, LEADERBOARD_MAX_K);
+        return ReadModel.attach(TOTALS).read((data, version) -> {
+            Totals t = (Totals) data.derived;
+            if (maMon == null || maMon.isEmpty()) return t.top(t.gpaTop, n);
+            int sub = data.subjectIndex.get(maMon);
+            // Môn thêm sau lần hook cuối chưa có điểm
+            if (sub == StringIntMap.MISSING || sub >= t.subjectTop.length) return new ArrayList<LeaderboardEntry>();
+            return t.top(t.subjectTop[sub], n);
+        });
+    }
+
+    // Nạp mô hình đọc và dựng bảng xếp hạng trước khi nhận yêu cầu, để lời gọi đầu tiên không phải chờ
+    void warmUp() throws SQLException {
+        current();
+    }
+
+    private Snapshot current() throws SQLException {
+        Snapshot s = snapshot;
+        if (s != null && System.currentTimeMillis() - lastCheck < REFRESH_INTERVAL_MS) return s;
+        synchronized (this) {
+            if (snapshot == null || System.currentTimeMillis() - lastCheck >= REFRESH_INTERVAL_MS) {
+                refresh();
+                lastCheck = System.currentTimeMillis();
+            }
+            return snapshot;
+        }
+    }
+
+    // ============================
+    // Làm mới
+    // ============================
+    // Chép trạng thái trong khóa đọc của ReadModel, sắp xếp ngoài khóa
+    private void refresh() throws SQLException {
+        Snapshot old = snapshot;
+        Snapshot fresh = ReadModel.attach(TOTALS).read((data, version) -> {
+            Totals t = (Totals) data.derived;
+            if (old != null && old.generation == t.generation && old.version == version) return old;
+            return t.copy(version);
+        });
+        if (fresh != old) fresh.rank();
+        snapshot = fresh;
+    }
+
+    private static int bucket(double diem) {
+        return (int) Math.max(0, Math.min(BUCKETS - 1, Math.round(diem * 100)));
+    }
+
+    // ============================
+    // Tổng theo slot của một Data
+    // ============================
+    // Chỉ sửa trong các hook (khóa ghi của ReadModel) hoặc khi dựng snapshot (khóa đọc, một luồng
+    // nhờ synchronized của current); riêng subjectStats được điền khi đọc (khóa đọc, nhiều luồng)
+    private static final class Totals implements ReadModel.Derived {
+        final long generation = GENERATIONS.incrementAndGet();
+        final ReadModel.Data data;
+
+        double[] weighted = new double[0];   // Σ điểm × tín chỉ
+        int[] credits = new int[0];          // Σ tín chỉ
+
+        int[] subjectScores = new int[0];      // số điểm đã nhập
+        int[] subjectMissing = new int[0];     // số dòng điểm NULL
+        double[] subjectSum = new double[0];
+        double[] subjectSumSq = new double[0];
+        int[][] subjectHist = new int[0][];
+        Leaderboard[] subjectTop = new Leaderboard[0];
+        final Leaderboard gpaTop = new GpaBoard();
+        // SubjectStatistics đã tính của từng môn; hook đổi số liệu môn thì xóa (null), lần đọc sau tính lại
+        AtomicReferenceArray<SubjectStatistics> subjectStats = new AtomicReferenceArray<>(0);
+
+        Totals(ReadModel.Data d) {
+            long start = System.currentTimeMillis();
+            data = d;
+            ensureCapacity();
+            int scores = 0;
+            for (int id = 0; id < d.scoreStudent.length; id++) {
+                if (d.scoreStudent[id] < 0) continue;
+                addToSubject(id, 1);
+                scores++;
+            }
+            // Mỗi sinh viên một tác vụ độc lập trên danh sách điểm của mình
+            IntStream.range(0, d.studentSlots).parallel().forEach(s -> {
+                double w = 0;
+                int c = 0;
+                for (int k = 0; k < d.studentScoreCount[s]; k++) {
+                    int id = d.studentScores[s][k];
+                    int cr = d.soTinChi[d.scoreSubject[id]];
+                    double diem = d.scoreDiem[id];
+                    if (cr <= 0 || Double.isNaN(diem)) continue;
+                    w += diem * cr;
+                    c += cr;
+                }
+                weighted[s] = w;
+                credits[s] = c;
+            });
+            for (int s = 0; s < d.studentSlots; s++) offerGpa(s);
+            System.out.println(">>> Xếp hạng: đã tính " + d.studentSlots + " sinh viên, " + d.subjectSlots + " môn, "
+                    + scores + " điểm (" + (System.currentTimeMillis() - start) + " ms)");
+        }
+
+        @Override
+        public void scoreRemoving(int id) {
+            contribute(id, -1, data.soTinChi[data.scoreSubject[id]]);
+            rerank(data.scoreStudent[id]);
+            addToSubject(id, -1);
+        }
+
+        @Override
+        public void scoreAdded(int id) {
+            ensureCapacity();
+            contribute(id, 1, data.soTinChi[data.scoreSubject[id]]);
+            rerank(data.scoreStudent[id]);
+            addToSubject(id, 1);
+        }
+
+        @Override
+        public void creditsChanged(int sub, int oldCredits) {
+            ensureCapacity();
+            subjectStats.set(sub, null);
+            for (int k = 0; k < data.subjectScoreCount[sub]; k++) {
+                int id = data.subjectScores[sub][k];
+                contribute(id, -1, oldCredits);
+                contribute(id, 1, data.soTinChi[sub]);
+                rerank(data.scoreStudent[id]);
+            }
+        }
+
+        // Slot mới của Data (sinh viên / môn thêm sau khi dựng)
+        private void ensureCapacity() {
+            if (weighted.length < data.studentSlots) {
+                int cap = Math.max(data.studentSlots, weighted.length + (weighted.length >> 1));
+                weighted = Arrays.copyOf(weighted, cap);
+                credits = Arrays.copyOf(credits, cap);
+            }
+            if (subjectTop.length < data.subjectSlots) {
+                int old = subjectTop.length;
+                int cap = Math.max(data.subjectSlots, Math.max(16, old * 2));
+                subjectScores = Arrays.copyOf(subjectScores, cap);
+                subjectMissing = Arrays.copyOf(subjectMissing, cap);
+                subjectSum = Arrays.copyOf(subjectSum, cap);
+                subjectSumSq = Arrays.copyOf(subjectSumSq, cap);
+                subjectHist = Arrays.copyOf(subjectHist, cap);
+                subjectTop = Arrays.copyOf(subjectTop, cap);
+                AtomicReferenceArray<SubjectStatistics> stats = new AtomicReferenceArray<>(cap);
+                for (int sub = 0; sub < old; sub++) stats.set(sub, subjectStats.get(sub));
+                subjectStats = stats;
+                for (int sub = old; sub < cap; sub++) {
+                    subjectHist[sub] = new int[BUCKETS];
+                    subjectTop[sub] = new ScoreBoard(sub);
+                }
+            }
+        }
+
+        private void contribute(int id, int sign, int cr) {
+            double d = data.scoreDiem[id];
+            if (cr <= 0 || Double.isNaN(d)) return;
+            int s = data.scoreStudent[id];
+            weighted[s] += sign * d * cr;
+            credits[s] += sign * cr;
+        }
+
+        // GPA của sinh viên vừa đổi: gỡ khỏi bảng toàn trường rồi đưa vào lại theo GPA mới
+        private void rerank(int s) {
+            gpaTop.remove(s);
+            offerGpa(s);
+        }
+
+        private void offerGpa(int s) {
+            if (credits[s] > 0 && data.msv[s] != null) gpaTop.offer(s);
+        }
+
+        private long gpaKey(int s) {
+            return Math.round(weighted[s] / credits[s] * KEY_SCALE);
+        }
+
+        private void addToSubject(int id, int sign) {
+            int sub = data.scoreSubject[id];
+            double d = data.scoreDiem[id];
+            subjectStats.set(sub, null);
+            if (Double.isNaN(d)) {
+                subjectMissing[sub] += sign;
+                return;
+            }
+            subjectScores[sub] += sign;
+            subjectSum[sub] += sign * d;
+            subjectSumSq[sub] += sign * d * d;
+            subjectHist[sub][bucket(d)] += sign;
+            if (sign > 0) subjectTop[sub].offer(id);
+            else subjectTop[sub].remove(id);
+        }
+
+        // Giữ khóa đọc của ReadModel: chép những gì snapshot cần, phần sắp xếp làm sau (Snapshot.rank).
+        // Slot sinh viên thêm sau lần hook cuối (chưa có điểm) được Arrays.copyOf điền 0
+        Snapshot copy(long version) {
+            int n = data.studentSlots;
+            return new Snapshot(generation, version, Arrays.copyOf(data.msv, n), Arrays.copyOf(data.ten, n),
+                    Arrays.copyOf(weighted, n), Arrays.copyOf(credits, n));
+        }
+
+        // Giữ khóa đọc (nhiều luồng đọc cùng lúc): tính lại môn bị hook xóa số liệu, các môn khác dùng lại.
+        // Đổi tên môn không qua hook nên so lại với Data
+        SubjectStatistics statistics(int sub) {
+            if (sub >= subjectStats.length()) return summarize(sub);   // môn thêm sau lần hook cuối, chưa có điểm
+            SubjectStatistics st = subjectStats.get(sub);
+            if (st == null || !Objects.equals(st.getTenMon(), data.tenMon[sub])) {
+                st = summarize(sub);
+                subjectStats.set(sub, st);
+            }
+            return st;
+        }
+
+        // Một lượt qua histogram: min / max, tứ phân vị (nearest-rank), số đạt, histogram 10 ô
+        private SubjectStatistics summarize(int sub) {
+            boolean known = sub < subjectScores.length;
+            int n = known ? subjectScores[sub] : 0;
+            int missing = known ? subjectMissing[sub] : 0;
+            int[] hist = known ? subjectHist[sub] : null;
+            int[] coarse = new int[10];
+            double mean = n > 0 ? subjectSum[sub] / n : 0;
+            double variance = n > 0 ? Math.max(0, subjectSumSq[sub] / n - mean * mean) : 0;
+            long r1 = (n + 3) / 4, r2 = (n + 1) / 2, r3 = (3L * n + 3) / 4;
+            double min = 0, q1 = 0, median = 0, q3 = 0, max = 0;
+            int pass = 0;
+            int passBucket = (int) Math.round(PASS_MARK * 100);
+            long seen = 0;
+            for (int b = 0; b < BUCKETS && n > 0; b++) {
+                int c = hist[b];
+                if (c == 0) continue;
+                double v = b / 100.0;
+                if (seen == 0) min = v;
+                max = v;
+                if (seen < r1 && seen + c >= r1) q1 = v;
+                if (seen < r2 && seen + c >= r2) median = v;
+                if (seen < r3 && seen + c >= r3) q3 = v;
+                if (b >= passBucket) pass += c;
+                coarse[Math.min(9, b / 100)] += c;
+                seen += c;
+            }
+            return new SubjectStatistics(data.maMon[sub], data.tenMon[sub], data.soTinChi[sub], n, missing,
+                    mean, Math.sqrt(variance), min, q1, median, q3, max, PASS_MARK, pass, coarse);
+        }
+
+        // Giữ khóa đọc (nhiều luồng đọc cùng lúc, hook không chạy): bảng quét lại dưới monitor của nó
+        // khi xóa / hạ điểm đã làm bảng còn dưới maxK dòng
+        List<LeaderboardEntry> top(Leaderboard board, int k) {
+            synchronized (board) {
+                if (board.needsRefill()) {
+                    board.reset();
+                    board.refill();
+                }
+                return board.entries(k);
+            }
+        }
+
+        // Bảng vinh danh: giữ tối đa 2 × maxK phần tử tốt nhất (cùng giá trị theo msv); các phần tử đang giữ
+        // luôn đúng là top-size. truncated = còn phần tử không được giữ (đều không tốt hơn phần tử cuối),
+        // nên phần tử mới kém hơn phần tử cuối bị bỏ qua. Xóa phần tử đang giữ chỉ làm bảng ngắn lại;
+        // phần dư maxK hấp thụ các lần xóa, chỉ khi còn dưới maxK phần tử mới phải quét lại.
+        private abstract class Leaderboard {
+            private final int[] ids = new int[2 * LEADERBOARD_MAX_K];
+            private int size;
+            private boolean truncated;
+
+            void offer(int id) {
+                boolean beatsLast = size == 0 ? !truncated : better(id, ids[size - 1]);
+                if (!beatsLast && (truncated || size == ids.length)) {
+                    truncated = true;
+                    return;
+                }
+                if (size == ids.length) {
+                    size--;                 // đẩy phần tử cuối ra
+                    truncated = true;
+                }
+                int pos = size;
+                while (pos > 0 && better(id, ids[pos - 1])) {
+                    ids[pos] = ids[pos - 1];
+                    pos--;
+                }
+                ids[pos] = id;
+                size++;
+            }
+
+            void remove(int id) {
+                for (int i = 0; i < size; i++) {
+                    if (ids[i] == id) {
+                        System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                        size--;
+                        return;
+                    }
+                }
+            }
+
+            boolean needsRefill() {
+                return truncated && size < LEADERBOARD_MAX_K;
+            }
+
+            void reset() {
+                size = 0;
+                truncated = false;
+            }
+
+            // Cùng hạng với phần tử liền trước khi bằng giá trị
+            List<LeaderboardEntry> entries(int k) {
+                List<LeaderboardEntry> out = new ArrayList<>();
+                int rank = 0;
+                for (int i = 0; i < Math.min(k, size); i++) {
+                    if (i == 0 || !tied(ids[i], ids[i - 1])) rank = i + 1;
+                    out.add(entry(ids[i], rank));
+                }
+                return out;
+            }
+
+            // offer() lại mọi phần tử của bảng
+            abstract void refill();
+
+            abstract boolean better(int a, int b);
+
+            abstract boolean tied(int a, int b);
+
+            abstract LeaderboardEntry entry(int id, int rank);
+        }
+
+        // Một môn: id dòng điểm, điểm giảm dần
+        private final class ScoreBoard extends Leaderboard {
+            private final int sub;
+
+            ScoreBoard(int sub) {
+                this.sub = sub;
+            }
+
+            @Override
+            void refill() {
+                for (int k = 0; k < data.subjectScoreCount[sub]; k++) {
+                    int id = data.subjectScores[sub][k];
+                    if (!Double.isNaN(data.scoreDiem[id])) offer(id);
+                }
+            }
+
+            @Override
+            boolean better(int a, int b) {
+                int c = Double.compare(data.scoreDiem[a], data.scoreDiem[b]);
+                return c != 0 ? c > 0 : data.msv[data.scoreStudent[a]].compareTo(data.msv[data.scoreStudent[b]]) < 0;
+            }
+
+            @Override
+            boolean tied(int a, int b) {
+                return data.scoreDiem[a] == data.scoreDiem[b];
+            }
+
+            @Override
+            LeaderboardEntry entry(int id, int rank) {
+                int s = data.scoreStudent[id];
+                return new LeaderboardEntry(rank, data.msv[s], data.ten[s], data.scoreDiem[id]);
+            }
+        }
+
+        // Toàn trường: slot sinh viên, GPA (làm tròn như Snapshot.rank) giảm dần
+        private final class GpaBoard extends Leaderboard {
+            @Override
+            void refill() {
+                for (int s = 0; s < Math.min(data.studentSlots, credits.length); s++) offerGpa(s);
+            }
+
+            @Override
+            boolean better(int a, int b) {
+                int c = Long.compare(gpaKey(a), gpaKey(b));
+                return c != 0 ? c > 0 : data.msv[a].compareTo(data.msv[b]) < 0;
+            }
+
+            @Override
+            boolean tied(int a, int b) {
+                return gpaKey(a) == gpaKey(b);
+            }
+
+            @Override
+            LeaderboardEntry entry(int s, int rank) {
+                return new LeaderboardEntry(rank, data.msv[s], data.ten[s], weighted[s] / credits[s]);
+            }
+        }
+    }
+
+    // ============================
+    // Snapshot bất biến cho truy vấn
+    // ============================
+    private static final class Snapshot {
+        final long generation;   // Totals (lần nạp Data) đã dựng snapshot
+        final long version;
+        final String[] msv;      // theo slot của Data, null = đã xóa
+        final String[] ten;
+        final double[] weighted;
+        final int[] credits;
+        // Tính trong rank(), trước khi công bố
+        double[] gpa;
+        int[] rank;
+        double[] percentile;
+        int[] order;             // slot sinh viên theo thứ hạng
+
+        Snapshot(long generation, long version, String[] msv, String[] ten, double[] weighted, int[] credits) {
+            this.generation = generation;
+            this.version = version;
+            this.msv = msv;
+            this.ten = ten;
+            this.weighted = weighted;
+            this.credits = credits;
+        }
+
+        void rank() {
+            int n = msv.length;
+            gpa = new double[n];
+            IntStream.range(0, n).parallel().forEach(i -> gpa[i] = credits[i] > 0 ? weighted[i] / credits[i] : 0);
+
+            int ranked = 0;
+            for (int i = 0; i < n; i++) if (credits[i] > 0 && msv[i] != null) ranked++;
+            // khóa = (MAX_KEY - GPA làm tròn) << 32 | slot sinh viên: sắp tăng dần = GPA giảm dần
+            long[] keys = new long[ranked];
+            for (int i = 0, k = 0; i < n; i++) {
+                if (credits[i] > 0 && msv[i] != null) keys[k++] = ((MAX_KEY - Math.round(gpa[i] * KEY_SCALE)) << 32) | i;
+            }
+            Arrays.parallelSort(keys);
+
+            order = new int[ranked];
+            rank = new int[n];
+            percentile = new double[n];
+            for (int i = 0; i < ranked; ) {
+                long q = keys[i] >>> 32;
+                int j = i;
+                while (j < ranked && keys[j] >>> 32 == q) j++;
+                for (int k = i; k < j; k++) order[k] = (int) keys[k];
+                // Slot theo thứ tự thêm vào Data, không theo msv: sắp lại nhóm cùng GPA
+                if (j - i > 1) sortByMsv(i, j);
+                double below = 100.0 * (ranked - j) / ranked;
+                for (int k = i; k < j; k++) {
+                    rank[order[k]] = i + 1;
+                    percentile[order[k]] = below;
+                }
+                i = j;
+            }
+        }
+
+        private void sortByMsv(int from, int to) {
+            Integer[] group = new Integer[to - from];
+            for (int k = from; k < to; k++) group[k - from] = order[k];
+            Arrays.sort(group, (a, b) -> msv[a].compareTo(msv[b]));
+            for (int k = from; k < to; k++) order[k] = group[k - from];
+        }
+
+        // Slot của msv khi Data đã được nạp lại sau snapshot; -1 nếu không có
+        int scan(String key) {
+            for (int s = 0; s < msv.length; s++) {
+                if (key.equals(msv[s])) return s;
+            }
+            return -1;
+        }
+
+        StudentRank entry(int s) {
+            return new StudentRank(msv[s], ten[s], gpa[s], credits[s], rank[s], order.length, percentile[s]);
+        }
+    }
+}
@@ -1,40 +1,43 @@
 package service.impl;
 
+import model.BatchResult;
+import model.ChangeSet;
+import model.Page;
+import model.PageRequest;
 import model.Score;
+import model.ScoreColumns;
+import service.RemoteCursor;
+import service.RemoteChangeListener;
 import service.ScoreService;
+import util.ChangeLog;
+import util.CompressingSocketFactory;
 import util.DBUtil;
 
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class ScoreServiceImpl extends UnicastRemoteObject implements ScoreService {
 
-    public ScoreServiceImpl() throws RemoteException {
-        super();
-        createTableIfNotExists();
-    }
+    private static final PagedQuery PAGE_QUERY = new PagedQuery(
+            "SELECT id, msv, ma_mon, diem FROM Score", "id")
+            .number("id", true)
+            .text("msv", true)
+            .text("ma_mon", true)
+            .number("diem", true)
+            .notNull("msv", "ma_mon");
 
-    // ============================
-    // Tạo bảng Score nếu chưa có
-    // ============================
-    private void createTableIfNotExists() {
-        String sql = "CREATE TABLE IF NOT EXISTS Score (" +
-                     "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                     "msv TEXT NOT NULL, " +
-                     "ma_mon TEXT NOT NULL, " +
-                     "diem REAL CHECK (diem >= 0 AND diem <= 10), " +
-                     "FOREIGN KEY (msv) REFERENCES Student(msv) ON DELETE CASCADE, " +
-                     "FOREIGN KEY (ma_mon) REFERENCES Subject(ma_mon) ON DELETE CASCADE, " +
-                     "UNIQUE(msv, ma_mon))";
-        try (Connection conn = DBUtil.getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.executeUpdate(sql);
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    private static final ChangeQuery CHANGES = new ChangeQuery(ChangeLog.SCORE,
+            "SELECT id, msv, ma_mon, diem FROM Score", "Score", "id");
+
+    private static final int DEFAULT_COLUMN_CHUNK = 10_000;
+    private static final int MAX_COLUMN_CHUNK = 50_000;
+
+    public ScoreServiceImpl() throws RemoteException {
+        super(0, CompressingSocketFactory.getDefault(), CompressingSocketFactory.getDefault());
     }
 
     // ============================
@@ -42,9 +45,11 @@ public class ScoreServiceImpl extends UnicastRemoteObject implements ScoreServic
     // ============================
     @Override
     public List<Score> getAllScores() throws RemoteException {
+        ReadModel model = ReadModel.active();
+        if (model != null) return model.getAllScores();
         List<Score> list = new ArrayList<>();
         String sql = "SELECT * FROM Score";
-        try (Connection conn = DBUtil.getConnection();
+        try (Connection conn = DBUtil.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
@@ -61,13 +66,81 @@ public class ScoreServiceImpl extends UnicastRemoteObject implements ScoreServic
         return list;
     }
 
+    // ============================
+    // Lấy một trang điểm (keyset)
+    // ============================
+    @Override
+    public Page<Score> getScoresPage(PageRequest request) throws RemoteException {
+        try (Connection conn = DBUtil.getReadConnection()) {
+            return PAGE_QUERY.fetch(conn, request, rs -> new Score(
+                    rs.getInt("id"),
+                    rs.getString("msv"),
+                    rs.getString("ma_mon"),
+                    rs.getDouble("diem")
+            ));
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi lấy trang điểm", e);
+        }
+    }
+
+    // ============================
+    // Con trỏ đọc theo khối
+    // ============================
+    @Override
+    public RemoteCursor<Score> openScoreCursor(int chunkSize) throws RemoteException {
+        return new KeysetCursor<>(ScoreServiceImpl::loadChunk, Score::getId, 0, chunkSize);
+    }
+
+    @Override
+    public ScoreColumns getScoreColumns(int afterId, int limit) throws RemoteException {
+        int n = Math.max(1, Math.min(limit <= 0 ? DEFAULT_COLUMN_CHUNK : limit, MAX_COLUMN_CHUNK));
+        String sql = "SELECT id, msv, ma_mon, diem FROM Score WHERE id > ? ORDER BY id LIMIT ?";
+        try (Connection conn = DBUtil.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, afterId);
+            ps.setInt(2, n);
+            ScoreColumns.Builder b = new ScoreColumns.Builder(n);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    b.add(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getDouble(4));
+                }
+            }
+            return b.build();
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi đọc bảng điểm", e);
+        }
+    }
+
+    private static List<Score> loadChunk(int afterId, int limit) throws SQLException {
+        List<Score> list = new ArrayList<>(limit);
+        String sql = "SELECT id, msv, ma_mon, diem FROM Score WHERE id > ? ORDER BY id LIMIT ?";
+        try (Connection conn = DBUtil.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, afterId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new Score(
+                            rs.getInt("id"),
+                            rs.getString("msv"),
+                            rs.getString("ma_mon"),
+                            rs.getDouble("diem")
+                    ));
+                }
+            }
+        }
+        return list;
+    }
+
     // ============================
     // Tìm điểm theo id
     // ============================
     @Override
     public Score findScoreById(int id) throws RemoteException {
+        ReadModel model = ReadModel.active();
+        if (model != null) return model.findScore(id);
         String sql = "SELECT * FROM Score WHERE id = ?";
-        try (Connection conn = DBUtil.getConnection();
+        try (Connection conn = DBUtil.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, id);
             ResultSet rs = ps.executeQuery();
@@ -91,12 +164,15 @@ public class ScoreServiceImpl extends UnicastRemoteObject implements ScoreServic
     @Override
     public void addScore(Score score) throws RemoteException {
         String sql = "INSERT INTO Score(msv, ma_mon, diem) VALUES(?, ?, ?)";
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, score.getMsv());
-            ps.setString(2, score.getMaMon());
-            ps.setDouble(3, score.getDiem());
-            ps.executeUpdate();
+        try {
+            WriteQueue.get().execute(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setString(1, score.getMsv());
+                    ps.setString(2, score.getMaMon());
+                    ps.setDouble(3, score.getDiem());
+                    return ps.executeUpdate();
+                }
+            });
         } catch (SQLException e) {
             throw new RemoteException("Lỗi khi thêm điểm", e);
         }
@@ -108,11 +184,14 @@ public class ScoreServiceImpl extends UnicastRemoteObject implements ScoreServic
     @Override
     public void updateScore(Score score) throws RemoteException {
         String sql = "UPDATE Score SET diem = ? WHERE id = ?";
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setDouble(1, score.getDiem());
-            ps.setInt(2, score.getId());
-            ps.executeUpdate();
+        try {
+            WriteQueue.get().execute(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setDouble(1, score.getDiem());
+                    ps.setInt(2, score.getId());
+                    return ps.executeUpdate();
+                }
+            });
         } catch (SQLException e) {
             throw new RemoteException("Lỗi khi cập nhật điểm", e);
         }
@@ -124,14 +203,96 @@ public class ScoreServiceImpl extends UnicastRemoteObject implements ScoreServic
     @Override
     public void deleteScore(int id) throws RemoteException {
         String sql = "DELETE FROM Score WHERE id = ?";
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            ps.executeUpdate();
+        try {
+            WriteQueue.get().execute(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setInt(1, id);
+                    return ps.executeUpdate();
+                }
+            });
         } catch (SQLException e) {
             throw new RemoteException("Lỗi khi xóa điểm", e);
         }
     }
 
+    // ============================
+    // Ghi hàng loạt
+    // ============================
+    @Override
+    public BatchResult addScores(List<Score> scores) throws RemoteException {
+        String sql = "INSERT INTO Score(msv, ma_mon, diem) VALUES(?, ?, ?)";
+        try {
+            return BatchExecutor.run(sql, scores, ScoreServiceImpl::validate, (ps, s) -> {
+                ps.setString(1, s.getMsv());
+                ps.setString(2, s.getMaMon());
+                ps.setDouble(3, s.getDiem());
+            }, null);
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi thêm điểm hàng loạt", e);
+        }
+    }
+
+    @Override
+    public BatchResult updateScores(List<Score> scores) throws RemoteException {
+        String sql = "UPDATE Score SET diem = ? WHERE id = ?";
+        try {
+            return BatchExecutor.run(sql, scores, s -> s.getId() <= 0 ? "Thiếu id điểm" : validateDiem(s.getDiem()),
+                    (ps, s) -> {
+                        ps.setDouble(1, s.getDiem());
+                        ps.setInt(2, s.getId());
+                    }, "Không tìm thấy điểm");
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi cập nhật điểm hàng loạt", e);
+        }
+    }
+
+    @Override
+    public BatchResult deleteScores(int[] ids) throws RemoteException {
+        String sql = "DELETE FROM Score WHERE id = ?";
+        try {
+            return BatchExecutor.run(sql, Arrays.stream(ids).boxed().toList(), id -> null,
+                    (ps, id) -> ps.setInt(1, id), "Không tìm thấy điểm");
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi xóa điểm hàng loạt", e);
+        }
+    }
+
+    // ============================
+    // Đồng bộ delta
+    // ============================
+    @Override
+    public ChangeSet<Score, Integer> getChangesSince(long version) throws RemoteException {
+        try (Connection conn = DBUtil.getReadConnection()) {
+            return CHANGES.fetch(conn, version, rs -> new Score(
+                    rs.getInt("id"),
+                    rs.getString("msv"),
+                    rs.getString("ma_mon"),
+                    rs.getDouble("diem")
+            ), ResultSet::getInt);
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi lấy thay đổi điểm", e);
+        }
+    }
+
+    @Override
+    public void registerListener(RemoteChangeListener listener) throws RemoteException {
+        ChangeNotifier.get().register(ChangeLog.SCORE, listener);
+    }
+
+    @Override
+    public void unregisterListener(RemoteChangeListener listener) throws RemoteException {
+        ChangeNotifier.get().unregister(listener);
+    }
+
+    private static String validate(Score s) {
+        if (s.getMsv() == null || s.getMsv().isBlank()) return "MSV không được trống";
+        if (s.getMaMon() == null || s.getMaMon().isBlank()) return "Mã môn không được trống";
+        return validateDiem(s.getDiem());
+    }
+
+    private static String validateDiem(double diem) {
+        return diem >= 0 && diem <= 10 ? null : "Điểm phải trong khoảng 0 - 10";
+    }
+
 
 }
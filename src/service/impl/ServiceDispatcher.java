@@ -0,0 +1,191 @@
+package service.impl;
+
+import service.ImportService;
+import util.AdmissionGate;
+import util.CompressingSocketFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.rmi.NoSuchObjectException;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Lớp điều phối đứng trước các service impl: mỗi lời gọi RMI phải qua cổng của nhóm thao tác
+// trước khi chạy, nên số lời gọi thực sự chạy đồng thời (và bộ nhớ chúng giữ) có giới hạn.
+//  - read : truy vấn thường (trang, tìm kiếm, chi tiết, delta)
+//  - bulk : getAll* (trừ getAllSubjectStatistics), getScoreColumns, open*Cursor và mỗi RemoteCursor.next()
+//           — tải cả bảng / từng khối lớn, tốn bộ nhớ nhất
+//  - write: add* / update* / delete* và các bước nhập CSV
+// Đăng ký / hủy listener không qua cổng. Quá tải -> RemoteException ngay (hàng chờ đầy) hoặc
+// sau tối đa maxWaitMs, client thử lại sau.
+// Cấu hình: -Ddispatch.<read|bulk|write>.permits / .queue / .maxWaitMs, -Ddispatch.statsIntervalSec
+public final class ServiceDispatcher {
+
+    private static final int CPUS = Runtime.getRuntime().availableProcessors();
+
+    private static final AdmissionGate READ = gate("read", Math.max(8, 2 * CPUS), 200, 3_000L);
+    private static final AdmissionGate BULK = gate("bulk", 2, 16, 15_000L);
+    private static final AdmissionGate WRITE = gate("write", 4, 100, 5_000L);
+
+    private static final long STATS_INTERVAL_SEC = Long.getLong("dispatch.statsIntervalSec", 0L);
+    private static ScheduledExecutorService statsLogger;
+
+    private ServiceDispatcher() {
+    }
+
+    private static AdmissionGate gate(String name, int permits, int queue, long maxWaitMs) {
+        return new AdmissionGate(name,
+                Integer.getInteger("dispatch." + name + ".permits", permits),
+                Integer.getInteger("dispatch." + name + ".queue", queue),
+                Long.getLong("dispatch." + name + ".maxWaitMs", maxWaitMs));
+    }
+
+    // Export service qua cổng điều phối. impl (UnicastRemoteObject) đã tự export trong constructor:
+    // gỡ bản đó ra để client chỉ gọi được qua proxy, dùng cùng socket factory (nén) như trước.
+    public static <T extends Remote> T export(Class<T> type, T impl) throws RemoteException {
+        try {
+            UnicastRemoteObject.unexportObject(impl, true);
+        } catch (NoSuchObjectException ignored) {
+        }
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new Handler(type, impl));
+        UnicastRemoteObject.exportObject((Remote) proxy, 0,
+                CompressingSocketFactory.getDefault(), CompressingSocketFactory.getDefault());
+        return type.cast(proxy);
+    }
+
+    // Hạn chờ phản hồi cho callback tới client (ChangeNotifier); gọi trước mọi lời gọi RMI
+    public static void configureCallbackTimeout() {
+        ChangeNotifier.configureCallbackTimeout();
+    }
+
+    // Nạp mô hình đọc + bảng xếp hạng trước khi bind service: xếp hạng / thống kê / vinh danh không phải
+    // chờ nạp ở lời gọi đầu tiên. Lỗi thì chỉ in ra, lời gọi đầu tiên sẽ thử nạp lại
+    public static void warmUpAnalytics() {
+        long start = System.currentTimeMillis();
+        try {
+            ScoreAnalytics.get().warmUp();
+            System.out.println(">>> Số liệu phân tích đã sẵn sàng (" + (System.currentTimeMillis() - start) + " ms).");
+        } catch (SQLException e) {
+            System.err.println("!!! Không nạp trước được số liệu phân tích: " + e.getMessage());
+        }
+    }
+
+    public static List<AdmissionGate.Stats> getGateStats() {
+        return List.of(READ.getStats(), BULK.getStats(), WRITE.getStats());
+    }
+
+    // Số liệu hàng đợi ghi (group commit) phía sau cổng write
+    public static String writeQueueSummary() {
+        return WriteQueue.get().statsSummary();
+    }
+
+    // In số liệu các cổng theo chu kỳ (tắt mặc định)
+    public static synchronized void startStatsLogging() {
+        if (STATS_INTERVAL_SEC <= 0 || statsLogger != null) return;
+        statsLogger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dispatch-stats");
+            t.setDaemon(true);
+            return t;
+        });
+        statsLogger.scheduleAtFixedRate(() -> getGateStats().forEach(st -> System.out.println(">>> " + st)),
+                STATS_INTERVAL_SEC, STATS_INTERVAL_SEC, TimeUnit.SECONDS);
+    }
+
+    // Con trỏ (KeysetCursor) tự export, không đi qua proxy: mỗi next() tự lấy suất của cổng này
+    static AdmissionGate cursorGate() {
+        return BULK;
+    }
+
+    // Chờ suất của cổng; quá tải -> RemoteException. Thành công thì người gọi phải gate.exit()
+    static void admit(AdmissionGate gate, String call) throws RemoteException {
+        AdmissionGate.Admission admission;
+        try {
+            admission = gate.enter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RemoteException("Bị ngắt khi chờ xử lý " + call);
+        }
+        if (admission == AdmissionGate.Admission.QUEUE_FULL) {
+            throw new RemoteException("Server đang quá tải (" + gate.getName() + ": " + gate.getMaxConcurrent()
+                    + " đang chạy, " + gate.getMaxQueue() + " đang chờ), vui lòng thử lại sau");
+        }
+        if (admission == AdmissionGate.Admission.TIMED_OUT) {
+            throw new RemoteException("Server đang quá tải (" + gate.getName() + ": chờ quá "
+                    + gate.getMaxWaitMillis() + " ms), vui lòng thử lại sau");
+        }
+    }
+
+    static AdmissionGate classify(Method method) {
+        String name = method.getName();
+        if (name.equals("registerListener") || name.equals("unregisterListener")) return null;
+        if (name.startsWith("add") || name.startsWith("update") || name.startsWith("delete")
+                || method.getDeclaringClass() == ImportService.class) {
+            return WRITE;
+        }
+        // Thống kê môn đọc từ số liệu tóm tắt trong bộ nhớ, không tải cả bảng
+        if (name.equals("getAllSubjectStatistics")) return READ;
+        if (name.startsWith("getAll") || name.startsWith("open") || name.equals("getScoreColumns")) return BULK;
+        return READ;
+    }
+
+    // ============================
+    // Proxy
+    // ============================
+    private static final class Handler implements InvocationHandler {
+        private final Object target;
+        private final String service;
+        private final Map<Method, AdmissionGate> gates = new HashMap<>();
+
+        Handler(Class<?> type, Object target) {
+            this.target = target;
+            this.service = type.getSimpleName();
+            for (Method m : type.getMethods()) gates.put(m, classify(m));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    if (method.getParameterCount() == 1) return proxy == args[0];
+                    break;
+                case "hashCode":
+                    if (method.getParameterCount() == 0) return System.identityHashCode(proxy);
+                    break;
+                case "toString":
+                    if (method.getParameterCount() == 0) return "Dispatched[" + service + "]";
+                    break;
+                default:
+                    break;
+            }
+
+            AdmissionGate gate = gates.get(method);
+            if (gate == null) return call(method, args);
+
+            admit(gate, service + "." + method.getName());
+            try {
+                return call(method, args);
+            } finally {
+                gate.exit();
+            }
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package service.impl;
+
+// Map String -> int địa chỉ mở (dò tuyến tính): khóa và giá trị nằm trong hai mảng song song,
+// không có object Entry / Integer cho mỗi phần tử. Xóa bằng dịch lùi nên không cần tombstone.
+// Không đồng bộ: người dùng tự khóa.
+final class StringIntMap {
+
+    static final int MISSING = -1;
+
+    private String[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    StringIntMap(int expected) {
+        int cap = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new String[cap];
+        values = new int[cap];
+        mask = cap - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // MISSING nếu không có (kể cả key null)
+    int get(String key) {
+        if (key == null) return MISSING;
+        for (int i = slot(key); keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i].equals(key)) return values[i];
+        }
+        return MISSING;
+    }
+
+    void put(String key, int value) {
+        int i = slot(key);
+        for (; keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i].equals(key)) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) resize();
+    }
+
+    void remove(String key) {
+        if (key == null) return;
+        int i = slot(key);
+        while (keys[i] != null && !keys[i].equals(key)) i = (i + 1) & mask;
+        if (keys[i] == null) return;
+        size--;
+        // Dịch lùi các khóa phía sau cùng cụm nếu ô gốc của chúng không nằm trong (i, j]
+        for (int j = (i + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            boolean between = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (!between) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        keys[i] = null;
+    }
+
+    private int slot(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void resize() {
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new String[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        mask = keys.length - 1;
+        for (int k = 0; k < oldKeys.length; k++) {
+            if (oldKeys[k] == null) continue;
+            int i = slot(oldKeys[k]);
+            while (keys[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[k];
+            values[i] = oldValues[k];
+        }
+    }
+}
@@ -1,8 +1,20 @@
 package service.impl;
 
+import model.BatchResult;
+import model.LeaderboardEntry;
+import model.ChangeSet;
+import model.Page;
+import model.PageRequest;
 import model.Student;
+import model.StudentRank;
+import model.StudentTranscript;
+import service.RemoteCursor;
+import service.RemoteChangeListener;
 import service.StudentService;
+import util.ChangeLog;
+import util.CompressingSocketFactory;
 import util.DBUtil;
+import util.StudentSearchIndex;
 
 import java.rmi.RemoteException;
 import java.rmi.server.UnicastRemoteObject;
@@ -13,18 +25,35 @@ import java.util.List;
 
 public class StudentServiceImpl extends UnicastRemoteObject implements StudentService {
 
+    // diem_tb được lưu sẵn trên Student (trigger cập nhật khi bảng Score thay đổi)
+    private static final PagedQuery PAGE_QUERY = new PagedQuery(
+            "SELECT msv, ten, ngay_sinh, que_quan, diem_tb FROM Student", "msv")
+            .text("msv", true)
+            .text("ten", true)
+            .text("ngay_sinh", true)
+            .text("que_quan", true)
+            .number("diem_tb", false)
+            .notNull("ten", "diem_tb");
+
+    private static final ChangeQuery CHANGES = new ChangeQuery(ChangeLog.STUDENT,
+            "SELECT msv, ten, ngay_sinh, que_quan, diem_tb FROM Student", "Student", "msv");
+
+    private static final int SEARCH_DEFAULT_LIMIT = 50;
+    private static final int SEARCH_MAX_LIMIT = 500;
+    private static final int RANKING_DEFAULT_LIMIT = 50;
+    private static final int RANKING_MAX_LIMIT = 1000;
+
     public StudentServiceImpl() throws RemoteException {
-        super();
+        super(0, CompressingSocketFactory.getDefault(), CompressingSocketFactory.getDefault());
     }
 
     @Override
     public List<Student> getAllStudents() throws RemoteException {
+        ReadModel model = ReadModel.active();
+        if (model != null) return model.getAllStudents();
         List<Student> list = new ArrayList<>();
-        String sql = "SELECT s.msv, s.ten, s.ngay_sinh, s.que_quan, " +
-                     "COALESCE(AVG(sc.diem), 0) AS diem_tb " +
-                     "FROM Student s LEFT JOIN Score sc ON s.msv = sc.msv " +
-                     "GROUP BY s.msv";
-        try (Connection conn = DBUtil.getConnection();
+        String sql = "SELECT msv, ten, ngay_sinh, que_quan, diem_tb FROM Student";
+        try (Connection conn = DBUtil.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -47,10 +76,54 @@ public class StudentServiceImpl extends UnicastRemoteObject implements StudentSe
         return list;
     }
 
+    @Override
+    public Page<Student> getStudentsPage(PageRequest request) throws RemoteException {
+        try (Connection conn = DBUtil.getReadConnection()) {
+            return PAGE_QUERY.fetch(conn, request, rs -> new Student(
+                    rs.getString("msv"),
+                    rs.getString("ten"),
+                    rs.getString("ngay_sinh") != null ? LocalDate.parse(rs.getString("ngay_sinh")) : null,
+                    rs.getString("que_quan"),
+                    rs.getDouble("diem_tb")
+            ));
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi lấy trang sinh viên", e);
+        }
+    }
+
+    @Override
+    public RemoteCursor<Student> openStudentCursor(int chunkSize) throws RemoteException {
+        return new KeysetCursor<>(StudentServiceImpl::loadChunk, Student::getMsv, "", chunkSize);
+    }
+
+    private static List<Student> loadChunk(String afterMsv, int limit) throws SQLException {
+        List<Student> list = new ArrayList<>(limit);
+        String sql = "SELECT msv, ten, ngay_sinh, que_quan, diem_tb FROM Student WHERE msv > ? ORDER BY msv LIMIT ?";
+        try (Connection conn = DBUtil.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, afterMsv);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new Student(
+                            rs.getString("msv"),
+                            rs.getString("ten"),
+                            rs.getString("ngay_sinh") != null ? LocalDate.parse(rs.getString("ngay_sinh")) : null,
+                            rs.getString("que_quan"),
+                            rs.getDouble("diem_tb")
+                    ));
+                }
+            }
+        }
+        return list;
+    }
+
     @Override
     public Student findStudentById(String msv) throws RemoteException {
-        String sql = "SELECT msv, ten, ngay_sinh, que_quan FROM Student WHERE msv = ?";
-        try (Connection conn = DBUtil.getConnection();
+        ReadModel model = ReadModel.active();
+        if (model != null) return model.findStudent(msv);
+        String sql = "SELECT msv, ten, ngay_sinh, que_quan, diem_tb FROM Student WHERE msv = ?";
+        try (Connection conn = DBUtil.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setString(1, msv);
@@ -66,7 +139,7 @@ public class StudentServiceImpl extends UnicastRemoteObject implements StudentSe
                         rs.getString("ten"),
                         ngaySinh,
                         rs.getString("que_quan"),
-                        0.0
+                        rs.getDouble("diem_tb")
                 );
             }
         } catch (Exception e) {
@@ -76,50 +149,203 @@ public class StudentServiceImpl extends UnicastRemoteObject implements StudentSe
     }
 
     @Override
-    public void addStudent(Student student) throws RemoteException {
-        String sql = "INSERT INTO Student(msv, ten, ngay_sinh, que_quan) VALUES(?, ?, ?, ?)";
-        try (Connection conn = DBUtil.getConnection();
+    public StudentTranscript getStudentTranscript(String msv) throws RemoteException {
+        ReadModel model = ReadModel.active();
+        if (model != null) return model.getTranscript(msv);
+        // Một truy vấn: Student theo khóa chính, Score theo index (msv, ma_mon), Subject theo khóa chính.
+        // LEFT JOIN để sinh viên chưa có điểm vẫn trả về một dòng (các cột điểm NULL)
+        String sql = "SELECT s.msv, s.ten, s.ngay_sinh, s.que_quan, s.diem_tb, " +
+                     "sc.id, sc.ma_mon, sub.ten_mon, sub.so_tin_chi, sc.diem " +
+                     "FROM Student s " +
+                     "LEFT JOIN Score sc ON sc.msv = s.msv " +
+                     "LEFT JOIN Subject sub ON sub.ma_mon = sc.ma_mon " +
+                     "WHERE s.msv = ? ORDER BY sc.ma_mon";
+        try (Connection conn = DBUtil.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, msv);
+            try (ResultSet rs = ps.executeQuery()) {
+                Student student = null;
+                List<StudentTranscript.Entry> entries = new ArrayList<>();
+                while (rs.next()) {
+                    if (student == null) {
+                        student = new Student(
+                                rs.getString("msv"),
+                                rs.getString("ten"),
+                                rs.getString("ngay_sinh") != null ? LocalDate.parse(rs.getString("ngay_sinh")) : null,
+                                rs.getString("que_quan"),
+                                rs.getDouble("diem_tb")
+                        );
+                    }
+                    if (rs.getString("ma_mon") == null) continue;
+                    String tenMon = rs.getString("ten_mon");
+                    entries.add(new StudentTranscript.Entry(
+                            rs.getInt("id"),
+                            rs.getString("ma_mon"),
+                            tenMon != null ? tenMon : rs.getString("ma_mon"),
+                            rs.getInt("so_tin_chi"),
+                            rs.getDouble("diem")
+                    ));
+                }
+                return student != null ? new StudentTranscript(student, entries) : null;
+            }
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi lấy bảng điểm sinh viên", e);
+        }
+    }
 
-            ps.setString(1, student.getMsv());
-            ps.setString(2, student.getTen());
-            ps.setString(3, student.getNgaySinh() != null ? student.getNgaySinh().toString() : null);
-            ps.setString(4, student.getQueQuan());
-            ps.executeUpdate();
+    @Override
+    public List<Student> searchStudents(String query, int limit) throws RemoteException {
+        List<Student> list = new ArrayList<>();
+        String match = StudentSearchIndex.toMatchQuery(query);
+        if (match == null) return list;
+        int n = Math.max(1, Math.min(limit <= 0 ? SEARCH_DEFAULT_LIMIT : limit, SEARCH_MAX_LIMIT));
+        // bm25: trùng msv được ưu tiên nhất, rồi đến tên, cuối cùng là quê quán
+        String sql = "SELECT s.msv, s.ten, s.ngay_sinh, s.que_quan, s.diem_tb " +
+                     "FROM student_fts f JOIN Student s ON s.rowid = f.rowid " +
+                     "WHERE student_fts MATCH ? " +
+                     "ORDER BY bm25(student_fts, 10.0, 5.0, 1.0), s.msv LIMIT ?";
+        try (Connection conn = DBUtil.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, match);
+            ps.setInt(2, n);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new Student(
+                            rs.getString("msv"),
+                            rs.getString("ten"),
+                            rs.getString("ngay_sinh") != null ? LocalDate.parse(rs.getString("ngay_sinh")) : null,
+                            rs.getString("que_quan"),
+                            rs.getDouble("diem_tb")
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi tìm kiếm sinh viên", e);
+        }
+        return list;
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+    @Override
+    public List<StudentRank> getRanking(int offset, int limit) throws RemoteException {
+        int n = Math.max(1, Math.min(limit <= 0 ? RANKING_DEFAULT_LIMIT : limit, RANKING_MAX_LIMIT));
+        try {
+            return ScoreAnalytics.get().getRanking(Math.max(0, offset), n);
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi lấy bảng xếp hạng", e);
         }
     }
 
     @Override
-    public void updateStudent(Student student) throws RemoteException {
-        String sql = "UPDATE Student SET ten=?, ngay_sinh=?, que_quan=? WHERE msv=?";
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    public StudentRank getStudentRank(String msv) throws RemoteException {
+        try {
+            return ScoreAnalytics.get().getStudentRank(msv);
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi lấy thứ hạng sinh viên", e);
+        }
+    }
 
-            ps.setString(1, student.getTen());
-            ps.setString(2, student.getNgaySinh() != null ? student.getNgaySinh().toString() : null);
-            ps.setString(3, student.getQueQuan());
-            ps.setString(4, student.getMsv());
-            ps.executeUpdate();
+    @Override
+    public List<LeaderboardEntry> getTopStudents(String maMon, int k) throws RemoteException {
+        int n = Math.max(1, Math.min(k <= 0 ? ScoreAnalytics.LEADERBOARD_MAX_K : k, RANKING_MAX_LIMIT));
+        try {
+            return ScoreAnalytics.get().getTopStudents(maMon, n);
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi lấy bảng vinh danh", e);
+        }
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+    @Override
+    public void addStudent(Student student) throws RemoteException {
+        String sql = "INSERT INTO Student(msv, ten, ngay_sinh, que_quan) VALUES(?, ?, ?, ?)";
+        try {
+            WriteQueue.get().execute(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setString(1, student.getMsv());
+                    ps.setString(2, student.getTen());
+                    ps.setString(3, student.getNgaySinh() != null ? student.getNgaySinh().toString() : null);
+                    ps.setString(4, student.getQueQuan());
+                    return ps.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi thêm sinh viên", e);
+        }
+    }
+
+    @Override
+    public void updateStudent(Student student) throws RemoteException {
+        String sql = "UPDATE Student SET ten=?, ngay_sinh=?, que_quan=? WHERE msv=?";
+        try {
+            WriteQueue.get().execute(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setString(1, student.getTen());
+                    ps.setString(2, student.getNgaySinh() != null ? student.getNgaySinh().toString() : null);
+                    ps.setString(3, student.getQueQuan());
+                    ps.setString(4, student.getMsv());
+                    return ps.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi cập nhật sinh viên", e);
         }
     }
 
     @Override
     public void deleteStudent(String msv) throws RemoteException {
         String sql = "DELETE FROM Student WHERE msv=?";
-        try (Connection conn = DBUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try {
+            WriteQueue.get().execute(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setString(1, msv);
+                    return ps.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi xóa sinh viên", e);
+        }
+    }
 
-            ps.setString(1, msv);
-            ps.executeUpdate();
+    @Override
+    public BatchResult addStudents(List<Student> students) throws RemoteException {
+        String sql = "INSERT INTO Student(msv, ten, ngay_sinh, que_quan) VALUES(?, ?, ?, ?)";
+        try {
+            return BatchExecutor.run(sql, students, s -> {
+                if (s.getMsv() == null || s.getMsv().isBlank()) return "MSV không được trống";
+                if (s.getTen() == null || s.getTen().isBlank()) return "Tên không được trống";
+                return null;
+            }, (ps, s) -> {
+                ps.setString(1, s.getMsv());
+                ps.setString(2, s.getTen());
+                ps.setString(3, s.getNgaySinh() != null ? s.getNgaySinh().toString() : null);
+                ps.setString(4, s.getQueQuan());
+            }, null);
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi thêm sinh viên hàng loạt", e);
+        }
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+    @Override
+    public ChangeSet<Student, String> getChangesSince(long version) throws RemoteException {
+        try (Connection conn = DBUtil.getReadConnection()) {
+            return CHANGES.fetch(conn, version, rs -> new Student(
+                    rs.getString("msv"),
+                    rs.getString("ten"),
+                    rs.getString("ngay_sinh") != null ? LocalDate.parse(rs.getString("ngay_sinh")) : null,
+                    rs.getString("que_quan"),
+                    rs.getDouble("diem_tb")
+            ), ResultSet::getString);
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi lấy thay đổi sinh viên", e);
         }
     }
+
+    @Override
+    public void registerListener(RemoteChangeListener listener) throws RemoteException {
+        ChangeNotifier.get().register(ChangeLog.STUDENT, listener);
+    }
+
+    @Override
+    public void unregisterListener(RemoteChangeListener listener) throws RemoteException {
+        ChangeNotifier.get().unregister(listener);
+    }
 }
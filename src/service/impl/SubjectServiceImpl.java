@@ -1,7 +1,14 @@
 package service.impl;
 
+import model.ChangeSet;
+import model.Page;
+import model.PageRequest;
 import model.Subject;
+import model.SubjectStatistics;
+import service.RemoteChangeListener;
 import service.SubjectService;
+import util.ChangeLog;
+import util.CompressingSocketFactory;
 import util.DBUtil;
 
 import java.rmi.RemoteException;
@@ -13,40 +20,32 @@ import java.util.List;
 public class SubjectServiceImpl extends UnicastRemoteObject implements SubjectService {
 
     private static final long serialVersionUID = 1L;
-    private final Connection conn;
 
-    public SubjectServiceImpl() throws RemoteException, SQLException {
-        super();
-        this.conn = DBUtil.getConnection();
-        createTableIfNotExists();
-    }
+    // so_luong_dang_ky được lưu sẵn trên Subject (trigger cập nhật khi bảng Score thay đổi)
+    private static final PagedQuery PAGE_QUERY = new PagedQuery(
+            "SELECT ma_mon, ten_mon, so_tin_chi, so_luong_dang_ky FROM Subject", "ma_mon")
+            .text("ma_mon", true)
+            .text("ten_mon", true)
+            .number("so_tin_chi", false)
+            .number("so_luong_dang_ky", false)
+            .notNull("ten_mon", "so_tin_chi", "so_luong_dang_ky");
 
-    private void createTableIfNotExists() {
-        try (Statement st = conn.createStatement()) {
-            String sql = """
-                    CREATE TABLE IF NOT EXISTS subject (
-                        ma_mon VARCHAR(20) PRIMARY KEY,
-                        ten_mon VARCHAR(100) NOT NULL,
-                        so_tin_chi INT NOT NULL
-                    )
-                    """;
-            st.execute(sql);
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    private static final ChangeQuery CHANGES = new ChangeQuery(ChangeLog.SUBJECT,
+            "SELECT ma_mon, ten_mon, so_tin_chi, so_luong_dang_ky FROM Subject", "Subject", "ma_mon");
+
+    public SubjectServiceImpl() throws RemoteException {
+        super(0, CompressingSocketFactory.getDefault(), CompressingSocketFactory.getDefault());
     }
 
     @Override
     public List<Subject> getAllSubjects() throws RemoteException {
+        ReadModel model = ReadModel.active();
+        if (model != null) return model.getAllSubjects();
         List<Subject> list = new ArrayList<>();
-        String sql =
-                "SELECT s.ma_mon, s.ten_mon, s.so_tin_chi, " +
-                "       COUNT(sc.msv) AS so_luong_dang_ky " +
-                "FROM subject s " +
-                "LEFT JOIN score sc ON s.ma_mon = sc.ma_mon " +
-                "GROUP BY s.ma_mon, s.ten_mon, s.so_tin_chi";
-
-        try (Statement st = conn.createStatement();
+        String sql = "SELECT ma_mon, ten_mon, so_tin_chi, so_luong_dang_ky FROM Subject";
+
+        try (Connection conn = DBUtil.getReadConnection();
+             Statement st = conn.createStatement();
              ResultSet rs = st.executeQuery(sql)) {
 
             while (rs.next()) {
@@ -66,15 +65,34 @@ public class SubjectServiceImpl extends UnicastRemoteObject implements SubjectSe
         return list;
     }
 
+    @Override
+    public Page<Subject> getSubjectsPage(PageRequest request) throws RemoteException {
+        try (Connection conn = DBUtil.getReadConnection()) {
+            return PAGE_QUERY.fetch(conn, request, rs -> new Subject(
+                    rs.getString("ma_mon"),
+                    rs.getString("ten_mon"),
+                    rs.getInt("so_tin_chi"),
+                    rs.getInt("so_luong_dang_ky")
+            ));
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi lấy trang môn học", e);
+        }
+    }
+
     @Override
     public Subject findSubjectById(String maMon) throws RemoteException {
-        String sql = "SELECT s.ma_mon, s.ten_mon, s.so_tin_chi, " +
-                     "COUNT(sc.msv) AS so_luong_dang_ky " +
-                     "FROM subject s " +
-                     "LEFT JOIN score sc ON s.ma_mon = sc.ma_mon " +
-                     "WHERE s.ma_mon = ? " +
-                     "GROUP BY s.ma_mon, s.ten_mon, s.so_tin_chi";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        return findSubjectById(maMon, true);
+    }
+
+    @Override
+    public Subject findSubjectById(String maMon, boolean withEnrollment) throws RemoteException {
+        ReadModel model = ReadModel.active();
+        if (model != null) return model.findSubject(maMon, withEnrollment);
+        String sql = withEnrollment
+                ? "SELECT ma_mon, ten_mon, so_tin_chi, so_luong_dang_ky FROM Subject WHERE ma_mon = ?"
+                : "SELECT ma_mon, ten_mon, so_tin_chi FROM Subject WHERE ma_mon = ?";
+        try (Connection conn = DBUtil.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, maMon);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
@@ -82,7 +100,7 @@ public class SubjectServiceImpl extends UnicastRemoteObject implements SubjectSe
                             rs.getString("ma_mon"),
                             rs.getString("ten_mon"),
                             rs.getInt("so_tin_chi"),
-                            rs.getInt("so_luong_dang_ky")
+                            withEnrollment ? rs.getInt("so_luong_dang_ky") : Subject.ENROLLMENT_NOT_LOADED
                     );
                 }
             }
@@ -92,14 +110,52 @@ public class SubjectServiceImpl extends UnicastRemoteObject implements SubjectSe
         return null;
     }
 
+    @Override
+    public int getEnrollmentCount(String maMon) throws RemoteException {
+        ReadModel model = ReadModel.active();
+        if (model != null) return model.getEnrollmentCount(maMon);
+        String sql = "SELECT so_luong_dang_ky FROM Subject WHERE ma_mon = ?";
+        try (Connection conn = DBUtil.getReadConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, maMon);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi lấy số lượng đăng ký", e);
+        }
+    }
+
+    @Override
+    public SubjectStatistics getSubjectStatistics(String maMon) throws RemoteException {
+        try {
+            return ScoreAnalytics.get().getSubjectStatistics(maMon);
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi lấy thống kê môn học", e);
+        }
+    }
+
+    @Override
+    public List<SubjectStatistics> getAllSubjectStatistics() throws RemoteException {
+        try {
+            return ScoreAnalytics.get().getAllSubjectStatistics();
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi lấy thống kê môn học", e);
+        }
+    }
+
     @Override
     public void addSubject(Subject s) throws RemoteException {
-        String sql = "INSERT INTO subject(ma_mon, ten_mon, so_tin_chi) VALUES (?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, s.getMaMon());
-            ps.setString(2, s.getTenMon());
-            ps.setInt(3, s.getSoTinChi());
-            ps.executeUpdate();
+        String sql = "INSERT INTO Subject(ma_mon, ten_mon, so_tin_chi) VALUES (?, ?, ?)";
+        try {
+            WriteQueue.get().execute(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setString(1, s.getMaMon());
+                    ps.setString(2, s.getTenMon());
+                    ps.setInt(3, s.getSoTinChi());
+                    return ps.executeUpdate();
+                }
+            });
         } catch (SQLException e) {
             e.printStackTrace();
             throw new RemoteException("Lỗi khi thêm môn học", e);
@@ -108,12 +164,16 @@ public class SubjectServiceImpl extends UnicastRemoteObject implements SubjectSe
 
     @Override
     public void updateSubject(Subject s) throws RemoteException {
-        String sql = "UPDATE subject SET ten_mon=?, so_tin_chi=? WHERE ma_mon=?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, s.getTenMon());
-            ps.setInt(2, s.getSoTinChi());
-            ps.setString(3, s.getMaMon());
-            ps.executeUpdate();
+        String sql = "UPDATE Subject SET ten_mon=?, so_tin_chi=? WHERE ma_mon=?";
+        try {
+            WriteQueue.get().execute(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setString(1, s.getTenMon());
+                    ps.setInt(2, s.getSoTinChi());
+                    ps.setString(3, s.getMaMon());
+                    return ps.executeUpdate();
+                }
+            });
         } catch (SQLException e) {
             e.printStackTrace();
             throw new RemoteException("Lỗi khi cập nhật môn học", e);
@@ -122,13 +182,41 @@ public class SubjectServiceImpl extends UnicastRemoteObject implements SubjectSe
 
     @Override
     public void deleteSubject(String maMon) throws RemoteException {
-        String sql = "DELETE FROM subject WHERE ma_mon=?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, maMon);
-            ps.executeUpdate();
+        String sql = "DELETE FROM Subject WHERE ma_mon=?";
+        try {
+            WriteQueue.get().execute(conn -> {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setString(1, maMon);
+                    return ps.executeUpdate();
+                }
+            });
         } catch (SQLException e) {
             e.printStackTrace();
             throw new RemoteException("Lỗi khi xóa môn học", e);
         }
     }
+
+    @Override
+    public ChangeSet<Subject, String> getChangesSince(long version) throws RemoteException {
+        try (Connection conn = DBUtil.getReadConnection()) {
+            return CHANGES.fetch(conn, version, rs -> new Subject(
+                    rs.getString("ma_mon"),
+                    rs.getString("ten_mon"),
+                    rs.getInt("so_tin_chi"),
+                    rs.getInt("so_luong_dang_ky")
+            ), ResultSet::getString);
+        } catch (SQLException e) {
+            throw new RemoteException("Lỗi khi lấy thay đổi môn học", e);
+        }
+    }
+
+    @Override
+    public void registerListener(RemoteChangeListener listener) throws RemoteException {
+        ChangeNotifier.get().register(ChangeLog.SUBJECT, listener);
+    }
+
+    @Override
+    public void unregisterListener(RemoteChangeListener listener) throws RemoteException {
+        ChangeNotifier.get().unregister(listener);
+    }
 }
@@ -0,0 +1,224 @@
+package service.impl;
+
+import util.DBUtil;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Hàng đợi ghi một luồng (group commit): mọi thao tác ghi của các service impl được đưa cho một
+// luồng writer duy nhất. Writer gom các yêu cầu đang chờ vào một giao dịch, mỗi yêu cầu chạy trong
+// SAVEPOINT riêng (lỗi của yêu cầu này chỉ rollback phần của nó), rồi commit một lần — một lần
+// fsync cho cả nhóm thay vì mỗi dòng một lần, và không còn nhiều kết nối tranh khóa ghi (SQLITE_BUSY).
+// Người gọi chờ tới khi nhóm chứa yêu cầu của mình đã commit rồi nhận kết quả / lỗi của riêng mình.
+// Cấu hình: -Dwrites.maxBatch (số yêu cầu tối đa mỗi giao dịch),
+//           -Dwrites.commitWindowMicros (chờ thêm yêu cầu trước khi commit, mặc định 0 = chỉ gom
+//           những yêu cầu đã đến trong lúc giao dịch trước đang chạy)
+final class WriteQueue {
+
+    interface Mutation<T> {
+        T apply(Connection conn) throws SQLException;
+    }
+
+    private static final int MAX_BATCH = Integer.getInteger("writes.maxBatch", 512);
+    private static final long COMMIT_WINDOW_MICROS = Long.getLong("writes.commitWindowMicros", 0L);
+
+    private static final WriteQueue INSTANCE = new WriteQueue();
+
+    private final LinkedBlockingQueue<Request<?>> queue = new LinkedBlockingQueue<>();
+    private Thread writer;
+
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicInteger maxGroup = new AtomicInteger();
+
+    private WriteQueue() {
+    }
+
+    static WriteQueue get() {
+        return INSTANCE;
+    }
+
+    // Chạy mutation trên luồng writer, chờ tới khi giao dịch chứa nó đã commit
+    <T> T execute(Mutation<T> mutation) throws SQLException {
+        if (Thread.currentThread() == writer) {
+            throw new IllegalStateException("Không được gửi yêu cầu ghi từ chính luồng writer");
+        }
+        ensureStarted();
+        Request<T> request = new Request<>(mutation);
+        queue.add(request);
+        return request.await();
+    }
+
+    String statsSummary() {
+        long c = commits.sum();
+        long r = requests.sum();
+        return "Hàng đợi ghi: " + r + " yêu cầu / " + c + " giao dịch"
+                + (c == 0 ? "" : String.format(" (trung bình %.1f, tối đa %d mỗi giao dịch)", (double) r / c, maxGroup.get()))
+                + ", lỗi " + failed.sum() + ", đang chờ " + queue.size();
+    }
+
+    // ============================
+    // Luồng writer
+    // ============================
+    private synchronized void ensureStarted() {
+        if (writer != null) return;
+        writer = new Thread(this::runWriter, "db-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void runWriter() {
+        List<Request<?>> group = new ArrayList<>();
+        while (true) {
+            try {
+                collect(group);
+                commitGroup(group);
+            } catch (RuntimeException e) {
+                for (Request<?> r : group) r.finish(new SQLException("Lỗi luồng ghi: " + e.getMessage(), e));
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    // Gom các yêu cầu đang chờ thành một nhóm. Không ai dừng writer có chủ đích, và writer thoát thì
+    // mọi execute() sau đó chờ mãi, nên cờ ngắt bị bỏ qua: nhóm đã gom vẫn được ghi.
+    private void collect(List<Request<?>> group) {
+        while (group.isEmpty()) {
+            try {
+                group.add(queue.take());
+            } catch (InterruptedException ignored) {
+                // chờ tiếp
+            }
+        }
+        if (COMMIT_WINDOW_MICROS > 0) {
+            long deadline = System.nanoTime() + COMMIT_WINDOW_MICROS * 1000;
+            try {
+                Request<?> next;
+                while (group.size() < MAX_BATCH
+                        && (next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) != null) {
+                    group.add(next);
+                }
+            } catch (InterruptedException ignored) {
+                // commit ngay với những gì đã gom
+            }
+        }
+        queue.drainTo(group, MAX_BATCH - group.size());
+    }
+
+    private void commitGroup(List<Request<?>> group) {
+        SQLException groupError = null;
+        try (Connection conn = DBUtil.getWriteConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (group.size() == 1) {
+                    // Một yêu cầu: không cần savepoint, lỗi thì rollback cả giao dịch
+                    Request<?> r = group.get(0);
+                    try {
+                        r.apply(conn);
+                        conn.commit();
+                    } catch (SQLException | RuntimeException e) {
+                        conn.rollback();
+                        r.fail(e instanceof SQLException ? (SQLException) e : new SQLException(e.getMessage(), e));
+                    }
+                } else {
+                    for (Request<?> r : group) {
+                        Savepoint sp = conn.setSavepoint();
+                        try {
+                            r.apply(conn);
+                            conn.releaseSavepoint(sp);
+                        } catch (SQLException | RuntimeException e) {
+                            conn.rollback(sp);
+                            conn.releaseSavepoint(sp);
+                            r.fail(e instanceof SQLException ? (SQLException) e : new SQLException(e.getMessage(), e));
+                        }
+                    }
+                    conn.commit();
+                }
+            } catch (SQLException e) {
+                // Lỗi ngoài từng yêu cầu (savepoint / commit): cả nhóm không được ghi
+                try { conn.rollback(); } catch (SQLException ignored) {}
+                groupError = e;
+            } finally {
+                // Lỗi ở đây không đổi kết quả của nhóm: giao dịch đã commit / rollback xong
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    System.err.println("!!! Không đặt lại autoCommit cho kết nối ghi: " + e.getMessage());
+                }
+            }
+            // Cập nhật mô hình đọc trước khi trả kết quả: người gọi đọc lại thấy ngay thay đổi của mình
+            // (delta lớn / đang bận thì mô hình chỉ bị đánh dấu cũ, không nạp lại trên luồng này)
+            if (groupError == null) ReadModel.syncAfterCommit(conn);
+        } catch (SQLException e) {
+            if (groupError == null) groupError = e;
+        }
+
+        commits.increment();
+        requests.add(group.size());
+        maxGroup.accumulateAndGet(group.size(), Math::max);
+        for (Request<?> r : group) {
+            if (groupError != null) r.finish(groupError);
+            else r.finish(null);
+            if (r.error != null) failed.increment();
+        }
+    }
+
+    // ============================
+    // Một yêu cầu ghi
+    // ============================
+    private static final class Request<T> {
+        private final Mutation<T> mutation;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private T result;
+        private SQLException error;
+
+        Request(Mutation<T> mutation) {
+            this.mutation = mutation;
+        }
+
+        // Chỉ chạy trên luồng writer
+        void apply(Connection conn) throws SQLException {
+            result = mutation.apply(conn);
+        }
+
+        void fail(SQLException e) {
+            error = e;
+        }
+
+        // groupError != null: giao dịch của cả nhóm thất bại, kể cả yêu cầu đã chạy được
+        void finish(SQLException groupError) {
+            if (groupError != null && error == null) {
+                error = groupError;
+                result = null;
+            }
+            done.countDown();
+        }
+
+        T await() throws SQLException {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    done.await();
+                    break;
+                } catch (InterruptedException e) {
+                    // Yêu cầu có thể đã được commit: vẫn chờ kết quả thật, khôi phục cờ ngắt sau
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            // Bọc lại để giữ stack trace của luồng gọi
+            if (error != null) throw new SQLException(error.getMessage(), error.getSQLState(), error.getErrorCode(), error);
+            return result;
+        }
+    }
+}
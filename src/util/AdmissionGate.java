@@ -0,0 +1,172 @@
+package util;
+
+import java.io.Serializable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Giới hạn số lời gọi chạy đồng thời cho một nhóm thao tác.
+// Tối đa maxConcurrent lời gọi chạy cùng lúc, tối đa maxQueue lời gọi chờ; lời gọi đến khi hàng
+// chờ đã đầy bị từ chối ngay, lời gọi chờ quá maxWaitMillis cũng bị từ chối — server quá tải trả
+// lỗi nhanh thay vì giữ thêm luồng và bộ nhớ.
+public class AdmissionGate {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitMillis;
+
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    // Metrics
+    private final LongAdder admittedCount = new LongAdder();
+    private final LongAdder queueFullCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicInteger maxQueued = new AtomicInteger();
+
+    public AdmissionGate(String name, int maxConcurrent, int maxQueue, long maxWaitMillis) {
+        if (maxConcurrent <= 0) throw new IllegalArgumentException("maxConcurrent phải > 0");
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitMillis = maxWaitMillis;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    // Kết quả của enter()
+    public enum Admission { ADMITTED, QUEUE_FULL, TIMED_OUT }
+
+    // ADMITTED thì phải gọi exit() khi xong
+    public Admission enter() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            admitted(0);
+            return Admission.ADMITTED;
+        }
+        int depth = queued.incrementAndGet();
+        if (depth > maxQueue) {
+            queued.decrementAndGet();
+            queueFullCount.increment();
+            return Admission.QUEUE_FULL;
+        }
+        maxQueued.accumulateAndGet(depth, Math::max);
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } finally {
+            queued.decrementAndGet();
+        }
+        long waited = System.nanoTime() - start;
+        if (!acquired) {
+            timeoutCount.increment();
+            return Admission.TIMED_OUT;
+        }
+        admitted(waited);
+        return Admission.ADMITTED;
+    }
+
+    public void exit() {
+        active.decrementAndGet();
+        permits.release();
+    }
+
+    private void admitted(long waitedNanos) {
+        active.incrementAndGet();
+        admittedCount.increment();
+        totalWaitNanos.add(waitedNanos);
+        maxWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public Stats getStats() {
+        long admitted = admittedCount.sum();
+        return new Stats(name, maxConcurrent, maxQueue, active.get(), queued.get(), maxQueued.get(),
+                admitted, admitted == 0 ? 0 : totalWaitNanos.sum() / admitted / 1000,
+                maxWaitNanos.get() / 1000, queueFullCount.sum(), timeoutCount.sum());
+    }
+
+    // Ảnh chụp số liệu của cổng (thời gian tính bằng micro giây)
+    public static final class Stats implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final int maxConcurrent;
+        private final int maxQueue;
+        private final int active;
+        private final int queued;
+        private final int maxQueued;
+        private final long admittedCount;
+        private final long avgWaitMicros;
+        private final long maxWaitMicros;
+        private final long queueFullCount;
+        private final long timeoutCount;
+
+        Stats(String name, int maxConcurrent, int maxQueue, int active, int queued, int maxQueued,
+              long admittedCount, long avgWaitMicros, long maxWaitMicros, long queueFullCount, long timeoutCount) {
+            this.name = name;
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueue = maxQueue;
+            this.active = active;
+            this.queued = queued;
+            this.maxQueued = maxQueued;
+            this.admittedCount = admittedCount;
+            this.avgWaitMicros = avgWaitMicros;
+            this.maxWaitMicros = maxWaitMicros;
+            this.queueFullCount = queueFullCount;
+            this.timeoutCount = timeoutCount;
+        }
+
+        public String getName() { return name; }
+        public int getMaxConcurrent() { return maxConcurrent; }
+        public int getMaxQueue() { return maxQueue; }
+        public int getActive() { return active; }
+        public int getQueued() { return queued; }
+        public int getMaxQueued() { return maxQueued; }
+        public long getAdmittedCount() { return admittedCount; }
+        public long getAvgWaitMicros() { return avgWaitMicros; }
+        public long getMaxWaitMicros() { return maxWaitMicros; }
+        public long getQueueFullCount() { return queueFullCount; }
+        public long getTimeoutCount() { return timeoutCount; }
+        public long getRejectedCount() { return queueFullCount + timeoutCount; }
+
+        @Override
+        public String toString() {
+            return "Gate{" +
+                    "name='" + name + '\'' +
+                    ", active=" + active + "/" + maxConcurrent +
+                    ", queued=" + queued + "/" + maxQueue +
+                    ", maxQueued=" + maxQueued +
+                    ", admitted=" + admittedCount +
+                    ", avgWaitUs=" + avgWaitMicros +
+                    ", maxWaitUs=" + maxWaitMicros +
+                    ", rejectedQueueFull=" + queueFullCount +
+                    ", rejectedTimeout=" + timeoutCount +
+                    '}';
+        }
+    }
+}
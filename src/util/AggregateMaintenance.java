@@ -0,0 +1,166 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Các cột tổng hợp được lưu sẵn (Student.so_diem / tong_diem / diem_tb, Subject.so_luong_dang_ky).
+// Trigger trên bảng Score cập nhật chúng theo delta mỗi lần thêm / sửa / xóa điểm;
+// lớp này tạo trigger, kiểm tra và dựng lại dữ liệu khi cần khôi phục.
+public final class AggregateMaintenance {
+
+    // Sai số cho phép khi so sánh tổng / trung bình cộng dồn với giá trị tính lại
+    private static final double EPSILON = 1e-6;
+
+    private AggregateMaintenance() {
+    }
+
+    // ============================
+    // Schema: cột + trigger
+    // ============================
+    static void ensureStudentAggregates(Connection conn) throws SQLException {
+        boolean added = false;
+        added |= addColumnIfMissing(conn, "Student", "so_diem", "INTEGER NOT NULL DEFAULT 0");
+        added |= addColumnIfMissing(conn, "Student", "tong_diem", "REAL NOT NULL DEFAULT 0");
+        added |= addColumnIfMissing(conn, "Student", "diem_tb", "REAL NOT NULL DEFAULT 0");
+
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_student_diem_tb ON Student(diem_tb, msv)");
+
+            st.executeUpdate(
+                "CREATE TRIGGER IF NOT EXISTS trg_score_gpa_insert AFTER INSERT ON Score BEGIN " +
+                studentDelta("NEW", "+") +
+                "END");
+            st.executeUpdate(
+                "CREATE TRIGGER IF NOT EXISTS trg_score_gpa_delete AFTER DELETE ON Score BEGIN " +
+                studentDelta("OLD", "-") +
+                "END");
+            st.executeUpdate(
+                "CREATE TRIGGER IF NOT EXISTS trg_score_gpa_update AFTER UPDATE OF msv, diem ON Score BEGIN " +
+                studentDelta("OLD", "-") +
+                studentDelta("NEW", "+") +
+                "END");
+        }
+
+        if (added) {
+            int n = rebuildStudentAggregates(conn);
+            System.out.println(">>> Đã tính lại điểm trung bình cho " + n + " sinh viên.");
+        }
+    }
+
+    static void ensureSubjectAggregates(Connection conn) throws SQLException {
+        boolean added = addColumnIfMissing(conn, "Subject", "so_luong_dang_ky", "INTEGER NOT NULL DEFAULT 0");
+
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate(
+                "CREATE TRIGGER IF NOT EXISTS trg_score_enroll_insert AFTER INSERT ON Score BEGIN " +
+                "UPDATE Subject SET so_luong_dang_ky = so_luong_dang_ky + 1 WHERE ma_mon = NEW.ma_mon; " +
+                "END");
+            st.executeUpdate(
+                "CREATE TRIGGER IF NOT EXISTS trg_score_enroll_delete AFTER DELETE ON Score BEGIN " +
+                "UPDATE Subject SET so_luong_dang_ky = so_luong_dang_ky - 1 WHERE ma_mon = OLD.ma_mon; " +
+                "END");
+            st.executeUpdate(
+                "CREATE TRIGGER IF NOT EXISTS trg_score_enroll_update AFTER UPDATE OF ma_mon ON Score " +
+                "WHEN OLD.ma_mon IS NOT NEW.ma_mon BEGIN " +
+                "UPDATE Subject SET so_luong_dang_ky = so_luong_dang_ky - 1 WHERE ma_mon = OLD.ma_mon; " +
+                "UPDATE Subject SET so_luong_dang_ky = so_luong_dang_ky + 1 WHERE ma_mon = NEW.ma_mon; " +
+                "END");
+        }
+
+        if (added) {
+            int n = rebuildSubjectAggregates(conn);
+            System.out.println(">>> Đã tính lại số lượng đăng ký cho " + n + " môn học.");
+        }
+    }
+
+    // Cập nhật theo delta cho một dòng điểm (row = NEW/OLD, sign = +/-).
+    // Các biểu thức trong SET dùng giá trị cũ của dòng Student nên tính được diem_tb mới ngay.
+    private static String studentDelta(String row, String sign) {
+        String cnt = "(" + row + ".diem IS NOT NULL)";
+        String val = "COALESCE(" + row + ".diem, 0)";
+        return "UPDATE Student SET " +
+               "so_diem = so_diem " + sign + " " + cnt + ", " +
+               "tong_diem = tong_diem " + sign + " " + val + ", " +
+               "diem_tb = CASE WHEN so_diem " + sign + " " + cnt + " > 0 " +
+               "THEN (tong_diem " + sign + " " + val + ") / (so_diem " + sign + " " + cnt + ") ELSE 0 END " +
+               "WHERE msv = " + row + ".msv; ";
+    }
+
+    // ============================
+    // Rebuild / verify
+    // ============================
+    public static int rebuildStudentAggregates(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            return st.executeUpdate(
+                "UPDATE Student SET (so_diem, tong_diem, diem_tb) = (" +
+                "SELECT COUNT(sc.diem), COALESCE(SUM(sc.diem), 0), COALESCE(AVG(sc.diem), 0) " +
+                "FROM Score sc WHERE sc.msv = Student.msv)");
+        }
+    }
+
+    public static int rebuildSubjectAggregates(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            return st.executeUpdate(
+                "UPDATE Subject SET so_luong_dang_ky = (" +
+                "SELECT COUNT(sc.msv) FROM Score sc WHERE sc.ma_mon = Subject.ma_mon)");
+        }
+    }
+
+    public static int verifySubjectAggregates(Connection conn) throws SQLException {
+        String sql =
+            "SELECT s.ma_mon, s.so_luong_dang_ky, COUNT(sc.msv) AS c " +
+            "FROM Subject s LEFT JOIN Score sc ON s.ma_mon = sc.ma_mon " +
+            "GROUP BY s.ma_mon";
+        int mismatches = 0;
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                if (rs.getInt("so_luong_dang_ky") != rs.getInt("c")) {
+                    mismatches++;
+                    System.out.println("!!! Lệch số lượng đăng ký môn " + rs.getString("ma_mon") +
+                            ": lưu " + rs.getInt("so_luong_dang_ky") + " / thực " + rs.getInt("c"));
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    // Trả về số sinh viên có giá trị lưu sẵn lệch so với tính lại từ bảng Score
+    public static int verifyStudentAggregates(Connection conn) throws SQLException {
+        String sql =
+            "SELECT s.msv, s.so_diem, s.tong_diem, s.diem_tb, " +
+            "COUNT(sc.diem) AS c, COALESCE(SUM(sc.diem), 0) AS t, COALESCE(AVG(sc.diem), 0) AS a " +
+            "FROM Student s LEFT JOIN Score sc ON s.msv = sc.msv " +
+            "GROUP BY s.msv";
+        int mismatches = 0;
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                if (rs.getInt("so_diem") != rs.getInt("c")
+                        || Math.abs(rs.getDouble("tong_diem") - rs.getDouble("t")) > EPSILON
+                        || Math.abs(rs.getDouble("diem_tb") - rs.getDouble("a")) > EPSILON) {
+                    mismatches++;
+                    System.out.println("!!! Lệch số liệu SV " + rs.getString("msv") +
+                            ": lưu (" + rs.getInt("so_diem") + ", " + rs.getDouble("tong_diem") + ", " + rs.getDouble("diem_tb") +
+                            ") / thực (" + rs.getInt("c") + ", " + rs.getDouble("t") + ", " + rs.getDouble("a") + ")");
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    static boolean addColumnIfMissing(Connection conn, String table, String column, String definition) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) return false;
+            }
+        }
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+        return true;
+    }
+}
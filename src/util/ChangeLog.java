@@ -0,0 +1,117 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Nhật ký thay đổi có phiên bản tăng dần cho Student / Subject / Score.
+// Trigger ghi (entity, khóa dòng) cho mọi thêm / sửa / xóa, kể cả ghi hàng loạt, nhập CSV,
+// cascade khi xóa và các cột tổng hợp do trigger khác cập nhật (diem_tb, so_luong_dang_ky).
+// version = rowid AUTOINCREMENT nên không bao giờ dùng lại, kể cả sau khi dọn bớt nhật ký.
+public final class ChangeLog {
+
+    public static final String STUDENT = "Student";
+    public static final String SUBJECT = "Subject";
+    public static final String SCORE = "Score";
+
+    // Số bản ghi nhật ký giữ lại khi dọn (-Dchangelog.retain=...); client cũ hơn phải tải lại toàn bộ
+    private static final long RETAIN = Long.getLong("changelog.retain", 200_000L);
+    private static final long PRUNE_INTERVAL_SEC = Long.getLong("changelog.pruneIntervalSec", 60L);
+
+    private static ScheduledExecutorService pruner;
+
+    private ChangeLog() {
+    }
+
+    // ============================
+    // Schema: bảng + trigger
+    // ============================
+    static void ensure(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            // row_key không khai báo kiểu: giữ nguyên INTEGER (Score.id) hoặc TEXT (msv, ma_mon)
+            // để so sánh trực tiếp với khóa chính của bảng gốc
+            st.executeUpdate(
+                "CREATE TABLE IF NOT EXISTS ChangeLog (" +
+                "version INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "entity TEXT NOT NULL," +
+                "row_key NOT NULL)");
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_changelog_entity ON ChangeLog(entity, version)");
+
+            createTriggers(st, STUDENT, "msv");
+            createTriggers(st, SUBJECT, "ma_mon");
+            createTriggers(st, SCORE, "id");
+        }
+    }
+
+    private static void createTriggers(Statement st, String table, String key) throws SQLException {
+        String name = table.toLowerCase();
+        st.executeUpdate(
+            "CREATE TRIGGER IF NOT EXISTS trg_" + name + "_log_insert AFTER INSERT ON " + table + " BEGIN " +
+            "INSERT INTO ChangeLog(entity, row_key) VALUES ('" + table + "', NEW." + key + "); " +
+            "END");
+        st.executeUpdate(
+            "CREATE TRIGGER IF NOT EXISTS trg_" + name + "_log_delete AFTER DELETE ON " + table + " BEGIN " +
+            "INSERT INTO ChangeLog(entity, row_key) VALUES ('" + table + "', OLD." + key + "); " +
+            "END");
+        // Đổi khóa = xóa khóa cũ + thêm khóa mới
+        st.executeUpdate(
+            "CREATE TRIGGER IF NOT EXISTS trg_" + name + "_log_update AFTER UPDATE ON " + table + " BEGIN " +
+            "INSERT INTO ChangeLog(entity, row_key) SELECT '" + table + "', OLD." + key +
+            " WHERE OLD." + key + " IS NOT NEW." + key + "; " +
+            "INSERT INTO ChangeLog(entity, row_key) VALUES ('" + table + "', NEW." + key + "); " +
+            "END");
+    }
+
+    // ============================
+    // Phiên bản
+    // ============================
+    // Phiên bản mới nhất đã cấp (0 nếu chưa có thay đổi nào)
+    public static long currentVersion(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT seq FROM sqlite_sequence WHERE name = 'ChangeLog'")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // Phiên bản cũ nhất còn trong nhật ký; current + 1 nếu nhật ký trống
+    public static long oldestVersion(Connection conn, long current) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT MIN(version) FROM ChangeLog")) {
+            long min = rs.next() ? rs.getLong(1) : 0;
+            return rs.wasNull() ? current + 1 : min;
+        }
+    }
+
+    // ============================
+    // Dọn nhật ký
+    // ============================
+    public static int prune(Connection conn, long retain) throws SQLException {
+        long cutoff = currentVersion(conn) - Math.max(0, retain);
+        if (cutoff <= 0) return 0;
+        try (Statement st = conn.createStatement()) {
+            return st.executeUpdate("DELETE FROM ChangeLog WHERE version <= " + cutoff);
+        }
+    }
+
+    // Dọn định kỳ trên luồng nền (gọi một lần khi server khởi động)
+    public static synchronized void startPruning() {
+        if (pruner != null) return;
+        pruner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "changelog-pruner");
+            t.setDaemon(true);
+            return t;
+        });
+        pruner.scheduleWithFixedDelay(() -> {
+            try (Connection conn = DBUtil.getWriteConnection()) {
+                int n = prune(conn, RETAIN);
+                if (n > 0) System.out.println(">>> Đã dọn " + n + " bản ghi nhật ký thay đổi");
+            } catch (SQLException e) {
+                System.err.println("!!! Lỗi khi dọn nhật ký thay đổi: " + e.getMessage());
+            }
+        }, PRUNE_INTERVAL_SEC, PRUNE_INTERVAL_SEC, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,259 @@
+package util;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Socket có luồng vào / ra dạng frame: [loại 1 byte][độ dài 4 byte][dữ liệu].
+// Loại PLAIN: dữ liệu gốc; loại DEFLATE: dữ liệu nén bằng Deflater dùng chung cho cả kết nối (SYNC_FLUSH).
+final class CompressedSocket extends Socket {
+
+    private static final int PLAIN = 0;
+    private static final int DEFLATE = 1;
+    // Frame tối đa trước khi buộc phải gửi (khi bên gửi ghi nhiều mà chưa flush)
+    private static final int MAX_FRAME = 64 * 1024;
+    // Giới hạn khi đọc để dữ liệu hỏng / độc hại không làm cấp phát bộ nhớ quá lớn: áp cho cả độ dài
+    // frame trên mạng lẫn dữ liệu sau giải nén (vài KB deflate có thể nở ra hàng GB)
+    private static final int MAX_WIRE_FRAME = 64 * 1024 * 1024;
+
+    private final int level;
+    private final int threshold;
+    private InputStream in;
+    private OutputStream out;
+
+    CompressedSocket(int level, int threshold) {
+        this.level = level;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public synchronized InputStream getInputStream() throws IOException {
+        if (in == null) in = new FrameInputStream(super.getInputStream());
+        return in;
+    }
+
+    @Override
+    public synchronized OutputStream getOutputStream() throws IOException {
+        if (out == null) out = new FrameOutputStream(super.getOutputStream(), level, threshold);
+        return out;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        // Đóng socket trước để luồng đang chặn ở read/write thoát ra và nhả khóa của stream
+        try {
+            super.close();
+        } finally {
+            if (out != null) ((FrameOutputStream) out).end();
+            if (in != null) ((FrameInputStream) in).end();
+        }
+    }
+
+    // ============================
+    // Ghi
+    // ============================
+    private static final class FrameOutputStream extends FilterOutputStream {
+        // 5 byte đầu của buf / zbuf để dành cho header: mỗi frame đi xuống socket bằng một lần write
+        private static final int HEADER = 5;
+
+        private final Deflater deflater;
+        private final int threshold;
+        private byte[] buf = new byte[8192];
+        private int count = HEADER;
+        private byte[] zbuf = new byte[8192];
+        private boolean ended;
+
+        FrameOutputStream(OutputStream raw, int level, int threshold) {
+            super(raw);
+            this.deflater = new Deflater(level, true);
+            this.threshold = threshold;
+        }
+
+        @Override
+        public synchronized void write(int b) throws IOException {
+            if (count == buf.length) grow(1);
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) throws IOException {
+            if (count + len > buf.length) grow(len);
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+
+        private void grow(int extra) throws IOException {
+            if (count + extra > MAX_FRAME && count > HEADER) {
+                writeFrame();
+                if (count + extra <= buf.length) return;
+            }
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + extra));
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+            if (count > HEADER) writeFrame();
+            out.flush();
+        }
+
+        private void writeFrame() throws IOException {
+            if (ended) throw new IOException("Socket đã đóng");
+            int len = count - HEADER;
+            CompressingSocketFactory.RAW_BYTES.add(len);
+            if (len < threshold) {
+                header(buf, PLAIN, len);
+                out.write(buf, 0, count);
+                CompressingSocketFactory.PLAIN_FRAMES.increment();
+                CompressingSocketFactory.WIRE_BYTES.add(count);
+            } else {
+                deflater.setInput(buf, HEADER, len);
+                int zlen = HEADER;
+                while (true) {
+                    if (zlen == zbuf.length) zbuf = Arrays.copyOf(zbuf, zbuf.length * 2);
+                    int n = deflater.deflate(zbuf, zlen, zbuf.length - zlen, Deflater.SYNC_FLUSH);
+                    zlen += n;
+                    // SYNC_FLUSH xong khi deflater không còn đầy bộ đệm ra
+                    if (zlen < zbuf.length && deflater.needsInput()) break;
+                }
+                header(zbuf, DEFLATE, zlen - HEADER);
+                out.write(zbuf, 0, zlen);
+                CompressingSocketFactory.COMPRESSED_FRAMES.increment();
+                CompressingSocketFactory.WIRE_BYTES.add(zlen);
+            }
+            count = HEADER;
+            if (buf.length > MAX_FRAME) buf = new byte[8192];
+            if (zbuf.length > MAX_FRAME) zbuf = new byte[8192];
+        }
+
+        private static void header(byte[] b, int type, int len) {
+            b[0] = (byte) type;
+            b[1] = (byte) (len >>> 24);
+            b[2] = (byte) (len >>> 16);
+            b[3] = (byte) (len >>> 8);
+            b[4] = (byte) len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                end();
+                super.close();
+            }
+        }
+
+        // Socket.close() có thể được gọi từ luồng khác: chỉ giải phóng Deflater khi không còn ai đang ghi
+        synchronized void end() {
+            if (!ended) {
+                ended = true;
+                deflater.end();
+            }
+        }
+    }
+
+    // ============================
+    // Đọc
+    // ============================
+    private static final class FrameInputStream extends InputStream {
+        private final DataInputStream data;
+        private final Inflater inflater = new Inflater(true);
+        private byte[] frame = new byte[8192];
+        private byte[] buf = new byte[8192];
+        private int pos;
+        private int limit;
+        private boolean ended;
+
+        FrameInputStream(InputStream raw) {
+            this.data = new DataInputStream(raw);
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            if (pos == limit && !fill()) return -1;
+            return buf[pos++] & 0xFF;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (pos == limit && !fill()) return -1;
+            int n = Math.min(len, limit - pos);
+            System.arraycopy(buf, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public synchronized int available() {
+            return limit - pos;
+        }
+
+        // Đọc frame kế tiếp (bỏ qua frame rỗng); false khi hết luồng
+        private boolean fill() throws IOException {
+            // Không giữ bộ đệm lớn của frame trước suốt đời kết nối
+            if (buf.length > MAX_FRAME) buf = new byte[8192];
+            if (frame.length > MAX_FRAME) frame = new byte[8192];
+            do {
+                int type;
+                try {
+                    type = data.readUnsignedByte();
+                } catch (EOFException e) {
+                    return false;
+                }
+                int len = data.readInt();
+                if (len < 0 || len > MAX_WIRE_FRAME) throw new IOException("Độ dài frame không hợp lệ: " + len);
+                if (type == PLAIN) {
+                    if (buf.length < len) buf = new byte[len];
+                    data.readFully(buf, 0, len);
+                    limit = len;
+                } else if (type == DEFLATE) {
+                    if (frame.length < len) frame = new byte[len];
+                    data.readFully(frame, 0, len);
+                    limit = inflate(len);
+                } else {
+                    throw new IOException("Loại frame không hợp lệ: " + type);
+                }
+                pos = 0;
+            } while (limit == 0);
+            return true;
+        }
+
+        private int inflate(int len) throws IOException {
+            if (ended) throw new IOException("Socket đã đóng");
+            inflater.setInput(frame, 0, len);
+            int n = 0;
+            try {
+                while (true) {
+                    if (n == buf.length) {
+                        if (n >= MAX_WIRE_FRAME) {
+                            throw new IOException("Frame giải nén vượt quá " + MAX_WIRE_FRAME + " byte");
+                        }
+                        buf = Arrays.copyOf(buf, Math.min(buf.length * 2, MAX_WIRE_FRAME));
+                    }
+                    n += inflater.inflate(buf, n, buf.length - n);
+                    if (inflater.needsInput() && n < buf.length) return n;
+                    if (inflater.finished()) return n;
+                    if (inflater.needsDictionary()) throw new IOException("Dữ liệu nén không hợp lệ");
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Dữ liệu nén hỏng", e);
+            }
+        }
+
+        synchronized void end() {
+            if (!ended) {
+                ended = true;
+                inflater.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package util;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.rmi.server.RMIClientSocketFactory;
+import java.rmi.server.RMIServerSocketFactory;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+// Socket factory nén cho RMI: dữ liệu được gom theo từng lần flush (mỗi lời gọi / kết quả RMI)
+// và gửi thành một frame; frame nhỏ hơn ngưỡng đi thẳng, frame lớn được nén deflate.
+// Mỗi chiều của kết nối dùng chung một Deflater/Inflater nên các frame sau tận dụng được
+// từ điển của frame trước (MSV, mã môn, quê quán lặp lại).
+//
+// Cấu hình phía server (client nhận cấu hình theo stub):
+//   -Drmi.compress.enabled=false   tắt nén, dùng socket RMI mặc định
+//   -Drmi.compress.threshold=512   số byte tối thiểu của một frame để nén
+//   -Drmi.compress.level=1         mức nén deflate 0..9 (1 = nhanh nhất)
+public final class CompressingSocketFactory implements RMIClientSocketFactory, RMIServerSocketFactory, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final CompressingSocketFactory DEFAULT = Boolean.parseBoolean(
+            System.getProperty("rmi.compress.enabled", "true"))
+            ? new CompressingSocketFactory(
+                    Integer.getInteger("rmi.compress.level", Deflater.BEST_SPEED),
+                    Integer.getInteger("rmi.compress.threshold", 512))
+            : null;
+
+    // Số liệu trong JVM hiện tại (mọi kết nối, cả hai chiều gửi)
+    static final LongAdder RAW_BYTES = new LongAdder();
+    static final LongAdder WIRE_BYTES = new LongAdder();
+    static final LongAdder COMPRESSED_FRAMES = new LongAdder();
+    static final LongAdder PLAIN_FRAMES = new LongAdder();
+
+    private final int level;
+    private final int threshold;
+
+    public CompressingSocketFactory(int level, int threshold) {
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Mức nén phải trong khoảng 0..9: " + level);
+        }
+        this.level = level;
+        this.threshold = Math.max(0, threshold);
+    }
+
+    // Factory theo cấu hình hệ thống, null nếu tắt nén (UnicastRemoteObject dùng socket mặc định)
+    public static CompressingSocketFactory getDefault() {
+        return DEFAULT;
+    }
+
+    // Tổng byte dữ liệu gốc / byte thực gửi trên mạng (gồm header frame) của mọi kết nối trong JVM
+    public static long rawBytes() {
+        return RAW_BYTES.sum();
+    }
+
+    public static long wireBytes() {
+        return WIRE_BYTES.sum();
+    }
+
+    public static String statsSummary() {
+        long raw = RAW_BYTES.sum();
+        long wire = WIRE_BYTES.sum();
+        return "RMI nén: gửi " + raw + " byte dữ liệu -> " + wire + " byte trên mạng"
+                + (raw > 0 ? String.format(" (%.1f%%)", wire * 100.0 / raw) : "")
+                + ", frame nén " + COMPRESSED_FRAMES.sum() + ", frame thường " + PLAIN_FRAMES.sum();
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        Socket socket = new CompressedSocket(level, threshold);
+        try {
+            socket.connect(new InetSocketAddress(host, port));
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        return socket;
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port) throws IOException {
+        return new ServerSocket(port) {
+            @Override
+            public Socket accept() throws IOException {
+                Socket socket = new CompressedSocket(level, threshold);
+                implAccept(socket);
+                return socket;
+            }
+        };
+    }
+
+    // RMI dùng equals/hashCode để gom các object export chung một cổng và tái dùng kết nối
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompressingSocketFactory)) return false;
+        CompressingSocketFactory that = (CompressingSocketFactory) o;
+        return level == that.level && threshold == that.threshold;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(level, threshold);
+    }
+
+    @Override
+    public String toString() {
+        return "CompressingSocketFactory{level=" + level + ", threshold=" + threshold + '}';
+    }
+}
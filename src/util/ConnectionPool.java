@@ -0,0 +1,351 @@
+package util;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Pool kết nối JDBC có giới hạn.
+// Connection trả về là proxy: close() không đóng kết nối thật mà trả nó về pool,
+// nên code cũ dạng try (Connection conn = DBUtil.getConnection()) vẫn dùng được.
+public class ConnectionPool {
+
+    private final String name;
+    private final String url;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long validateAfterMillis;
+    private final List<String> initSql;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger total = new AtomicInteger();
+
+    // Metrics
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder discardedCount = new LongAdder();
+    private final LongAdder leakedStatementCount = new LongAdder();
+
+    private volatile boolean shutdown;
+
+    public ConnectionPool(String name, String url, int maxSize, long maxWaitMillis,
+                          long validateAfterMillis, List<String> initSql) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize phải > 0");
+        this.name = name;
+        this.url = url;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.validateAfterMillis = validateAfterMillis;
+        this.initSql = List.copyOf(initSql);
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    // ============================
+    // Mượn kết nối
+    // ============================
+    public Connection getConnection() throws SQLException {
+        if (shutdown) throw new SQLException("Pool " + name + " đã đóng");
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Bị ngắt khi chờ kết nối từ pool " + name, e);
+        }
+        long waited = System.nanoTime() - start;
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new SQLException("Hết thời gian chờ kết nối từ pool " + name
+                    + " (" + maxWaitMillis + " ms, active=" + active.get() + ")");
+        }
+        acquireCount.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        try {
+            PooledConnection pc;
+            while ((pc = idle.pollFirst()) != null) {
+                if (validate(pc)) break;
+                discard(pc);
+            }
+            if (pc == null) pc = open();
+            active.incrementAndGet();
+            return pc.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection raw = DriverManager.getConnection(url);
+        // PRAGMA theo từng kết nối chỉ chạy một lần khi mở
+        try (Statement st = raw.createStatement()) {
+            for (String sql : initSql) {
+                st.execute(sql);
+            }
+        } catch (SQLException e) {
+            raw.close();
+            throw e;
+        }
+        total.incrementAndGet();
+        createdCount.increment();
+        return new PooledConnection(raw);
+    }
+
+    private boolean validate(PooledConnection pc) {
+        try {
+            if (pc.raw.isClosed()) return false;
+            // Chỉ ping lại khi kết nối đã nằm idle đủ lâu
+            if (System.currentTimeMillis() - pc.lastReturned < validateAfterMillis) return true;
+            return pc.raw.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pc) {
+        total.decrementAndGet();
+        discardedCount.increment();
+        try {
+            pc.raw.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    // Được gọi từ proxy khi code gọi close()
+    private void release(PooledConnection pc) {
+        active.decrementAndGet();
+        boolean healthy = true;
+        try {
+            if (pc.raw.isClosed()) {
+                healthy = false;
+            } else if (!pc.raw.getAutoCommit()) {
+                // Giao dịch bị bỏ dở: rollback để kết nối sạch khi trả về pool
+                pc.raw.rollback();
+                pc.raw.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        if (healthy && !shutdown) {
+            pc.lastReturned = System.currentTimeMillis();
+            idle.offerFirst(pc);
+        } else {
+            discard(pc);
+        }
+        permits.release();
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            discard(pc);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public Stats getStats() {
+        long acquires = acquireCount.sum();
+        return new Stats(name, maxSize, active.get(), idle.size(), total.get(),
+                permits.getQueueLength(), acquires,
+                acquires == 0 ? 0 : totalWaitNanos.sum() / acquires / 1000,
+                maxWaitNanos.get() / 1000, timeoutCount.sum(),
+                createdCount.sum(), discardedCount.sum(), leakedStatementCount.sum());
+    }
+
+    // ============================
+    // Kết nối vật lý + proxy
+    // ============================
+    private final class PooledConnection {
+        final Connection raw;
+        volatile long lastReturned = System.currentTimeMillis();
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handler(this));
+        }
+    }
+
+    private final class Handler implements InvocationHandler {
+        private final PooledConnection pc;
+        private boolean closed;
+        // Statement mở qua lần mượn này; cái nào chưa đóng sẽ bị đóng khi trả kết nối. Ở chế độ WAL
+        // một ResultSet quên đóng giữ giao dịch đọc (và snapshot cũ) cho người mượn sau, đồng thời
+        // chặn checkpoint chép WAL về file DB.
+        private List<Statement> statements;
+
+        Handler(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        closeStatements();
+                        release(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + name + "]" + pc.raw;
+                default:
+                    break;
+            }
+            if (closed) throw new SQLException("Connection đã được trả về pool");
+            if (QueryPlanLog.ENABLED && method.getName().equals("prepareStatement")) {
+                QueryPlanLog.onPrepare(pc.raw, (String) args[0]);
+            }
+            Object result;
+            try {
+                result = method.invoke(pc.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement) {
+                if (statements == null) statements = new ArrayList<>();
+                // Lần mượn dài (nhập CSV...) tạo nhiều statement: bỏ bớt cái đã đóng
+                if (statements.size() >= 64) statements.removeIf(ConnectionPool::isClosedQuietly);
+                statements.add((Statement) result);
+                if (QueryPlanLog.ENABLED && method.getName().equals("createStatement")) {
+                    return QueryPlanLog.wrap((Statement) result, pc.raw);
+                }
+            }
+            return result;
+        }
+
+        private void closeStatements() {
+            if (statements == null) return;
+            for (Statement st : statements) {
+                try {
+                    if (!st.isClosed()) {
+                        leakedStatementCount.increment();
+                        st.close();
+                    }
+                } catch (SQLException ignored) {
+                }
+            }
+            statements = null;
+        }
+    }
+
+    private static boolean isClosedQuietly(Statement st) {
+        try {
+            return st.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    // Ảnh chụp số liệu của pool (thời gian tính bằng micro giây)
+    public static final class Stats implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final int maxSize;
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int waiting;
+        private final long acquireCount;
+        private final long avgWaitMicros;
+        private final long maxWaitMicros;
+        private final long timeoutCount;
+        private final long createdCount;
+        private final long discardedCount;
+        private final long leakedStatementCount;
+
+        Stats(String name, int maxSize, int active, int idle, int total, int waiting,
+              long acquireCount, long avgWaitMicros, long maxWaitMicros, long timeoutCount,
+              long createdCount, long discardedCount, long leakedStatementCount) {
+            this.name = name;
+            this.maxSize = maxSize;
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.waiting = waiting;
+            this.acquireCount = acquireCount;
+            this.avgWaitMicros = avgWaitMicros;
+            this.maxWaitMicros = maxWaitMicros;
+            this.timeoutCount = timeoutCount;
+            this.createdCount = createdCount;
+            this.discardedCount = discardedCount;
+            this.leakedStatementCount = leakedStatementCount;
+        }
+
+        public String getName() { return name; }
+        public int getMaxSize() { return maxSize; }
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getTotal() { return total; }
+        public int getWaiting() { return waiting; }
+        public long getAcquireCount() { return acquireCount; }
+        public long getAvgWaitMicros() { return avgWaitMicros; }
+        public long getMaxWaitMicros() { return maxWaitMicros; }
+        public long getTimeoutCount() { return timeoutCount; }
+        public long getCreatedCount() { return createdCount; }
+        public long getDiscardedCount() { return discardedCount; }
+        public long getLeakedStatementCount() { return leakedStatementCount; }
+
+        @Override
+        public String toString() {
+            return "Pool{" +
+                    "name='" + name + '\'' +
+                    ", active=" + active +
+                    ", idle=" + idle +
+                    ", total=" + total + "/" + maxSize +
+                    ", waiting=" + waiting +
+                    ", acquires=" + acquireCount +
+                    ", avgWaitUs=" + avgWaitMicros +
+                    ", maxWaitUs=" + maxWaitMicros +
+                    ", timeouts=" + timeoutCount +
+                    ", created=" + createdCount +
+                    ", discarded=" + discardedCount +
+                    ", leakedStatements=" + leakedStatementCount +
+                    '}';
+        }
+    }
+}
@@ -1,60 +1,91 @@
 package util;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 public class DBUtil {
-    private static final String URL = "jdbc:sqlite:student_db.sqlite";
+    private static final String DB_PATH = "student_db.sqlite";
+    private static final String URL = "jdbc:sqlite:" + DB_PATH;
+
+    // Cấu hình pool (có thể ghi đè bằng -Ddb.readPool.size=..., -Ddb.pool.maxWaitMs=...)
+    private static final long POOL_MAX_WAIT_MS = Long.getLong("db.pool.maxWaitMs", 10_000L);
+    private static final long POOL_VALIDATE_AFTER_MS = Long.getLong("db.pool.validateAfterMs", 30_000L);
+    private static final int READ_POOL_SIZE = Integer.getInteger("db.readPool.size",
+            Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+    // PRAGMA áp dụng một lần cho mỗi kết nối vật lý khi được mở
+    private static final List<String> CONNECTION_PRAGMAS = List.of(
+            "PRAGMA journal_mode=WAL",
+            "PRAGMA synchronous=NORMAL",
+            "PRAGMA cache_size=-8000",
+            "PRAGMA foreign_keys=ON",
+            "PRAGMA busy_timeout=5000",
+            // Ngưỡng tự checkpoint khi commit (trang); 0 = để WalCheckpointer làm trên luồng nền
+            "PRAGMA wal_autocheckpoint=" + WalCheckpointer.AUTO_CHECKPOINT_PAGES
+    );
+
+    // SQLite chỉ cho một writer tại một thời điểm: các thao tác ghi đi qua pool 1 kết nối,
+    // còn truy vấn đọc chạy song song trên các kết nối chỉ-đọc riêng.
+    private static final ConnectionPool READ_POOL;
+    private static final ConnectionPool WRITE_POOL;
 
     static {
+        READ_POOL = new ConnectionPool("read", URL, READ_POOL_SIZE, POOL_MAX_WAIT_MS,
+                POOL_VALIDATE_AFTER_MS, withPragma(CONNECTION_PRAGMAS, "PRAGMA query_only=ON"));
+        WRITE_POOL = new ConnectionPool("write", URL, 1, POOL_MAX_WAIT_MS,
+                POOL_VALIDATE_AFTER_MS, CONNECTION_PRAGMAS);
         try {
             // Load SQLite JDBC driver
             Class.forName("org.sqlite.JDBC");
 
-            try (Connection conn = getConnection();
-                 Statement stmt = conn.createStatement()) {
-
-                // Bảng Student
-                stmt.executeUpdate(
-                    "CREATE TABLE IF NOT EXISTS Student (" +
-                    "msv TEXT PRIMARY KEY," +
-                    "ten TEXT NOT NULL," +
-                    "ngay_sinh DATE," +
-                    "que_quan TEXT)"
-                );
-
-                // Bảng Subject
-                stmt.executeUpdate(
-                    "CREATE TABLE IF NOT EXISTS Subject (" +
-                    "ma_mon TEXT PRIMARY KEY," +
-                    "ten_mon TEXT NOT NULL," +
-                    "so_tin_chi INTEGER NOT NULL)" 
-          
-                );
-
-                // Bảng Score
-                stmt.executeUpdate(
-                    "CREATE TABLE IF NOT EXISTS Score (" +
-                    "id INTEGER PRIMARY KEY AUTOINCREMENT," +
-                    "msv TEXT NOT NULL," +
-                    "ma_mon TEXT NOT NULL," +
-                    "diem REAL CHECK (diem >= 0 AND diem <= 10)," +
-                    "FOREIGN KEY (msv) REFERENCES Student(msv) ON DELETE CASCADE," +
-                    "FOREIGN KEY (ma_mon) REFERENCES Subject(ma_mon) ON DELETE CASCADE," +
-                    "UNIQUE(msv, ma_mon))"
-                );
-
-                System.out.println(">>> Database và bảng đã sẵn sàng.");
-
+            // Schema do SchemaMigrations quản lý (bảng, cột tổng hợp, trigger, index)
+            try (Connection conn = getWriteConnection()) {
+                int version = SchemaMigrations.migrate(conn);
+                System.out.println(">>> Database và bảng đã sẵn sàng (schema v" + version + ").");
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    // Mượn kết nối từ pool; close() sẽ trả kết nối về pool.
+    // Cho công cụ / code cũ chưa tách đọc-ghi: dùng kết nối ghi (đọc-ghi được, xếp hàng với các lệnh ghi);
+    // service dùng getReadConnection / getWriteConnection
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL);
+        return getWriteConnection();
+    }
+
+    // Kết nối chỉ-đọc (PRAGMA query_only) cho các truy vấn SELECT
+    public static Connection getReadConnection() throws SQLException {
+        return READ_POOL.getConnection();
+    }
+
+    // Kết nối ghi duy nhất; các luồng ghi đồng thời sẽ xếp hàng chờ tại pool
+    public static Connection getWriteConnection() throws SQLException {
+        return WRITE_POOL.getConnection();
+    }
+
+    // Checkpoint WAL định kỳ theo chính sách cấu hình (gọi một lần khi server khởi động)
+    public static void startCheckpointing() {
+        WalCheckpointer.start(URL, DB_PATH);
+    }
+
+    // Số liệu pool đọc và pool ghi: active, idle, thời gian chờ...
+    public static List<ConnectionPool.Stats> getPoolStats() {
+        return List.of(READ_POOL.getStats(), WRITE_POOL.getStats());
+    }
+
+    public static void shutdown() {
+        WalCheckpointer.shutdown();
+        READ_POOL.shutdown();
+        WRITE_POOL.shutdown();
+    }
+
+    private static List<String> withPragma(List<String> base, String extra) {
+        List<String> list = new ArrayList<>(base);
+        list.add(extra);
+        return list;
     }
 }
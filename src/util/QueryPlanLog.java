@@ -0,0 +1,78 @@
+package util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Ghi EXPLAIN QUERY PLAN cho mỗi câu SQL khác nhau mà service chạy qua pool (bật bằng -Ddb.explainQueries=true).
+// Mỗi câu chỉ ghi một lần; dòng quét toàn bảng (SCAN không dùng index) được đánh dấu "!!!".
+// Lưu ý: kế hoạch của trigger và cascade khóa ngoại không hiện trong EXPLAIN QUERY PLAN.
+public final class QueryPlanLog {
+
+    public static final boolean ENABLED = Boolean.getBoolean("db.explainQueries");
+
+    private static final int MAX_TRACKED = 2000;
+    private static final Set<String> SEEN = ConcurrentHashMap.newKeySet();
+
+    private QueryPlanLog() {
+    }
+
+    // Được gọi từ proxy của ConnectionPool khi prepareStatement(sql, ...)
+    static void onPrepare(Connection raw, String sql) {
+        if (!explainable(sql) || SEEN.size() >= MAX_TRACKED || !SEEN.add(sql)) return;
+        StringBuilder sb = new StringBuilder(">>> [plan] ").append(sql.trim()).append('\n');
+        try (PreparedStatement ps = raw.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            // Tham số để NULL: planner chọn index theo cấu trúc câu lệnh, không theo giá trị
+            int params = ps.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= params; i++) ps.setObject(i, null);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String detail = rs.getString("detail");
+                    sb.append(isFullScan(detail) ? "    !!! " : "        ").append(detail).append('\n');
+                }
+            }
+        } catch (SQLException e) {
+            sb.append("    (không lấy được kế hoạch: ").append(e.getMessage()).append(")\n");
+        }
+        System.out.print(sb);
+    }
+
+    // Statement thường: bọc lại để bắt các lời gọi execute*(sql)
+    static Statement wrap(Statement st, Connection raw) {
+        return (Statement) Proxy.newProxyInstance(
+                QueryPlanLog.class.getClassLoader(),
+                new Class<?>[]{Statement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute") && args != null && args.length > 0
+                            && args[0] instanceof String) {
+                        onPrepare(raw, (String) args[0]);
+                    }
+                    try {
+                        return method.invoke(st, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    static boolean isFullScan(String detail) {
+        return detail.startsWith("SCAN ")
+                && !detail.contains(" USING ")
+                && !detail.contains("VIRTUAL TABLE")
+                && !detail.contains("CONSTANT ROW");
+    }
+
+    private static boolean explainable(String sql) {
+        String head = sql.stripLeading().toUpperCase(Locale.ROOT);
+        return head.startsWith("SELECT") || head.startsWith("WITH")
+                || head.startsWith("UPDATE") || head.startsWith("DELETE")
+                || (head.startsWith("INSERT") && head.contains("SELECT"));
+    }
+}
@@ -0,0 +1,147 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Quản lý schema theo phiên bản. Phiên bản hiện tại lưu trong PRAGMA user_version;
+// khi khởi động, các migration có version lớn hơn được chạy lần lượt, mỗi cái trong một giao dịch.
+// Thêm thay đổi schema mới = thêm một Migration vào cuối danh sách, không sửa các migration cũ.
+// Các bước đều idempotent (IF NOT EXISTS / addColumnIfMissing) nên DB cũ (user_version = 0)
+// đã có sẵn bảng vẫn chạy lại được từ đầu.
+public final class SchemaMigrations {
+
+    interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final Step step;
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Bảng Student, Subject, Score", SchemaMigrations::createBaseTables),
+            new Migration(2, "Điểm TB lưu sẵn trên Student", AggregateMaintenance::ensureStudentAggregates),
+            new Migration(3, "Số lượng đăng ký lưu sẵn trên Subject", AggregateMaintenance::ensureSubjectAggregates),
+            new Migration(4, "Chỉ mục tìm kiếm toàn văn sinh viên", StudentSearchIndex::ensure),
+            // ma_mon: khóa join/lọc theo môn và cascade khi xóa môn (trước đây quét toàn bảng Score).
+            // (msv, diem): covering index cho các phép tính điểm theo sinh viên.
+            new Migration(5, "Index Score(ma_mon), Score(msv, diem)", conn -> execute(conn,
+                    "CREATE INDEX IF NOT EXISTS idx_score_ma_mon ON Score(ma_mon)",
+                    "CREATE INDEX IF NOT EXISTS idx_score_msv_diem ON Score(msv, diem)")),
+            // Phân trang keyset sắp theo tên SV / theo điểm: biểu thức phải trùng với ORDER BY của PagedQuery
+            new Migration(6, "Index phân trang Student(ten, msv), Score(COALESCE(diem, 0), id)", conn -> execute(conn,
+                    "CREATE INDEX IF NOT EXISTS idx_student_ten ON Student(ten, msv)",
+                    "CREATE INDEX IF NOT EXISTS idx_score_diem ON Score(COALESCE(diem, 0), id)")),
+            new Migration(7, "Nhật ký thay đổi cho đồng bộ delta", ChangeLog::ensure)
+    );
+
+    private SchemaMigrations() {
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    // Đưa schema lên phiên bản mới nhất; trả về phiên bản sau khi chạy
+    public static int migrate(Connection conn) throws SQLException {
+        int current = currentVersion(conn);
+        if (current > latestVersion()) {
+            throw new SQLException("Database có schema v" + current
+                    + " mới hơn phiên bản server hỗ trợ (v" + latestVersion() + ")");
+        }
+
+        boolean autoCommit = conn.getAutoCommit();
+        int applied = 0;
+        try {
+            for (Migration m : MIGRATIONS) {
+                if (m.version <= current) continue;
+                long start = System.currentTimeMillis();
+                conn.setAutoCommit(false);
+                try {
+                    m.step.apply(conn);
+                    execute(conn, "PRAGMA user_version = " + m.version);
+                    conn.commit();
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw new SQLException("Migration v" + m.version + " (" + m.description + ") thất bại", e);
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+                current = m.version;
+                applied++;
+                System.out.println(">>> Migration v" + m.version + ": " + m.description
+                        + " (" + (System.currentTimeMillis() - start) + " ms)");
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+
+        // Cập nhật thống kê cho query planner khi schema vừa thay đổi hoặc chưa từng ANALYZE
+        if (applied > 0 || !hasStatistics(conn)) {
+            long start = System.currentTimeMillis();
+            execute(conn, "ANALYZE");
+            System.out.println(">>> ANALYZE xong (" + (System.currentTimeMillis() - start) + " ms)");
+        }
+        return current;
+    }
+
+    public static int currentVersion(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // ============================
+    // Các bước migration
+    // ============================
+    private static void createBaseTables(Connection conn) throws SQLException {
+        execute(conn,
+                "CREATE TABLE IF NOT EXISTS Student (" +
+                "msv TEXT PRIMARY KEY," +
+                "ten TEXT NOT NULL," +
+                "ngay_sinh DATE," +
+                "que_quan TEXT)",
+
+                "CREATE TABLE IF NOT EXISTS Subject (" +
+                "ma_mon TEXT PRIMARY KEY," +
+                "ten_mon TEXT NOT NULL," +
+                "so_tin_chi INTEGER NOT NULL)",
+
+                "CREATE TABLE IF NOT EXISTS Score (" +
+                "id INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "msv TEXT NOT NULL," +
+                "ma_mon TEXT NOT NULL," +
+                "diem REAL CHECK (diem >= 0 AND diem <= 10)," +
+                "FOREIGN KEY (msv) REFERENCES Student(msv) ON DELETE CASCADE," +
+                "FOREIGN KEY (ma_mon) REFERENCES Subject(ma_mon) ON DELETE CASCADE," +
+                "UNIQUE(msv, ma_mon))");
+    }
+
+    private static boolean hasStatistics(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'sqlite_stat1'")) {
+            return rs.next();
+        }
+    }
+
+    private static void execute(Connection conn, String... sqls) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String sql : sqls) {
+                st.executeUpdate(sql);
+            }
+        }
+    }
+}
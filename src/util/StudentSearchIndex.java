@@ -0,0 +1,101 @@
+package util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+// Chỉ mục tìm kiếm toàn văn (FTS5) cho sinh viên trên msv, ten, que_quan.
+// Tokenizer unicode61 với remove_diacritics 2 bỏ dấu tiếng Việt (kể cả ký tự có hai dấu như "ễ");
+// riêng "đ" không phải dấu nên được đổi thành "d" trước khi đưa vào chỉ mục và trong câu truy vấn.
+// Trigger trên Student giữ chỉ mục đồng bộ cho mọi đường ghi (thêm lẻ, batch, nhập CSV).
+public final class StudentSearchIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private StudentSearchIndex() {
+    }
+
+    static void ensure(Connection conn) throws SQLException {
+        boolean created;
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'student_fts'")) {
+            created = !rs.next();
+        }
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate(
+                "CREATE VIRTUAL TABLE IF NOT EXISTS student_fts USING fts5(" +
+                "msv, ten, que_quan, tokenize = 'unicode61 remove_diacritics 2')");
+            st.executeUpdate(
+                "CREATE TRIGGER IF NOT EXISTS trg_student_fts_insert AFTER INSERT ON Student BEGIN " +
+                "INSERT INTO student_fts(rowid, msv, ten, que_quan) " +
+                "VALUES (NEW.rowid, NEW.msv, " + foldSql("NEW.ten") + ", " + foldSql("NEW.que_quan") + "); " +
+                "END");
+            st.executeUpdate(
+                "CREATE TRIGGER IF NOT EXISTS trg_student_fts_delete AFTER DELETE ON Student BEGIN " +
+                "DELETE FROM student_fts WHERE rowid = OLD.rowid; " +
+                "END");
+            st.executeUpdate(
+                "CREATE TRIGGER IF NOT EXISTS trg_student_fts_update AFTER UPDATE OF msv, ten, que_quan ON Student BEGIN " +
+                "UPDATE student_fts SET msv = NEW.msv, ten = " + foldSql("NEW.ten") + ", " +
+                "que_quan = " + foldSql("NEW.que_quan") + " WHERE rowid = OLD.rowid; " +
+                "END");
+        }
+        if (created || !inSync(conn)) {
+            int n = rebuild(conn);
+            System.out.println(">>> Đã dựng chỉ mục tìm kiếm cho " + n + " sinh viên.");
+        }
+    }
+
+    // Dựng lại toàn bộ chỉ mục (rowid của Student có thể đổi sau VACUUM)
+    public static int rebuild(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("DELETE FROM student_fts");
+            st.executeUpdate(
+                "INSERT INTO student_fts(rowid, msv, ten, que_quan) " +
+                "SELECT rowid, msv, " + foldSql("ten") + ", " + foldSql("que_quan") + " FROM Student");
+            // Số dòng executeUpdate trả về với bảng FTS gồm cả các thay đổi trên bảng ẩn, nên đếm lại
+            try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM student_fts")) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    public static boolean inSync(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT (SELECT COUNT(*) FROM Student), (SELECT COUNT(*) FROM student_fts), " +
+                     "(SELECT COUNT(*) FROM Student s JOIN student_fts f ON f.rowid = s.rowid AND f.msv = s.msv)")) {
+            rs.next();
+            long students = rs.getLong(1);
+            return students == rs.getLong(2) && students == rs.getLong(3);
+        }
+    }
+
+    // Chuỗi tìm kiếm của người dùng -> biểu thức MATCH: mỗi từ là một tiền tố, các từ AND với nhau.
+    // Trả về null nếu không còn từ nào sau khi chuẩn hóa.
+    public static String toMatchQuery(String query) {
+        if (query == null) return null;
+        StringBuilder sb = new StringBuilder();
+        for (String token : NON_WORD.split(fold(query))) {
+            if (token.isEmpty()) continue;
+            if (sb.length() > 0) sb.append(' ');
+            sb.append('"').append(token).append("\"*");
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    // Bỏ dấu tiếng Việt, đ -> d, chữ thường
+    public static String fold(String s) {
+        String noMarks = MARKS.matcher(Normalizer.normalize(s, Normalizer.Form.NFD)).replaceAll("");
+        return noMarks.replace('đ', 'd').replace('Đ', 'D').toLowerCase();
+    }
+
+    private static String foldSql(String expr) {
+        return "replace(replace(" + expr + ", 'đ', 'd'), 'Đ', 'D')";
+    }
+}
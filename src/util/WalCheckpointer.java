@@ -0,0 +1,154 @@
+package util;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Chính sách checkpoint WAL và số liệu độ trễ checkpoint.
+// Ở chế độ WAL, commit chỉ ghi thêm vào file -wal; checkpoint chép các trang đó về file DB.
+//  - Checkpoint tự động của SQLite chạy ngay trong commit của kết nối ghi khi WAL vượt
+//    db.wal.autoCheckpoint trang (PRAGMA wal_autocheckpoint). Đặt 0 để commit không bao giờ phải
+//    checkpoint, luồng nền dưới đây làm thay.
+//  - Luồng nền checkpoint PASSIVE mỗi db.wal.checkpointIntervalMs: không chờ reader hay writer,
+//    chép được tới đâu hay tới đó. Khi WAL vượt db.wal.truncatePages trang thì dùng TRUNCATE (chờ
+//    reader cũ tối đa db.wal.truncateWaitMs rồi cắt file WAL về 0) để WAL không phình mãi khi
+//    luôn có reader đang mở: WAL chỉ quay lại từ đầu khi không reader nào còn giữ snapshot cũ.
+//    Trong lúc chờ, writer bị chặn; thời gian chờ nên dài hơn truy vấn đọc dài nhất thường gặp.
+//  - Lag = số frame trong WAL chưa được chép về file DB (thường do reader giữ snapshot cũ).
+// Checkpoint chạy trên kết nối riêng, không chiếm pool ghi.
+// Cấu hình: -Ddb.wal.autoCheckpoint (mặc định 1000), -Ddb.wal.checkpointIntervalMs (mặc định 5000,
+//           0 = tắt luồng nền), -Ddb.wal.truncatePages (mặc định 10000), -Ddb.wal.truncateWaitMs
+//           (mặc định 1000), -Ddb.wal.warnPages (mặc định 50000, cảnh báo khi WAL vượt ngưỡng)
+public final class WalCheckpointer {
+
+    public static final int AUTO_CHECKPOINT_PAGES = Integer.getInteger("db.wal.autoCheckpoint", 1000);
+    private static final long INTERVAL_MS = Long.getLong("db.wal.checkpointIntervalMs", 5000L);
+    private static final long TRUNCATE_PAGES = Long.getLong("db.wal.truncatePages", 10_000L);
+    private static final long TRUNCATE_WAIT_MS = Long.getLong("db.wal.truncateWaitMs", 1000L);
+    private static final long WARN_PAGES = Long.getLong("db.wal.warnPages", 50_000L);
+
+    private static ScheduledExecutorService scheduler;
+    private static Connection conn;
+    private static File walFile;
+    private static boolean warned;
+
+    // Số liệu
+    private static final LongAdder passiveCount = new LongAdder();
+    private static final LongAdder truncateCount = new LongAdder();
+    private static final LongAdder busyCount = new LongAdder();
+    private static final LongAdder failedCount = new LongAdder();
+    private static final LongAdder totalNanos = new LongAdder();
+    private static final AtomicLong maxNanos = new AtomicLong();
+    private static volatile long lastWalFrames;
+    private static volatile long lastLag;
+    private static final AtomicLong maxLag = new AtomicLong();
+    private static final AtomicLong maxWalBytes = new AtomicLong();
+
+    private WalCheckpointer() {
+    }
+
+    // Gọi một lần khi server khởi động
+    public static synchronized void start(String url, String dbPath) {
+        if (INTERVAL_MS <= 0 || scheduler != null) return;
+        try {
+            conn = DriverManager.getConnection(url);
+            try (Statement st = conn.createStatement()) {
+                st.execute("PRAGMA busy_timeout=" + TRUNCATE_WAIT_MS);
+            }
+        } catch (SQLException e) {
+            System.err.println("!!! Không mở được kết nối checkpoint: " + e.getMessage());
+            return;
+        }
+        walFile = new File(dbPath + "-wal");
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "wal-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(WalCheckpointer::runOnce, INTERVAL_MS, INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void shutdown() {
+        if (scheduler == null) return;
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(2, TimeUnit.SECONDS);
+            conn.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SQLException ignored) {
+        }
+        scheduler = null;
+    }
+
+    private static void runOnce() {
+        try {
+            long[] r = checkpoint("PASSIVE");
+            if (r[1] >= TRUNCATE_PAGES) r = checkpoint("TRUNCATE");
+            // Cảnh báo một lần mỗi khi WAL vượt ngưỡng
+            if (r[1] >= WARN_PAGES && !warned) {
+                System.err.println("!!! WAL còn " + r[1] + " trang sau checkpoint (lag " + (r[1] - r[2])
+                        + "): có reader giữ snapshot cũ lâu hơn db.wal.truncateWaitMs?");
+            }
+            warned = r[1] >= WARN_PAGES;
+        } catch (SQLException e) {
+            failedCount.increment();
+            System.err.println("!!! Lỗi khi checkpoint WAL: " + e.getMessage());
+        }
+    }
+
+    // Trả về {busy, số frame trong WAL, số frame đã checkpoint} như PRAGMA wal_checkpoint
+    private static long[] checkpoint(String mode) throws SQLException {
+        long start = System.nanoTime();
+        long[] r = new long[3];
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA wal_checkpoint(" + mode + ")")) {
+            if (rs.next()) {
+                r[0] = rs.getLong(1);
+                r[1] = rs.getLong(2);
+                r[2] = rs.getLong(3);
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        if ("TRUNCATE".equals(mode)) truncateCount.increment();
+        else passiveCount.increment();
+        if (r[0] != 0) busyCount.increment();
+        // -1 = không ở chế độ WAL / chưa có WAL
+        if (r[1] >= 0) {
+            long lag = Math.max(0, r[1] - r[2]);
+            lastWalFrames = r[1];
+            lastLag = lag;
+            maxLag.accumulateAndGet(lag, Math::max);
+        }
+        maxWalBytes.accumulateAndGet(walFile.length(), Math::max);
+        return r;
+    }
+
+    // Số frame WAL chưa checkpoint ở lần đo gần nhất
+    public static long currentLagFrames() {
+        return lastLag;
+    }
+
+    public static String statsSummary() {
+        if (scheduler == null && passiveCount.sum() == 0) {
+            return "Checkpoint WAL: chỉ tự động (wal_autocheckpoint=" + AUTO_CHECKPOINT_PAGES + ")";
+        }
+        long runs = passiveCount.sum() + truncateCount.sum();
+        return "Checkpoint WAL: " + passiveCount.sum() + " passive / " + truncateCount.sum() + " truncate, "
+                + busyCount.sum() + " bận, " + failedCount.sum() + " lỗi, "
+                + "WAL hiện " + lastWalFrames + " frame (lag "
+                + lastLag + ", max " + maxLag.get() + "), file WAL max " + maxWalBytes.get() / 1024 + " KB, "
+                + "trung bình " + (runs == 0 ? 0 : totalNanos.sum() / runs / 1000) + " us / max "
+                + maxNanos.get() / 1000 + " us, wal_autocheckpoint=" + AUTO_CHECKPOINT_PAGES;
+    }
+}